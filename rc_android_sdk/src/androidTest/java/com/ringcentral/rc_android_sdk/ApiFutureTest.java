@@ -0,0 +1,77 @@
+package com.ringcentral.rc_android_sdk;
+
+import android.test.InstrumentationTestCase;
+
+import com.ringcentral.rc_android_sdk.rcsdk.http.ApiFuture;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class ApiFutureTest extends InstrumentationTestCase {
+
+    public void testAllOfKeepsOrder() throws Exception {
+        ApiFuture<String> a = new ApiFuture<>();
+        ApiFuture<String> b = new ApiFuture<>();
+        ApiFuture<List<String>> all = ApiFuture.allOf(a, b);
+        b.complete("b");
+        assertFalse(all.isDone());
+        a.complete("a");
+        List<String> values = all.get(1, TimeUnit.SECONDS);
+        assertEquals("a", values.get(0));
+        assertEquals("b", values.get(1));
+    }
+
+    public void testAllOfFailsFastAndCancelsOthers() throws Exception {
+        ApiFuture<String> a = new ApiFuture<>();
+        ApiFuture<String> b = new ApiFuture<>();
+        ApiFuture<List<String>> all = ApiFuture.allOf(a, b);
+        a.fail(new IOException("boom"));
+        assertTrue(b.isCancelled());
+        try {
+            all.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertEquals("boom", e.getCause().getMessage());
+        }
+    }
+
+    public void testThenCompose() throws Exception {
+        ApiFuture<Integer> first = new ApiFuture<>();
+        final ApiFuture<String> second = new ApiFuture<>();
+        ApiFuture<String> chained = first.thenCompose(new ApiFuture.AsyncFunction<Integer, String>() {
+            @Override
+            public ApiFuture<String> apply(Integer value) throws Exception {
+                second.complete("value " + value);
+                return second;
+            }
+        }).thenApply(new ApiFuture.Function<String, String>() {
+            @Override
+            public String apply(String value) throws Exception {
+                return value.toUpperCase();
+            }
+        });
+        first.complete(7);
+        assertEquals("VALUE 7", chained.get(1, TimeUnit.SECONDS));
+    }
+
+    public void testCancelPropagatesUpstream() throws Exception {
+        ApiFuture<Integer> first = new ApiFuture<>();
+        ApiFuture<String> chained = first.thenCompose(new ApiFuture.AsyncFunction<Integer, String>() {
+            @Override
+            public ApiFuture<String> apply(Integer value) throws Exception {
+                return ApiFuture.completed("never");
+            }
+        });
+        assertTrue(chained.cancel(true));
+        assertTrue(first.isCancelled());
+        assertFalse(first.complete(1));
+        try {
+            chained.get();
+            fail();
+        } catch (CancellationException expected) {
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.ringcentral.rc_android_sdk;
+
+import android.test.InstrumentationTestCase;
+
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Helpers;
+import com.ringcentral.rc_android_sdk.rcsdk.sms.BulkSmsJob;
+import com.ringcentral.rc_android_sdk.rcsdk.sms.BulkSmsListener;
+import com.ringcentral.rc_android_sdk.rcsdk.sms.SmsMessage;
+import com.ringcentral.rc_android_sdk.rcsdk.sms.SmsResult;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+import com.squareup.okhttp.mockwebserver.SocketPolicy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BulkSmsJobTest extends InstrumentationTestCase {
+
+    private static final String SMS = "/restapi/v1.0/account/~/extension/~/sms";
+
+    private MockWebServer server;
+    private Helpers helpers;
+    private final List<SmsResult> results = new CopyOnWriteArrayList<>();
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private final AtomicInteger completions = new AtomicInteger();
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        server = new MockWebServer();
+        server.start();
+        helpers = TestPlatforms.helpers(server);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        server.shutdown();
+        super.tearDown();
+    }
+
+    private BulkSmsJob job(Helpers helpers, int count) {
+        List<SmsMessage> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            messages.add(new SmsMessage("+1650555" + (1000 + i), "+15855550000", "Reminder " + i));
+        }
+        BulkSmsJob job = new BulkSmsJob(helpers, messages.iterator(), new BulkSmsListener() {
+            @Override
+            public void onResult(SmsResult result) {
+                results.add(result);
+            }
+
+            @Override
+            public void onComplete(BulkSmsJob job) {
+                completions.incrementAndGet();
+                completed.countDown();
+            }
+        });
+        job.setRateLimit(1000);
+        return job;
+    }
+
+    private void run(BulkSmsJob job) throws Exception {
+        job.start();
+        assertTrue(job.awaitCompletion(10, TimeUnit.SECONDS));
+        assertTrue(completed.await(1, TimeUnit.SECONDS));
+        assertEquals(1, completions.get());
+    }
+
+    public void testLimitsConcurrencyAndRate() throws Exception {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                int count = inFlight.incrementAndGet();
+                while (true) {
+                    int max = maxInFlight.get();
+                    if (count <= max || maxInFlight.compareAndSet(max, count)) {
+                        break;
+                    }
+                }
+                Thread.sleep(20);
+                inFlight.decrementAndGet();
+                return new MockResponse().setBody("{\"id\":\"1\"}");
+            }
+        });
+        int perHost = helpers.getClient().getDispatcher().getMaxRequestsPerHost();
+        BulkSmsJob job = job(helpers, 10);
+        job.setConcurrency(perHost + 3);
+        job.setRateLimit(20);
+        long start = System.nanoTime();
+        run(job);
+        //10 messages at 20 per second are spread over at least 450ms
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(450));
+        assertEquals(10, job.getSentCount());
+        assertEquals(10, results.size());
+        assertTrue(maxInFlight.get() <= perHost);
+        //The shared client's dispatcher is left as it was
+        assertEquals(perHost, helpers.getClient().getDispatcher().getMaxRequestsPerHost());
+    }
+
+    public void testConcurrencyBelowClientLimit() throws Exception {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                int count = inFlight.incrementAndGet();
+                while (true) {
+                    int max = maxInFlight.get();
+                    if (count <= max || maxInFlight.compareAndSet(max, count)) {
+                        break;
+                    }
+                }
+                Thread.sleep(20);
+                inFlight.decrementAndGet();
+                return new MockResponse().setBody("{\"id\":\"1\"}");
+            }
+        });
+        BulkSmsJob job = job(helpers, 12);
+        job.setConcurrency(2);
+        run(job);
+        assertEquals(12, job.getSentCount());
+        assertTrue(maxInFlight.get() <= 2);
+    }
+
+    public void testRetriesThrottledMessage() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "0")
+                .setBody("{\"errorCode\":\"CMN-301\"}"));
+        server.enqueue(new MockResponse().setBody("{\"id\":\"77\"}"));
+        BulkSmsJob job = job(helpers, 1);
+        run(job);
+        assertEquals(1, results.size());
+        SmsResult result = results.get(0);
+        assertEquals(SmsResult.Status.SENT, result.getStatus());
+        assertEquals("77", result.getMessageId());
+        assertEquals(2, result.getAttempts());
+        assertEquals(2, server.getRequestCount());
+        assertEquals(1, helpers.getMetrics().getEndpoint("POST", SMS).getRetryCount());
+    }
+
+    public void testServerErrorIsNotRetried() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503).setBody("{\"errorCode\":\"CMN-201\"}"));
+        server.enqueue(new MockResponse().setBody("{\"id\":\"77\"}"));
+        BulkSmsJob job = job(helpers, 1);
+        run(job);
+        SmsResult result = results.get(0);
+        assertEquals(SmsResult.Status.UNKNOWN, result.getStatus());
+        assertEquals(503, result.getHttpStatus());
+        assertEquals(1, result.getAttempts());
+        assertEquals(1, server.getRequestCount());
+        assertEquals(1, job.getUnknownCount());
+        assertEquals(0, job.getFailedCount());
+    }
+
+    public void testTimeoutAfterSendIsNotRetried() throws Exception {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        server.enqueue(new MockResponse().setBody("{\"id\":\"77\"}"));
+        helpers.getClient().setReadTimeout(300, TimeUnit.MILLISECONDS);
+        BulkSmsJob job = job(helpers, 1);
+        run(job);
+        SmsResult result = results.get(0);
+        assertEquals(SmsResult.Status.UNKNOWN, result.getStatus());
+        assertEquals(0, result.getHttpStatus());
+        assertEquals(1, result.getAttempts());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    public void testRefusedConnectionIsRetried() throws Exception {
+        MockWebServer closed = new MockWebServer();
+        closed.start();
+        String url = TestPlatforms.url(closed);
+        closed.shutdown();
+        Helpers offline = TestPlatforms.helpers(url);
+        BulkSmsJob job = job(offline, 1);
+        job.setMaxRetries(1);
+        run(job);
+        SmsResult result = results.get(0);
+        //Nothing reached a server, so the message is known not to be sent
+        assertEquals(SmsResult.Status.FAILED, result.getStatus());
+        assertEquals(2, result.getAttempts());
+        assertEquals(1, offline.getMetrics().getEndpoint("POST", SMS).getRetryCount());
+    }
+
+    public void testCompletesOnceAfterLastResult() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setBody("{\"id\":\"" + i + "\"}"));
+        }
+        final List<String> events = new CopyOnWriteArrayList<>();
+        List<SmsMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            messages.add(new SmsMessage("k" + i, "+1650555100" + i, "+15855550000", "Reminder"));
+        }
+        final CountDownLatch done = new CountDownLatch(1);
+        BulkSmsJob job = new BulkSmsJob(helpers, messages.iterator(), new BulkSmsListener() {
+            @Override
+            public void onResult(SmsResult result) {
+                events.add(result.getMessage().getKey() + " " + result.getStatus());
+            }
+
+            @Override
+            public void onComplete(BulkSmsJob job) {
+                events.add("complete");
+                done.countDown();
+            }
+        });
+        job.setRateLimit(1000);
+        job.setCompletedKeys(Arrays.asList("k2"));
+        job.start();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(job.isDone());
+        assertEquals(5, events.size());
+        assertEquals("complete", events.get(4));
+        assertTrue(events.contains("k2 SKIPPED"));
+        assertEquals(3, job.getSentCount());
+        assertEquals(4, job.getCompletedKeys().size());
+    }
+}
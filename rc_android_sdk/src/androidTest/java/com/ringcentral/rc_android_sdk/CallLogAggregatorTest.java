@@ -0,0 +1,120 @@
+package com.ringcentral.rc_android_sdk;
+
+import android.test.InstrumentationTestCase;
+
+import com.ringcentral.rc_android_sdk.rcsdk.calllog.CallLogAggregator;
+import com.ringcentral.rc_android_sdk.rcsdk.calllog.CallStats;
+import com.ringcentral.rc_android_sdk.rcsdk.model.CallLogRecord;
+import com.ringcentral.rc_android_sdk.rcsdk.model.CallerInfo;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class CallLogAggregatorTest extends InstrumentationTestCase {
+
+    private static final long HOUR = 3600000L;
+
+    private static CallLogRecord record(String id, long start, int duration, String result, String extensionId, String from) {
+        CallLogRecord record = new CallLogRecord();
+        record.id = id;
+        record.startTimeMillis = start;
+        record.duration = duration;
+        record.direction = "Inbound";
+        record.result = result;
+        record.extensionId = extensionId;
+        record.from = new CallerInfo(from);
+        record.to = new CallerInfo("+15855550000");
+        return record;
+    }
+
+    public void testWindowsMatchRecomputation() throws Exception {
+        CallLogAggregator aggregator = new CallLogAggregator(new Platform("key", "secret", "SANDBOX"), HOUR, 24);
+        Random random = new Random(7);
+        List<CallLogRecord> all = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            long start = 100 * HOUR + (long) (random.nextDouble() * 24 * HOUR);
+            String result = random.nextInt(10) == 0 ? "Missed" : "Accepted";
+            CallLogRecord record = record("id" + i, start, random.nextInt(600), result, "ext" + random.nextInt(5),
+                    "+1650555000" + random.nextInt(10));
+            all.add(record);
+        }
+        assertEquals(5000, aggregator.addAll(all));
+
+        long from = 105 * HOUR;
+        long to = 117 * HOUR;
+        CallStats window = aggregator.getByExtension("ext3", from, to);
+        int calls = 0;
+        int missed = 0;
+        long duration = 0;
+        for (CallLogRecord record : all) {
+            if (record.extensionId.equals("ext3") && record.startTimeMillis >= from && record.startTimeMillis < to) {
+                calls++;
+                duration += record.duration;
+                if (record.result.equals("Missed")) {
+                    missed++;
+                }
+            }
+        }
+        assertEquals(calls, window.getCalls());
+        assertEquals(missed, window.getMissed());
+        assertEquals(duration, window.getTotalDuration());
+        assertTrue(window.getDurationPercentile(50) >= 150 && window.getDurationPercentile(50) <= 511);
+
+        assertEquals(5000, aggregator.getTotals(0, Long.MAX_VALUE).getCalls());
+        assertEquals(5, aggregator.getAllByExtension(0, Long.MAX_VALUE).size());
+        assertTrue(aggregator.getByNumber("+1 650 555 0003", 0, Long.MAX_VALUE).getCalls() > 0);
+    }
+
+    public void testOldBucketsRollOff() throws Exception {
+        CallLogAggregator aggregator = new CallLogAggregator(new Platform("key", "secret", "SANDBOX"), HOUR, 2);
+        assertTrue(aggregator.add(record("a", 10 * HOUR, 60, "Accepted", "1", "+16505550001")));
+        assertTrue(aggregator.add(record("b", 11 * HOUR, 60, "Missed", "1", "+16505550001")));
+        assertTrue(aggregator.add(record("c", 12 * HOUR, 60, "Accepted", "1", "+16505550001")));
+        //Hour 10 is out of the ring now
+        assertFalse(aggregator.add(record("d", 10 * HOUR, 60, "Accepted", "1", "+16505550001")));
+        CallStats totals = aggregator.getTotals(0, Long.MAX_VALUE);
+        assertEquals(2, totals.getCalls());
+        assertEquals(0.5, totals.getMissedRate(), 0.001);
+        assertEquals(60.0, totals.getAverageDuration(), 0.001);
+    }
+
+    public void testCallEndsShareOneUpdate() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setBody("{\"records\":[],\"navigation\":{}}");
+            }
+        });
+        server.start();
+        try {
+            Platform platform = TestPlatforms.authorized(server);
+            CallLogAggregator aggregator = new CallLogAggregator(platform, HOUR, 24);
+            aggregator.setUpdateDelayMillis(200);
+            JSONObject noCall = new JSONObject().put("telephonyStatus", "NoCall");
+            for (int i = 0; i < 50; i++) {
+                aggregator.onNotification("/restapi/v1.0/account/123/extension/" + i + "/presence", noCall);
+            }
+            Thread.sleep(1000);
+            assertEquals(1, server.getRequestCount());
+
+            //Once the update has started, the next call end schedules another one
+            aggregator.onNotification("/restapi/v1.0/account/123/extension/1/presence", noCall);
+            long deadline = System.currentTimeMillis() + 10000;
+            while (server.getRequestCount() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, server.getRequestCount());
+        } finally {
+            server.shutdown();
+        }
+    }
+}
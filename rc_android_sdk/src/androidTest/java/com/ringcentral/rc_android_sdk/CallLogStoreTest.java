@@ -0,0 +1,88 @@
+package com.ringcentral.rc_android_sdk;
+
+import android.test.InstrumentationTestCase;
+
+import com.ringcentral.rc_android_sdk.rcsdk.calllog.CallLogStore;
+import com.ringcentral.rc_android_sdk.rcsdk.model.CallLogRecord;
+import com.ringcentral.rc_android_sdk.rcsdk.model.CallerInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class CallLogStoreTest extends InstrumentationTestCase {
+
+    private static CallLogRecord record(String id, long start, String from, String to) {
+        CallLogRecord record = new CallLogRecord();
+        record.id = id;
+        record.startTimeMillis = start;
+        record.duration = 30;
+        record.direction = "Inbound";
+        record.result = "Accepted";
+        record.from = new CallerInfo(from);
+        record.to = new CallerInfo(to);
+        return record;
+    }
+
+    public void testNormalizeNumber() throws Exception {
+        assertEquals("+16505551234", CallLogStore.normalizeNumber("+1 (650) 555-1234"));
+        assertEquals("101", CallLogStore.normalizeNumber("101"));
+        assertNull(CallLogStore.normalizeNumber("()"));
+    }
+
+    public void testIgnoresDuplicateIds() throws Exception {
+        CallLogStore store = new CallLogStore();
+        assertTrue(store.add(record("a", 1, "+1650", "+1585")));
+        assertFalse(store.add(record("a", 1, "+1650", "+1585")));
+        assertEquals(1, store.size());
+        assertEquals("+1650", store.getFromNumber(0));
+        assertEquals(CallLogStore.DIRECTION_INBOUND, store.getDirection(0));
+        assertEquals("Accepted", store.getRecord(0).result);
+    }
+
+    public void testQueriesMatchLinearScan() throws Exception {
+        Random random = new Random(42);
+        CallLogStore store = new CallLogStore();
+        List<CallLogRecord> all = new ArrayList<>();
+        //Pages arrive newest first, as they do from the API
+        for (int page = 0; page < 20; page++) {
+            List<CallLogRecord> records = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                long start = (20 - page) * 100000L - i * 1000L + random.nextInt(500);
+                records.add(record("id" + page + "-" + i, start, "+1650555" + random.nextInt(20), "+1585000" + random.nextInt(5)));
+            }
+            store.addAll(records);
+            all.addAll(records);
+            //Query between pages so the time index is merged incrementally
+            store.findByTime(0, 1);
+        }
+        assertEquals(2000, store.size());
+
+        int[] rows = store.findByNumber("+1 650 555 7", 500000, 1500000);
+        int expected = 0;
+        for (CallLogRecord record : all) {
+            boolean matches = "+16505557".equals(record.from.phoneNumber) || "+16505557".equals(record.to.phoneNumber);
+            if (matches && record.startTimeMillis >= 500000 && record.startTimeMillis < 1500000) {
+                expected++;
+            }
+        }
+        assertEquals(expected, rows.length);
+        for (int i = 1; i < rows.length; i++) {
+            assertTrue(store.getStartTime(rows[i - 1]) <= store.getStartTime(rows[i]));
+        }
+
+        rows = store.findByTime(300000, 900000);
+        expected = 0;
+        for (CallLogRecord record : all) {
+            if (record.startTimeMillis >= 300000 && record.startTimeMillis < 900000) {
+                expected++;
+            }
+        }
+        assertEquals(expected, rows.length);
+
+        //A number called in almost every record takes the time-range path
+        assertEquals(store.findByTime(300000, 310000).length > 0,
+                store.findByNumber("+15850000", 0, Long.MAX_VALUE).length > 0);
+        assertEquals(0, store.findByNumber("+19999999").length);
+    }
+}
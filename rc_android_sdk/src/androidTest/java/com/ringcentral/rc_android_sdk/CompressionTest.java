@@ -0,0 +1,111 @@
+package com.ringcentral.rc_android_sdk;
+
+import android.test.InstrumentationTestCase;
+
+import com.ringcentral.rc_android_sdk.rcsdk.http.ResponseFuture;
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.EndpointMetrics;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.squareup.okhttp.RequestBody;
+import com.squareup.okhttp.Response;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.GzipSource;
+import okio.Okio;
+
+public class CompressionTest extends InstrumentationTestCase {
+
+    private static final String SMS = "/restapi/v1.0/account/~/extension/~/sms";
+
+    private MockWebServer server;
+    private Platform platform;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        server = new MockWebServer();
+        server.start();
+        platform = TestPlatforms.authorized(server);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        server.shutdown();
+        super.tearDown();
+    }
+
+    private static String json(int records) {
+        StringBuilder json = new StringBuilder("{\"records\":[");
+        for (int i = 0; i < records; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"to\":[{\"phoneNumber\":\"+1650555").append(1000 + i)
+                    .append("\"}],\"text\":\"Your appointment is confirmed\"}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private static Buffer gzip(String text) throws Exception {
+        Buffer compressed = new Buffer();
+        BufferedSink sink = Okio.buffer(new GzipSink(compressed));
+        sink.writeUtf8(text);
+        sink.close();
+        return compressed;
+    }
+
+    private Response post(String json) throws Exception {
+        ResponseFuture future = new ResponseFuture();
+        platform.sendRequest("POST", SMS, RequestBody.create(Platform.JSON_TYPE_MARKDOWN, json),
+                new HashMap<String, String>(), future);
+        return future.get(10, TimeUnit.SECONDS).getResponse();
+    }
+
+    public void testBodiesAboveThresholdAreGzipped() throws Exception {
+        platform.setRequestCompression(1024);
+        String large = json(100);
+        String small = json(1);
+        server.enqueue(new MockResponse().setBody("{}"));
+        server.enqueue(new MockResponse().setBody("{}"));
+        post(large).body().close();
+        post(small).body().close();
+
+        RecordedRequest compressed = server.takeRequest();
+        assertEquals("gzip", compressed.getHeader("Content-Encoding"));
+        long wireSize = compressed.getBodySize();
+        assertTrue(wireSize < large.length() / 4);
+        assertEquals(large, Okio.buffer(new GzipSource(compressed.getBody())).readUtf8());
+        RecordedRequest plain = server.takeRequest();
+        assertNull(plain.getHeader("Content-Encoding"));
+        assertEquals(small, plain.getBody().readUtf8());
+
+        EndpointMetrics metrics = platform.getMetrics().getEndpoint("POST", SMS);
+        assertEquals(large.length() + small.length(), metrics.getBytesOut());
+        assertEquals(wireSize + small.length(), metrics.getWireBytesOut());
+    }
+
+    public void testCompressedResponsesAreDecodedAndCountedOnWire() throws Exception {
+        String records = json(100);
+        Buffer compressed = gzip(records);
+        long wireSize = compressed.size();
+        server.enqueue(new MockResponse().setBody(compressed).addHeader("Content-Encoding", "gzip"));
+        Response response = post("{}");
+        assertEquals(records, response.body().string());
+        assertEquals("gzip", server.takeRequest().getHeader("Accept-Encoding"));
+
+        EndpointMetrics metrics = platform.getMetrics().getEndpoint("POST", SMS);
+        assertEquals(records.length(), metrics.getBytesIn());
+        assertEquals(wireSize, metrics.getWireBytesIn());
+
+        platform.setResponseCompression(false);
+        server.enqueue(new MockResponse().setBody(records));
+        assertEquals(records, post("{}").body().string());
+        assertEquals("identity", server.takeRequest().getHeader("Accept-Encoding"));
+        assertEquals(2 * records.length(), metrics.getBytesIn());
+        assertEquals(wireSize + records.length(), metrics.getWireBytesIn());
+    }
+}
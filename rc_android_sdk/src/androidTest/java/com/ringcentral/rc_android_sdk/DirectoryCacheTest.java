@@ -0,0 +1,141 @@
+package com.ringcentral.rc_android_sdk;
+
+import android.test.InstrumentationTestCase;
+
+import com.ringcentral.rc_android_sdk.rcsdk.directory.DirectoryCache;
+import com.ringcentral.rc_android_sdk.rcsdk.model.DirectoryEntry;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.ringcentral.rc_android_sdk.rcsdk.subscription.WebhookReceiver;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class DirectoryCacheTest extends InstrumentationTestCase {
+
+    private static DirectoryEntry entry(String type, String id, String name, String... numbers) {
+        DirectoryEntry entry = new DirectoryEntry();
+        entry.type = type;
+        entry.id = id;
+        entry.name = name;
+        for (String number : numbers) {
+            entry.phoneNumbers.add(number);
+        }
+        return entry;
+    }
+
+    public void testLookups() throws Exception {
+        DirectoryCache cache = new DirectoryCache(new Platform("key", "secret", "SANDBOX"));
+        cache.put(entry(DirectoryEntry.TYPE_CONTACT, "1", "John Smith", "(650) 555-1234"));
+        cache.put(entry(DirectoryEntry.TYPE_CONTACT, "2", "Joan Smithers", "+1 585 555 0000"));
+        DirectoryEntry extension = entry(DirectoryEntry.TYPE_EXTENSION, "3", "Reception", "+15855550000");
+        extension.extensionNumber = "101";
+        cache.put(extension);
+
+        assertEquals("1", cache.findByNumber("+16505551234").id);
+        //Extensions win over contacts with the same number
+        assertEquals("3", cache.findByNumber("+15855550000").id);
+        assertEquals("3", cache.findByNumber("101").id);
+        assertNull(cache.findByNumber("+19995550000"));
+
+        List<DirectoryEntry> found = cache.findByName("jo sm", 10);
+        assertEquals(2, found.size());
+        assertEquals("Joan Smithers", found.get(0).name);
+        assertEquals(1, cache.findByName("smithers", 10).size());
+        assertEquals(1, cache.findByName("jo", 1).size());
+
+        //Replacing an entry drops its old number and name from the indexes
+        cache.put(entry(DirectoryEntry.TYPE_CONTACT, "1", "Jane Doe", "+16505559999"));
+        assertNull(cache.findByNumber("+16505551234"));
+        assertEquals(0, cache.findByName("john", 10).size());
+        cache.remove(DirectoryEntry.TYPE_CONTACT, "1");
+        assertNull(cache.findByNumber("+16505559999"));
+        assertEquals(2, cache.size());
+    }
+
+    public void testFillAndNotifications() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.start();
+        try {
+            Platform platform = TestPlatforms.authorized(server);
+
+            server.enqueue(new MockResponse().setBody("{\"records\":[{\"id\":11,\"extensionNumber\":\"102\","
+                    + "\"name\":\"Ann Lee\",\"contact\":{\"email\":\"ann@example.com\"}}],\"navigation\":{}}"));
+            server.enqueue(new MockResponse().setBody("{\"records\":[{\"phoneNumber\":\"+16505550102\","
+                    + "\"extension\":{\"id\":11}}],\"navigation\":{}}"));
+            server.enqueue(new MockResponse().setBody("{\"records\":[{\"id\":21,\"firstName\":\"Bob\","
+                    + "\"lastName\":\"Stone\",\"mobilePhone\":\"6505550199\"}],\"syncInfo\":{\"syncToken\":\"t1\"}}"));
+
+            DirectoryCache cache = new DirectoryCache(platform);
+            final CountDownLatch done = new CountDownLatch(1);
+            cache.fill(new DirectoryCache.LoadCallback() {
+                @Override
+                public void onComplete() {
+                    done.countDown();
+                }
+
+                @Override
+                public void onFailure(IOException e) {
+                    e.printStackTrace();
+                }
+            });
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertEquals("Ann Lee", cache.findByNumber("+16505550102").name);
+            assertEquals("Bob Stone", cache.findByNumber("+1 650 555 0199").name);
+            assertEquals("11", cache.findByName("an", 10).get(0).id);
+
+            //An extension update is fetched and keeps the numbers from the phone-number list
+            server.enqueue(new MockResponse().setBody("{\"id\":11,\"extensionNumber\":\"102\",\"name\":\"Ann Green\"}"));
+            cache.onNotification("/restapi/v1.0/account/~/extension",
+                    new JSONObject("{\"extensions\":[{\"extensionId\":\"11\",\"eventType\":\"Update\"}]}"));
+            long deadline = System.currentTimeMillis() + 10000;
+            while (cache.findByName("green", 1).isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals("Ann Green", cache.findByNumber("+16505550102").name);
+
+            cache.onNotification("/restapi/v1.0/account/~/extension",
+                    new JSONObject("{\"extensions\":[{\"extensionId\":\"11\",\"eventType\":\"Delete\"}]}"));
+            assertNull(cache.findByNumber("102"));
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testPlatformCacheSubscribesToItsEvents() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.start();
+        try {
+            Platform platform = TestPlatforms.authorized(server);
+            platform.getSubscriptionManager().setWebhook(new WebhookReceiver(0), "https://hooks.example.com/rc");
+            server.enqueue(new MockResponse().setBody("{\"id\":\"sub-1\",\"expiresIn\":900,"
+                    + "\"deliveryMode\":{\"transportType\":\"WebHook\",\"address\":\"https://hooks.example.com/rc\"}}"));
+
+            DirectoryCache cache = platform.getDirectoryCache();
+            assertSame(cache, platform.getDirectoryCache());
+            RecordedRequest request = server.takeRequest(10, TimeUnit.SECONDS);
+            assertEquals("POST", request.getMethod());
+            assertEquals("/restapi/v1.0/subscription", request.getPath());
+            JSONArray filters = new JSONObject(request.getBody().readUtf8()).getJSONArray("eventFilters");
+            assertEquals(DirectoryCache.EVENT_FILTERS.length, filters.length());
+            for (int i = 0; i < filters.length(); i++) {
+                assertEquals(DirectoryCache.EVENT_FILTERS[i], filters.getString(i));
+            }
+
+            //Notifications reach the cache through the manager
+            cache.put(entry(DirectoryEntry.TYPE_EXTENSION, "11", "Ann Lee", "+16505550102"));
+            platform.getSubscriptionManager().onNotification("/restapi/v1.0/account/123/extension",
+                    new JSONObject("{\"extensions\":[{\"extensionId\":\"11\",\"eventType\":\"Delete\"}]}"));
+            assertNull(cache.findByNumber("+16505550102"));
+        } finally {
+            server.shutdown();
+        }
+    }
+}
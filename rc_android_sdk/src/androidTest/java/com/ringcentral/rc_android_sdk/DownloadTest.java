@@ -0,0 +1,216 @@
+package com.ringcentral.rc_android_sdk;
+
+import android.test.InstrumentationTestCase;
+
+import com.ringcentral.rc_android_sdk.rcsdk.http.DownloadCallback;
+import com.ringcentral.rc_android_sdk.rcsdk.http.ResponseFuture;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Helpers;
+import com.squareup.okhttp.MediaType;
+import com.squareup.okhttp.RequestBody;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okio.Buffer;
+import okio.ByteString;
+import okio.Okio;
+
+public class DownloadTest extends InstrumentationTestCase {
+
+    private static final String ATTACHMENT = "/restapi/v1.0/account/~/extension/~/message-store/1/content/2";
+
+    private MockWebServer server;
+    private Helpers helpers;
+    private File file;
+    private byte[] content;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        server = new MockWebServer();
+        server.start();
+        helpers = TestPlatforms.helpers(server);
+        file = File.createTempFile("download", ".bin");
+        file.delete();
+        content = new byte[20000];
+        new Random(7).nextBytes(content);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        server.shutdown();
+        file.delete();
+        super.tearDown();
+    }
+
+    private void writeFile(byte[] bytes) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+    }
+
+    private byte[] readFile() throws IOException {
+        return Okio.buffer(Okio.source(file)).readByteArray();
+    }
+
+    private static Buffer bytes(byte[] content, int from) {
+        return new Buffer().write(content, from, content.length - from);
+    }
+
+    private static String boundary(MediaType type) {
+        String value = type.toString();
+        return value.substring(value.indexOf("boundary=") + "boundary=".length());
+    }
+
+    public void testFullDownload() throws Exception {
+        server.enqueue(new MockResponse().setBody(bytes(content, 0)));
+        Result result = new Result();
+        helpers.download(ATTACHMENT, file, result);
+        result.await();
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals(ATTACHMENT, request.getPath());
+        assertNull(request.getHeader("Range"));
+        assertEquals(content.length, result.total);
+        assertEquals(content.length, result.lastTotal);
+        assertTrue(result.progressCalls > 1);
+        assertTrue(Arrays.equals(content, readFile()));
+    }
+
+    public void testResumesFromOffset() throws Exception {
+        writeFile(Arrays.copyOf(content, 5000));
+        server.enqueue(new MockResponse().setResponseCode(206)
+                .setHeader("Content-Range", "bytes 5000-19999/20000")
+                .setBody(bytes(content, 5000)));
+        Result result = new Result();
+        helpers.download(ATTACHMENT, file, result);
+        result.await();
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("bytes=5000-", request.getHeader("Range"));
+        //The range applies to the stored bytes, so the response must not be compressed
+        assertEquals("identity", request.getHeader("Accept-Encoding"));
+        assertEquals(content.length, result.total);
+        assertEquals(content.length, result.lastTotal);
+        assertTrue(Arrays.equals(content, readFile()));
+    }
+
+    public void testServerIgnoringRangeRestarts() throws Exception {
+        writeFile(Arrays.copyOf(content, 5000));
+        server.enqueue(new MockResponse().setBody(bytes(content, 0)));
+        Result result = new Result();
+        helpers.download(ATTACHMENT, file, result);
+        result.await();
+
+        assertEquals("bytes=5000-", server.takeRequest().getHeader("Range"));
+        assertEquals(content.length, result.total);
+        assertTrue(Arrays.equals(content, readFile()));
+
+        //A sink already holding the first bytes skips them in the full response
+        Buffer sink = new Buffer().write(content, 0, 5000);
+        server.enqueue(new MockResponse().setBody(bytes(content, 0)));
+        Result sinkResult = new Result();
+        helpers.download(ATTACHMENT, 5000, sink, sinkResult);
+        sinkResult.await();
+        assertEquals("identity", server.takeRequest().getHeader("Accept-Encoding"));
+        assertEquals(content.length, sinkResult.total);
+        assertEquals(ByteString.of(content), sink.readByteString());
+    }
+
+    public void testMultipartBodyLayout() throws Exception {
+        File attachment = File.createTempFile("fax", ".txt");
+        try {
+            Okio.buffer(Okio.sink(attachment)).writeUtf8("Page one").close();
+            RequestBody body = helpers.multipartBody("{\"to\":[]}", Arrays.asList(attachment));
+            MediaType type = body.contentType();
+            assertEquals("multipart", type.type());
+            assertEquals("form-data", type.subtype());
+            String boundary = boundary(type);
+            assertFalse(boundary.equals(boundary(helpers.multipartBody("{}", Arrays.asList(attachment)).contentType())));
+
+            Buffer written = new Buffer();
+            body.writeTo(written);
+            assertEquals(body.contentLength(), written.size());
+            String text = written.readUtf8();
+            String[] parts = text.split("--" + boundary);
+            //Preamble, the JSON part, the attachment and the closing delimiter
+            assertEquals(4, parts.length);
+            assertEquals("", parts[0]);
+            assertTrue(parts[1].contains("Content-Disposition: form-data; name=\"json\"; filename=\"request.json\""));
+            assertTrue(parts[1].contains("Content-Type: application/json"));
+            assertTrue(parts[1].endsWith("\r\n\r\n{\"to\":[]}\r\n"));
+            assertTrue(parts[2].contains("Content-Disposition: form-data; name=\"attachment\"; filename=\""
+                    + attachment.getName() + "\""));
+            assertTrue(parts[2].contains("Content-Type: text/plain"));
+            assertTrue(parts[2].endsWith("\r\n\r\nPage one\r\n"));
+            assertEquals("--\r\n", parts[3]);
+        } finally {
+            attachment.delete();
+        }
+    }
+
+    public void testSendFax() throws Exception {
+        File attachment = File.createTempFile("fax", ".txt");
+        try {
+            Okio.buffer(Okio.sink(attachment)).writeUtf8("Page one").close();
+            server.enqueue(new MockResponse().setBody("{\"id\":\"1\",\"messageStatus\":\"Queued\"}"));
+            ResponseFuture future = new ResponseFuture();
+            helpers.sendFax("+16505551234", "Cover", Arrays.asList(attachment), future);
+            assertTrue(future.get(5, TimeUnit.SECONDS).isOK());
+
+            RecordedRequest request = server.takeRequest();
+            assertEquals("POST", request.getMethod());
+            assertEquals("/restapi/v1.0/account/~/extension/~/fax", request.getPath());
+            assertTrue(request.getHeader("Content-Type").startsWith("multipart/form-data; boundary="));
+            String body = request.getBody().readUtf8();
+            assertTrue(body.contains("\"to\":[{\"phoneNumber\":\"+16505551234\"}]"));
+            assertTrue(body.contains("\"coverPageText\":\"Cover\""));
+            assertTrue(body.indexOf("name=\"json\"") < body.indexOf("name=\"attachment\""));
+            assertTrue(body.contains("\r\n\r\nPage one\r\n"));
+        } finally {
+            attachment.delete();
+        }
+    }
+
+    private static class Result extends DownloadCallback {
+        private final CountDownLatch done = new CountDownLatch(1);
+        volatile long total = -1;
+        volatile long lastTotal;
+        volatile int progressCalls;
+        volatile IOException error;
+
+        @Override
+        public void onProgress(long bytesWritten, long totalBytes) {
+            progressCalls++;
+            lastTotal = totalBytes;
+        }
+
+        @Override
+        public void onComplete(long totalBytes) {
+            total = totalBytes;
+            done.countDown();
+        }
+
+        @Override
+        public void onFailure(IOException e) {
+            error = e;
+            done.countDown();
+        }
+
+        void await() throws Exception {
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertNull(error);
+        }
+    }
+}
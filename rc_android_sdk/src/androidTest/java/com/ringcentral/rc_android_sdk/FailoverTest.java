@@ -0,0 +1,173 @@
+package com.ringcentral.rc_android_sdk;
+
+import android.test.InstrumentationTestCase;
+
+import com.ringcentral.rc_android_sdk.rcsdk.http.CircuitBreaker;
+import com.ringcentral.rc_android_sdk.rcsdk.http.FailoverInterceptor;
+import com.ringcentral.rc_android_sdk.rcsdk.http.RequestOptions;
+import com.ringcentral.rc_android_sdk.rcsdk.http.ResponseFuture;
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.MetricsRegistry;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.RequestBody;
+import com.squareup.okhttp.Response;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.SocketPolicy;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class FailoverTest extends InstrumentationTestCase {
+
+    private MockWebServer primary;
+    private MockWebServer alternate;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        primary = new MockWebServer();
+        alternate = new MockWebServer();
+        primary.start();
+        alternate.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        primary.shutdown();
+        alternate.shutdown();
+        super.tearDown();
+    }
+
+    public void testBreakerOpensAndProbes() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("https://example.com", 2, 50);
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        Thread.sleep(60);
+        //Only one probe is let through while half open
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        Thread.sleep(60);
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    public void testFailsOverAndReturns() throws Exception {
+        FailoverInterceptor failover = new FailoverInterceptor(2, 100);
+        failover.setServers(Arrays.asList(TestPlatforms.url(primary), TestPlatforms.url(alternate)));
+        MetricsRegistry metrics = new MetricsRegistry();
+        failover.setMetrics(metrics);
+        OkHttpClient client = new OkHttpClient();
+        client.interceptors().add(failover);
+
+        for (int i = 0; i < 2; i++) {
+            primary.enqueue(new MockResponse().setResponseCode(503));
+        }
+        for (int i = 0; i < 5; i++) {
+            alternate.enqueue(new MockResponse().setBody("alternate"));
+        }
+        Request get = new Request.Builder().url(primary.getUrl("/restapi/v1.0")).build();
+        //A GET is retried on the alternate when the primary fails
+        assertEquals("alternate", client.newCall(get).execute().body().string());
+        assertEquals("alternate", client.newCall(get).execute().body().string());
+        assertEquals(CircuitBreaker.State.OPEN, failover.getBreakers().get(0).getState());
+
+        //While the breaker is open the primary is skipped without a request
+        assertEquals("alternate", client.newCall(get).execute().body().string());
+        assertEquals(2, primary.getRequestCount());
+        //Only the requests sent again after a failure count as retries
+        assertEquals(2, metrics.getEndpoint("GET", "/restapi/v1.0").getRetryCount());
+
+        Thread.sleep(150);
+        primary.enqueue(new MockResponse().setBody("primary"));
+        assertEquals("primary", client.newCall(get).execute().body().string());
+        assertEquals(CircuitBreaker.State.CLOSED, failover.getBreakers().get(0).getState());
+    }
+
+    public void testPostIsNotRetriedAndOpenCircuitFailsFast() throws Exception {
+        FailoverInterceptor failover = new FailoverInterceptor(1, 60000);
+        failover.setServers(Arrays.asList(TestPlatforms.url(primary)));
+        OkHttpClient client = new OkHttpClient();
+        client.interceptors().add(failover);
+
+        primary.enqueue(new MockResponse().setResponseCode(503));
+        Request post = new Request.Builder().url(primary.getUrl("/restapi/v1.0/account/~/extension/~/sms"))
+                .post(RequestBody.create(null, "{}")).build();
+        Response response = client.newCall(post).execute();
+        assertEquals(503, response.code());
+        response.body().close();
+
+        long start = System.nanoTime();
+        try {
+            client.newCall(post).execute();
+            fail();
+        } catch (IOException expected) {
+        }
+        assertTrue(System.nanoTime() - start < 1000000000L);
+        assertEquals(1, primary.getRequestCount());
+    }
+
+    public void testCancelledCallsDoNotOpenBreaker() throws Exception {
+        Platform platform = TestPlatforms.authorized(primary);
+        for (int i = 0; i < 6; i++) {
+            primary.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        }
+        for (int i = 0; i < 6; i++) {
+            RequestOptions options = new RequestOptions();
+            options.setTag("screen");
+            ResponseFuture future = new ResponseFuture();
+            platform.sendRequest("GET", "/restapi/v1.0/account/~", null, new HashMap<String, String>(), options, future);
+            //Cancel while the call waits for the response headers
+            primary.takeRequest(5, TimeUnit.SECONDS);
+            platform.cancel("screen");
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException expected) {
+                assertEquals("Canceled", expected.getCause().getMessage());
+            }
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, platform.getSession().getFailover().getBreakers().get(0).getState());
+    }
+
+    public void testOpenCircuitFailsAsyncCall() throws Exception {
+        Platform platform = TestPlatforms.authorized(primary);
+        for (CircuitBreaker breaker : platform.getSession().getFailover().getBreakers()) {
+            while (breaker.getState() != CircuitBreaker.State.OPEN) {
+                breaker.tryAcquire();
+                breaker.onFailure();
+            }
+        }
+        ResponseFuture future = new ResponseFuture();
+        platform.get("/restapi/v1.0/account/~", new HashMap<String, String>(), future);
+        try {
+            //OkHttp 2.4 would drop the callback of a call failed before it proceeds
+            future.get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException expected) {
+            assertEquals("No API server available, every circuit breaker is open", expected.getCause().getMessage());
+        }
+        assertEquals(0, primary.getRequestCount());
+        //The request leaves the session once its callback returned
+        long deadline = System.currentTimeMillis() + 5000;
+        while (platform.getRequestsInFlight() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, platform.getRequestsInFlight());
+    }
+}
@@ -0,0 +1,57 @@
+package com.ringcentral.rc_android_sdk;
+
+import android.test.InstrumentationTestCase;
+
+import com.ringcentral.rc_android_sdk.rcsdk.http.JsonMapper;
+import com.ringcentral.rc_android_sdk.rcsdk.model.CallLogRecord;
+import com.ringcentral.rc_android_sdk.rcsdk.model.Iso8601;
+import com.ringcentral.rc_android_sdk.rcsdk.model.Page;
+import com.ringcentral.rc_android_sdk.rcsdk.model.TokenResponse;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Auth;
+
+import java.io.StringReader;
+
+public class JsonMapperTest extends InstrumentationTestCase {
+
+    public void testTokenResponse() throws Exception {
+        String json = "{\"access_token\": \"a\", \"token_type\": \"bearer\", \"expires_in\": 3600, "
+                + "\"refresh_token\": \"b\", \"refresh_token_expires_in\": 604800, \"scope\": \"SMS\", "
+                + "\"owner_id\": \"123\", \"unknown\": {\"x\": 1}}";
+        TokenResponse token = JsonMapper.fromJson(json, TokenResponse.class);
+        assertEquals("a", token.accessToken);
+        assertEquals(3600, token.expiresIn);
+        assertEquals(604800, token.refreshTokenExpiresIn);
+        assertEquals("123", token.ownerId);
+        Auth auth = new Auth();
+        auth.setData(token);
+        assertEquals("a", auth.getAccessToken());
+        assertTrue(auth.isAccessTokenValid());
+        assertTrue(auth.isRefreshTokenValid());
+    }
+
+    public void testReadPage() throws Exception {
+        String json = "{\"uri\": \"x\", \"records\": [{\"id\": \"1\", \"startTime\": \"2015-08-10T12:00:00.000Z\", "
+                + "\"duration\": 42, \"direction\": \"Inbound\", \"result\": \"Missed\", "
+                + "\"from\": {\"phoneNumber\": \"+16505551234\", \"name\": \"A\"}, \"to\": {\"extensionNumber\": \"101\"}, "
+                + "\"extension\": {\"id\": 400, \"uri\": \"y\"}}], "
+                + "\"paging\": {\"page\": 1, \"perPage\": 100, \"totalPages\": 3}, "
+                + "\"navigation\": {\"nextPage\": {\"uri\": \"next\"}}}";
+        Page<CallLogRecord> page = JsonMapper.readPage(new StringReader(json), CallLogRecord.class);
+        assertEquals(1, page.records.size());
+        CallLogRecord record = page.records.get(0);
+        assertEquals(42, record.duration);
+        assertEquals("+16505551234", record.from.phoneNumber);
+        assertEquals("101", record.to.extensionNumber);
+        assertEquals("400", record.extensionId);
+        assertEquals(1439208000000L, record.startTimeMillis);
+        assertEquals(3, page.totalPages);
+        assertTrue(page.hasNextPage());
+    }
+
+    public void testIso8601() throws Exception {
+        assertEquals(0L, Iso8601.parse("1970-01-01T00:00:00Z"));
+        assertEquals(1439208000123L, Iso8601.parse("2015-08-10T12:00:00.123Z"));
+        assertEquals(1439208000000L, Iso8601.parse("2015-08-10T15:00:00+03:00"));
+        assertEquals(0L, Iso8601.parse("garbage"));
+    }
+}
@@ -0,0 +1,163 @@
+package com.ringcentral.rc_android_sdk;
+
+import android.test.InstrumentationTestCase;
+
+import com.ringcentral.rc_android_sdk.rcsdk.http.ResponseFuture;
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.EndpointMetrics;
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.FlightRecorder;
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.LatencyHistogram;
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.MetricsListener;
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.MetricsRegistry;
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.NotificationMetrics;
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.RequestTrace;
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.StartupTimings;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class MetricsTest extends InstrumentationTestCase {
+
+    public void testEndpointTemplate() throws Exception {
+        assertEquals("/restapi/v1.0/account/~/extension/~/message-store/{id}",
+                MetricsRegistry.endpointTemplate("/restapi/v1.0/account/~/extension/~/message-store/12345"));
+        assertEquals("/restapi/v1.0/account/~/call-log",
+                MetricsRegistry.endpointTemplate("/restapi/v1.0/account/~/call-log?page=2"));
+        assertEquals("/restapi/v1.0/account/{id}/extension/{id}/presence",
+                MetricsRegistry.endpointTemplate("/restapi/v1.0/account/400123/extension/400456/presence"));
+    }
+
+    public void testSameTemplateSharesMetrics() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        EndpointMetrics a = registry.getEndpoint("GET", "/restapi/v1.0/subscription/1");
+        EndpointMetrics b = registry.getEndpoint("GET", "/restapi/v1.0/subscription/2");
+        EndpointMetrics c = registry.getEndpoint("DELETE", "/restapi/v1.0/subscription/2");
+        assertSame(a, b);
+        assertNotSame(a, c);
+        registry.recordResponse(a, 200, 1000000, 10);
+        registry.recordResponse(b, 404, 3000000, 0);
+        assertEquals(2, a.getRequestCount());
+        assertEquals(1, a.getErrorCount());
+        assertEquals(Long.valueOf(1), a.getStatusCounts().get(404));
+        assertEquals(10, a.getBytesOut());
+    }
+
+    public void testHistogramPercentiles() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        long p50 = histogram.getP50();
+        long p99 = histogram.getP99();
+        assertTrue(p50 >= 500 && p50 <= 500 * 1.125);
+        assertTrue(p99 >= 990 && p99 <= 1000);
+    }
+
+    public void testRequestTraceRedactsTokens() throws Exception {
+        RequestTrace trace = new RequestTrace("GET", "https://platform.ringcentral.com/test?a=1&access_token=secret");
+        assertEquals("https://platform.ringcentral.com/test?a=1&access_token=REDACTED", trace.getUrl());
+        assertFalse(trace.toJson().toString().contains("secret"));
+    }
+
+    public void testFlightRecorderKeepsFailedAndSampledTraces() throws Exception {
+        FlightRecorder recorder = new FlightRecorder(4);
+        recorder.setSampleRate(0);
+        RequestTrace fast = new RequestTrace("GET", "/fast");
+        fast.markFinished();
+        recorder.record(fast);
+        assertEquals(0, recorder.getTraces().size());
+        RequestTrace failed = new RequestTrace("GET", "/failed");
+        failed.markFailed(new IOException("timeout"));
+        failed.markFinished();
+        recorder.record(failed);
+        assertEquals(1, recorder.getTraces().size());
+        recorder.setSampleRate(1);
+        for (int i = 0; i < 10; i++) {
+            RequestTrace trace = new RequestTrace("GET", "/sampled");
+            trace.markFinished();
+            recorder.record(trace);
+        }
+        assertEquals(4, recorder.getTraces().size());
+    }
+
+    public void testNotificationLagAlertsOnCrossing() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.setNotificationLagThreshold(5000);
+        final List<String> alerts = new ArrayList<>();
+        registry.addListener(new MetricsListener() {
+            @Override
+            public void onNotificationLagAlert(String event, long lagMillis, long thresholdMillis) {
+                alerts.add("alert " + event);
+            }
+
+            @Override
+            public void onNotificationLagRecovered(String event, long lagMillis) {
+                alerts.add("recovered " + event);
+            }
+        });
+        NotificationMetrics presence = registry.getNotification("/restapi/v1.0/account/1/extension/2/presence");
+        assertSame(presence, registry.getNotification("/restapi/v1.0/account/1/extension/3/presence?detailed=true"));
+
+        registry.recordNotification(presence, 200, 1000000);
+        registry.recordNotification(presence, 6000, 1000000);
+        registry.recordNotification(presence, 7000, 1000000);
+        registry.recordNotification(presence, -1, 1000000);
+        registry.recordNotification(presence, 300, 1000000);
+
+        assertEquals(2, alerts.size());
+        assertEquals("alert /restapi/v1.0/account/{id}/extension/{id}/presence", alerts.get(0));
+        assertEquals("recovered /restapi/v1.0/account/{id}/extension/{id}/presence", alerts.get(1));
+        assertEquals(5, presence.getNotificationCount());
+        assertEquals(1, presence.getWithoutTimestampCount());
+        assertEquals(4, presence.getDeliveryLag().getCount());
+        assertEquals(7000000, presence.getDeliveryLag().getMax());
+        assertEquals(5, presence.getHandlingTime().getCount());
+    }
+
+    public void testStartupPhasesAreRecordedOnce() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.start();
+        try {
+            server.enqueue(new MockResponse());
+            server.enqueue(new MockResponse().setBody("{}"));
+            server.enqueue(new MockResponse().setBody("{}"));
+            Platform platform = TestPlatforms.authorized(server);
+            platform.prewarm();
+            assertEquals("HEAD", server.takeRequest(5, TimeUnit.SECONDS).getMethod());
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!platform.getStartupTimings().getTimings().containsKey(StartupTimings.PREWARM)
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            for (int i = 0; i < 2; i++) {
+                ResponseFuture future = new ResponseFuture();
+                platform.get("/restapi/v1.0/account/~", new HashMap<String, String>(), future);
+                future.get(5, TimeUnit.SECONDS).getResponse().body().close();
+            }
+
+            Map<String, Long> timings = platform.getStartupTimings().getTimings();
+            assertEquals(new HashSet<>(Arrays.asList(StartupTimings.CLIENT_INIT, StartupTimings.DNS,
+                    StartupTimings.PREWARM, StartupTimings.FIRST_REQUEST, StartupTimings.TIME_TO_FIRST_RESPONSE)),
+                    timings.keySet());
+            //The warm-up request is not an API call, so the first request is the first GET
+            assertEquals(2, platform.getMetrics().getEndpoint("GET", "/restapi/v1.0/account/~").getRequestCount());
+
+            //A phase recorded again keeps its first duration
+            long prewarm = timings.get(StartupTimings.PREWARM);
+            platform.getStartupTimings().record(StartupTimings.PREWARM, TimeUnit.SECONDS.toNanos(100));
+            assertEquals(prewarm, (long) platform.getStartupTimings().getTimings().get(StartupTimings.PREWARM));
+        } finally {
+            server.shutdown();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.ringcentral.rc_android_sdk;
+
+import android.test.InstrumentationTestCase;
+
+import com.ringcentral.rc_android_sdk.rcsdk.http.Transaction;
+import com.ringcentral.rc_android_sdk.rcsdk.outbox.Outbox;
+import com.ringcentral.rc_android_sdk.rcsdk.outbox.OutboxEntry;
+import com.ringcentral.rc_android_sdk.rcsdk.outbox.OutboxListener;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class OutboxTest extends InstrumentationTestCase {
+
+    private File file;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        file = File.createTempFile("outbox", ".log");
+        file.delete();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        file.delete();
+        super.tearDown();
+    }
+
+    public void testPendingRequestsSurviveReopen() throws Exception {
+        //Not authorized, so every send is deferred and stays in the outbox
+        Platform platform = new Platform("key", "secret", "SANDBOX");
+        Outbox outbox = new Outbox(platform, file);
+        outbox.open();
+        outbox.sendSMS("a", "+16505551234", "+15855550000", "first");
+        outbox.ringOut("b", "+16505551234", "+15855550000", "+15855550000", false);
+        outbox.sendSMS("a", "+16505551234", "+15855550000", "duplicate");
+        assertEquals(2, outbox.getPending().size());
+        outbox.close();
+
+        //A record torn by a crash is dropped on replay
+        FileWriter writer = new FileWriter(file, true);
+        writer.write("{\"op\":\"add\",\"key\":\"c\",\"meth");
+        writer.close();
+
+        Outbox reopened = new Outbox(platform, file);
+        reopened.open();
+        List<OutboxEntry> pending = reopened.getPending();
+        assertEquals(2, pending.size());
+        assertEquals("a", pending.get(0).getKey());
+        assertTrue(pending.get(0).getBody().contains("first"));
+        assertEquals("/restapi/v1.0/account/~/extension/~/ringout", pending.get(1).getUrl());
+        reopened.close();
+    }
+
+    public void testResendCarriesSameIdempotencyKey() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.start();
+        try {
+            Platform platform = TestPlatforms.authorized(server);
+            server.enqueue(new MockResponse().setResponseCode(503));
+            server.enqueue(new MockResponse().setBody("{\"id\":\"1\"}"));
+
+            final CountDownLatch deferred = new CountDownLatch(1);
+            final CountDownLatch sent = new CountDownLatch(1);
+            Outbox outbox = new Outbox(platform, file);
+            outbox.setListener(new OutboxListener() {
+                @Override
+                public void onDeferred(OutboxEntry entry, IOException e) {
+                    deferred.countDown();
+                }
+
+                @Override
+                public void onSent(OutboxEntry entry, Transaction transaction) {
+                    try {
+                        transaction.getResponse().body().close();
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                    }
+                    sent.countDown();
+                }
+            });
+            outbox.open();
+            outbox.sendSMS("k1", "+16505551234", "+15855550000", "hello");
+            assertTrue(deferred.await(5, TimeUnit.SECONDS));
+            outbox.flush();
+            assertTrue(sent.await(5, TimeUnit.SECONDS));
+            outbox.close();
+
+            RecordedRequest first = server.takeRequest();
+            RecordedRequest second = server.takeRequest();
+            assertEquals("k1", first.getHeader("Idempotency-Key"));
+            assertEquals("k1", second.getHeader("Idempotency-Key"));
+            assertEquals(first.getBody().readUtf8(), second.getBody().readUtf8());
+            assertEquals(1, platform.getMetrics().getEndpoint("POST", "/restapi/v1.0/account/~/extension/~/sms")
+                    .getRetryCount());
+        } finally {
+            server.shutdown();
+        }
+    }
+}
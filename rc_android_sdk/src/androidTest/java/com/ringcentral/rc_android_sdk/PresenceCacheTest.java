@@ -0,0 +1,88 @@
+package com.ringcentral.rc_android_sdk;
+
+import android.test.InstrumentationTestCase;
+
+import com.ringcentral.rc_android_sdk.rcsdk.model.Presence;
+import com.ringcentral.rc_android_sdk.rcsdk.presence.PresenceCache;
+import com.ringcentral.rc_android_sdk.rcsdk.presence.PresenceListener;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+public class PresenceCacheTest extends InstrumentationTestCase {
+
+    //Runs queued tasks only when asked, so tests control when updates are applied
+    private static class QueueExecutor implements Executor {
+        final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+    }
+
+    private static Presence presence(String status, long sequence) {
+        Presence presence = new Presence();
+        presence.telephonyStatus = status;
+        presence.sequence = sequence;
+        return presence;
+    }
+
+    public void testBurstIsCoalesced() throws Exception {
+        PresenceCache cache = new PresenceCache();
+        QueueExecutor executor = new QueueExecutor();
+        cache.setExecutor(executor);
+        final List<String> changes = new ArrayList<>();
+        cache.addListener(new PresenceListener() {
+            @Override
+            public void onPresenceChanged(String extensionId, Presence previous, Presence current) {
+                changes.add(extensionId + ":" + current.telephonyStatus);
+            }
+        });
+
+        cache.update("1", presence("Ringing", 1));
+        cache.update("1", presence("CallConnected", 2));
+        cache.update("2", presence("NoCall", 5));
+        cache.update("1", presence("NoCall", 3));
+        assertEquals(1, executor.tasks.size());
+        executor.runAll();
+
+        assertEquals(2, changes.size());
+        assertTrue(changes.contains("1:NoCall"));
+        assertEquals("NoCall", cache.get("1").telephonyStatus);
+        assertEquals(2, cache.getAll().size());
+    }
+
+    public void testOlderSequenceIsDropped() throws Exception {
+        PresenceCache cache = new PresenceCache();
+        QueueExecutor executor = new QueueExecutor();
+        cache.setExecutor(executor);
+        cache.update("1", presence("CallConnected", 7));
+        executor.runAll();
+        cache.update("1", presence("Ringing", 6));
+        executor.runAll();
+        assertEquals("CallConnected", cache.get("1").telephonyStatus);
+    }
+
+    public void testPresenceNotification() throws Exception {
+        PresenceCache cache = new PresenceCache();
+        QueueExecutor executor = new QueueExecutor();
+        cache.setExecutor(executor);
+        cache.onNotification("/restapi/v1.0/account/~/extension/400/message-store", new JSONObject("{}"));
+        cache.onNotification("/restapi/v1.0/account/~/extension/400/presence",
+                new JSONObject("{\"telephonyStatus\": \"Ringing\", \"presenceStatus\": \"Busy\", \"sequence\": 3}"));
+        executor.runAll();
+        assertEquals(1, cache.getAll().size());
+        assertEquals("Busy", cache.get("400").presenceStatus);
+        assertEquals(3, cache.get("400").sequence);
+    }
+}
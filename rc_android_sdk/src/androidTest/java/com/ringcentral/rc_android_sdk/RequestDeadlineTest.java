@@ -0,0 +1,124 @@
+package com.ringcentral.rc_android_sdk;
+
+import android.test.InstrumentationTestCase;
+
+import com.ringcentral.rc_android_sdk.rcsdk.http.DeadlineExceededException;
+import com.ringcentral.rc_android_sdk.rcsdk.http.RequestGroup;
+import com.ringcentral.rc_android_sdk.rcsdk.http.RequestOptions;
+import com.ringcentral.rc_android_sdk.rcsdk.http.ResponseFuture;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.squareup.okhttp.Callback;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.SocketPolicy;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class RequestDeadlineTest extends InstrumentationTestCase {
+
+    private MockWebServer server;
+    private Platform platform;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        server = new MockWebServer();
+        server.start();
+        platform = TestPlatforms.authorized(server);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        server.shutdown();
+        super.tearDown();
+    }
+
+    private ResponseFuture get(RequestOptions options) {
+        ResponseFuture future = new ResponseFuture();
+        platform.sendRequest("GET", "/restapi/v1.0/account/~", null, new HashMap<String, String>(), options, future);
+        return future;
+    }
+
+    private static IOException failureOf(ResponseFuture future) throws Exception {
+        try {
+            future.get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return (IOException) e.getCause();
+        }
+        fail("Request should have failed");
+        return null;
+    }
+
+    public void testQueuedRequestPastDeadlineIsDropped() throws Exception {
+        platform.getClient().getDispatcher().setMaxRequestsPerHost(1);
+        server.enqueue(new MockResponse().setBody("{}"));
+        final CountDownLatch release = new CountDownLatch(1);
+        //Holds the only dispatcher slot until released
+        platform.sendRequest("GET", "/restapi/v1.0/account/~", null, new HashMap<String, String>(), new Callback() {
+            @Override
+            public void onFailure(Request request, IOException e) {
+            }
+
+            @Override
+            public void onResponse(Response response) throws IOException {
+                response.body().close();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        RequestOptions options = new RequestOptions();
+        options.setTimeout(100);
+        ResponseFuture queued = get(options);
+        Thread.sleep(300);
+        release.countDown();
+
+        assertTrue(failureOf(queued) instanceof DeadlineExceededException);
+        assertEquals(1, server.getRequestCount());
+    }
+
+    public void testDeadlineCancelsRequestInFlight() throws Exception {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        RequestOptions options = new RequestOptions();
+        options.setTimeout(200);
+        long start = System.currentTimeMillis();
+        ResponseFuture future = get(options);
+
+        assertTrue(failureOf(future) instanceof DeadlineExceededException);
+        assertTrue(System.currentTimeMillis() - start < 5000);
+    }
+
+    public void testGroupAndTagCancellation() throws Exception {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        RequestGroup group = new RequestGroup();
+        RequestOptions grouped = new RequestOptions();
+        grouped.setGroup(group);
+        RequestOptions tagged = new RequestOptions();
+        tagged.setTag("screen");
+        ResponseFuture first = get(grouped);
+        ResponseFuture second = get(grouped);
+        ResponseFuture third = get(tagged);
+        assertEquals(2, group.size());
+
+        group.cancel();
+        assertEquals("Canceled", failureOf(first).getMessage());
+        assertEquals("Canceled", failureOf(second).getMessage());
+        assertFalse(third.isDone());
+        //A cancelled group refuses new requests before they are sent
+        assertEquals("Canceled", failureOf(get(grouped)).getMessage());
+
+        assertEquals(1, platform.cancel("screen"));
+        assertEquals("Canceled", failureOf(third).getMessage());
+        assertEquals(0, group.size());
+    }
+}
@@ -0,0 +1,74 @@
+package com.ringcentral.rc_android_sdk;
+
+import android.test.InstrumentationTestCase;
+
+import com.ringcentral.rc_android_sdk.rcsdk.model.RingOutStatus;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.ringcentral.rc_android_sdk.rcsdk.ringout.RingOutListener;
+import com.ringcentral.rc_android_sdk.rcsdk.ringout.RingOutSession;
+import com.ringcentral.rc_android_sdk.rcsdk.ringout.RingOutTracker;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class RingOutTrackerTest extends InstrumentationTestCase {
+
+    private static String status(String call, String callee) {
+        return "{\"id\":\"42\",\"status\":{\"callStatus\":\"" + call + "\",\"callerStatus\":\"Success\","
+                + "\"calleeStatus\":\"" + callee + "\"}}";
+    }
+
+    public void testFollowsCallUntilItEnds() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.start();
+        try {
+            Platform platform = TestPlatforms.authorized(server);
+
+            server.enqueue(new MockResponse().setBody(status("InProgress", "InProgress")));
+            server.enqueue(new MockResponse().setBody(status("InProgress", "InProgress")));
+            server.enqueue(new MockResponse().setBody(status("Success", "Success")));
+            server.enqueue(new MockResponse().setBody(status("Success", "Success")));
+            server.enqueue(new MockResponse().setResponseCode(404));
+
+            RingOutTracker tracker = new RingOutTracker(platform);
+            tracker.setRingingInterval(10);
+            tracker.setConnectedInterval(20);
+            final List<String> changes = new CopyOnWriteArrayList<>();
+            final CountDownLatch finished = new CountDownLatch(1);
+            RingOutSession session = tracker.start("+16505551234", "+15855550000", "+15855550000", false,
+                    new RingOutListener() {
+                        @Override
+                        public void onStatusChanged(RingOutSession session, RingOutStatus.Status previous,
+                                                    RingOutStatus.Status current) {
+                            changes.add(current.callStatus);
+                        }
+
+                        @Override
+                        public void onFinished(RingOutSession session, IOException error) {
+                            assertNull(error);
+                            finished.countDown();
+                        }
+                    }).get(10, TimeUnit.SECONDS);
+
+            assertEquals("42", session.getId());
+            assertTrue(finished.await(10, TimeUnit.SECONDS));
+            assertTrue(session.isFinished());
+            //Only changes are reported, not every poll
+            assertEquals(2, changes.size());
+            assertEquals("InProgress", changes.get(0));
+            assertEquals("Success", changes.get(1));
+            assertEquals(5, server.getRequestCount());
+            assertEquals("POST", server.takeRequest().getMethod());
+            assertEquals("/restapi/v1.0/account/~/extension/~/ringout/42", server.takeRequest().getPath());
+            assertTrue(tracker.getSessions().isEmpty());
+            tracker.shutdown();
+        } finally {
+            server.shutdown();
+        }
+    }
+}
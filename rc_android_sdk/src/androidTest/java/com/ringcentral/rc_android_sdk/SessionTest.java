@@ -0,0 +1,71 @@
+package com.ringcentral.rc_android_sdk;
+
+import android.test.InstrumentationTestCase;
+
+import com.ringcentral.rc_android_sdk.rcsdk.SDK;
+import com.ringcentral.rc_android_sdk.rcsdk.model.TokenResponse;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Helpers;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+import java.util.concurrent.TimeUnit;
+
+public class SessionTest extends InstrumentationTestCase {
+
+    public void testPlatformAndHelpersShareState() throws Exception {
+        SDK sdk = new SDK("key", "secret", "SANDBOX");
+        Platform platform = sdk.getPlatform();
+        Helpers helpers = sdk.getHelpers();
+
+        assertSame(platform.getSession(), helpers.getSession());
+        assertSame(platform.getClient(), helpers.getClient());
+        assertSame(platform.getMetrics(), helpers.getMetrics());
+        assertSame(platform.getSubscription(), helpers.getSubscription());
+        assertEquals("https://platform.devtest.ringcentral.com", helpers.getServer());
+
+        platform.setAuthData(TestPlatforms.token());
+        assertEquals("abc", helpers.getAccessToken());
+        assertTrue(helpers.auth.isAccessTokenValid());
+
+        helpers.setServer("https://example.com");
+        assertEquals("https://example.com", platform.getServer());
+    }
+
+    public void testMalformedRefreshResponseEndsRefresh() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.start();
+        try {
+            Platform platform = new Platform("key", "secret", TestPlatforms.url(server));
+            TokenResponse expired = new TokenResponse();
+            expired.tokenType = "bearer";
+            expired.accessToken = "expired";
+            expired.expiresIn = 0;
+            expired.refreshToken = "refresh";
+            expired.refreshTokenExpiresIn = 3600;
+            platform.setAuthData(expired);
+
+            server.enqueue(new MockResponse().setBody("not a token"));
+            server.enqueue(new MockResponse().setBody("{\"token_type\":\"bearer\",\"access_token\":\"fresh\","
+                    + "\"expires_in\":3600,\"refresh_token\":\"refresh\",\"refresh_token_expires_in\":3600}"));
+            platform.refresh();
+            assertEquals("/restapi/oauth/token", server.takeRequest(5, TimeUnit.SECONDS).getPath());
+            long deadline = System.currentTimeMillis() + 5000;
+            while (platform.getMetrics().getTokenRefreshCount() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, platform.getMetrics().getTokenRefreshFailureCount());
+            assertEquals("expired", platform.getAccessToken());
+
+            //The failed refresh must not block the next one
+            platform.refresh();
+            assertNotNull(server.takeRequest(5, TimeUnit.SECONDS));
+            while (!"fresh".equals(platform.getAccessToken()) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals("fresh", platform.getAccessToken());
+        } finally {
+            server.shutdown();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.ringcentral.rc_android_sdk;
+
+import android.test.InstrumentationTestCase;
+
+import com.ringcentral.rc_android_sdk.rcsdk.model.TokenResponse;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.ringcentral.rc_android_sdk.rcsdk.subscription.NotificationListener;
+import com.ringcentral.rc_android_sdk.rcsdk.subscription.SubscriptionManager;
+import com.ringcentral.rc_android_sdk.rcsdk.subscription.WebhookReceiver;
+import com.squareup.okhttp.MediaType;
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.RequestBody;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class SubscriptionManagerTest extends InstrumentationTestCase {
+
+    private static class Recorder extends NotificationListener {
+        final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+
+        @Override
+        public void onNotification(String event, JSONObject body) {
+            events.add(event);
+        }
+    }
+
+    public void testNotificationsAreFannedOutByFilter() throws Exception {
+        //Not authorized, so the server subscription is never created; only the fan-out is exercised
+        Platform platform = new Platform("key", "secret", "SANDBOX");
+        SubscriptionManager manager = platform.getSubscriptionManager();
+        Recorder presence = new Recorder();
+        Recorder messages = new Recorder();
+        manager.register(presence, "/restapi/v1.0/account/~/extension/~/presence");
+        manager.register(messages, "/account/~/extension/400/message-store");
+
+        JSONObject body = new JSONObject();
+        manager.onNotification("/restapi/v1.0/account/123/extension/400/presence?detailedTelephonyState=true", body);
+        manager.onNotification("/restapi/v1.0/account/123/extension/400/message-store", body);
+        manager.onNotification("/restapi/v1.0/account/123/extension/401/message-store", body);
+
+        assertEquals(1, presence.events.size());
+        assertEquals(1, messages.events.size());
+        assertEquals("/restapi/v1.0/account/123/extension/400/message-store", messages.events.get(0));
+
+        manager.unregister(presence);
+        manager.onNotification("/restapi/v1.0/account/123/extension/400/presence", body);
+        assertEquals(1, presence.events.size());
+        assertTrue(manager.getServerFilters().isEmpty());
+    }
+
+    public void testTildeStandsForAuthorizedExtension() throws Exception {
+        Platform platform = new Platform("key", "secret", "SANDBOX");
+        //Only the owner is set, so there is no access token and no server subscription
+        TokenResponse token = new TokenResponse();
+        token.ownerId = "400";
+        platform.setAuthData(token);
+        SubscriptionManager manager = platform.getSubscriptionManager();
+        Recorder own = new Recorder();
+        Recorder foreign = new Recorder();
+        manager.register(own, "/restapi/v1.0/account/~/extension/~/presence");
+        manager.register(foreign, "/restapi/v1.0/account/~/extension/401/presence");
+
+        JSONObject body = new JSONObject();
+        manager.onNotification("/restapi/v1.0/account/123/extension/401/presence", body);
+        manager.onNotification("/restapi/v1.0/account/123/extension/400/presence", body);
+        assertEquals(1, own.events.size());
+        assertEquals("/restapi/v1.0/account/123/extension/400/presence", own.events.get(0));
+        assertEquals(1, foreign.events.size());
+
+        manager.setAccountId("123");
+        manager.onNotification("/restapi/v1.0/account/124/extension/400/presence", body);
+        manager.onNotification("/restapi/v1.0/account/123/extension/400/presence", body);
+        assertEquals(2, own.events.size());
+        assertEquals("/restapi/v1.0/account/123/extension/400/presence", own.events.get(1));
+    }
+
+    public void testFailedCreateIsRetried() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.start();
+        WebhookReceiver receiver = new WebhookReceiver(0);
+        receiver.start();
+        try {
+            Platform platform = TestPlatforms.authorized(server);
+            server.enqueue(new MockResponse().setResponseCode(503).setBody("{\"errorCode\":\"CMN-201\"}"));
+            server.enqueue(new MockResponse().setBody("{\"id\":\"sub-1\",\"expiresIn\":900,"
+                    + "\"deliveryMode\":{\"transportType\":\"WebHook\",\"address\":\"https://hooks.example.com/rc\"}}"));
+
+            SubscriptionManager manager = platform.getSubscriptionManager();
+            manager.setWebhook(receiver, "https://hooks.example.com/rc");
+            Recorder messages = new Recorder();
+            manager.register(messages, "/restapi/v1.0/account/~/extension/~/message-store");
+
+            RecordedRequest failed = server.takeRequest(10, TimeUnit.SECONDS);
+            assertEquals("POST", failed.getMethod());
+            //The retry is not held back until the next register
+            RecordedRequest retried = server.takeRequest(10, TimeUnit.SECONDS);
+            assertNotNull(retried);
+            assertEquals("POST", retried.getMethod());
+            assertEquals("/restapi/v1.0/subscription", retried.getPath());
+            String verificationToken = new JSONObject(retried.getBody().readUtf8()).getJSONObject("deliveryMode")
+                    .getString("verificationToken");
+            long deadline = System.currentTimeMillis() + 10000;
+            while (!platform.getSubscription().id.equals("sub-1") && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals("sub-1", platform.getSubscription().id);
+
+            String notification = "{\"uuid\":\"1\",\"event\":\"/restapi/v1.0/account/1/extension/2/message-store\","
+                    + "\"subscriptionId\":\"sub-1\",\"body\":{\"changes\":[]}}";
+            Request post = new Request.Builder().url("http://127.0.0.1:" + receiver.getPort() + "/webhook")
+                    .header("Verification-Token", verificationToken)
+                    .post(RequestBody.create(MediaType.parse("application/json"), notification)).build();
+            assertEquals(200, new OkHttpClient().newCall(post).execute().code());
+            while (messages.events.isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, messages.events.size());
+        } finally {
+            receiver.stop();
+            server.shutdown();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.ringcentral.rc_android_sdk;
+
+import android.test.InstrumentationTestCase;
+
+import com.ringcentral.rc_android_sdk.rcsdk.SDK;
+import com.ringcentral.rc_android_sdk.rcsdk.model.Iso8601;
+import com.ringcentral.rc_android_sdk.rcsdk.model.SubscriptionInfo;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Session;
+import com.ringcentral.rc_android_sdk.rcsdk.subscription.NotificationListener;
+import com.ringcentral.rc_android_sdk.rcsdk.subscription.Subscription;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import org.json.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+public class SubscriptionResumeTest extends InstrumentationTestCase {
+
+    private MockWebServer server;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        server.shutdown();
+        super.tearDown();
+    }
+
+    private static String subscriptionJson(String id, long expiresAt) {
+        return "{\"id\":\"" + id + "\",\"expiresIn\":900,\"expirationTime\":\"" + Iso8601.format(expiresAt) + "\","
+                + "\"eventFilters\":[\"/restapi/v1.0/account/~/extension/~/presence\"],"
+                + "\"deliveryMode\":{\"transportType\":\"WebHook\",\"address\":\"https://hooks.example.com\"}}";
+    }
+
+    /**
+     * Builds a session holding a live subscription, then serializes and restores it as after a restart
+     */
+    private Session restoredSession(long expiresAt) throws Exception {
+        Session session = new Session("key", "secret", TestPlatforms.url(server));
+        new Platform(session).setAuthData(TestPlatforms.token());
+        SubscriptionInfo info = new SubscriptionInfo();
+        info.id = "sub-1";
+        info.expiresIn = 900;
+        info.expirationTime = Iso8601.format(expiresAt);
+        info.eventFilters = Arrays.asList("/restapi/v1.0/account/~/extension/~/presence");
+        session.getSubscription().updateSubscription(info);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(session);
+        out.close();
+        return (Session) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+    }
+
+    public void testRestoredSubscriptionIsRenewed() throws Exception {
+        long now = System.currentTimeMillis();
+        Session session = restoredSession(now + 600000);
+        Subscription subscription = session.getSubscription();
+        assertEquals("sub-1", subscription.id);
+        assertTrue(subscription.isActive());
+
+        server.enqueue(new MockResponse().setBody(subscriptionJson("sub-1", now + 900000)));
+        new SDK(session).getPlatform().getSubscriptionManager();
+        RecordedRequest renew = server.takeRequest(10, TimeUnit.SECONDS);
+        assertEquals("POST", renew.getMethod());
+        assertEquals("/restapi/v1.0/subscription/sub-1/renew", renew.getPath());
+        long deadline = System.currentTimeMillis() + 10000;
+        while (subscription.getExpirationMillis() < now + 900000 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(now + 900000, subscription.getExpirationMillis());
+        //No listener is registered yet, which must not remove the subscription
+        Thread.sleep(200);
+        assertEquals(1, server.getRequestCount());
+        assertEquals("sub-1", subscription.id);
+    }
+
+    public void testGoneSubscriptionIsReplaced() throws Exception {
+        long now = System.currentTimeMillis();
+        Session session = restoredSession(now + 600000);
+        server.enqueue(new MockResponse().setResponseCode(404));
+        server.enqueue(new MockResponse().setBody(subscriptionJson("sub-2", now + 900000)));
+
+        Platform platform = new SDK(session).getPlatform();
+        platform.getSubscriptionManager().register(new NotificationListener() {
+            @Override
+            public void onNotification(String event, JSONObject body) {
+            }
+        }, "/restapi/v1.0/account/~/extension/~/presence");
+
+        assertEquals("/restapi/v1.0/subscription/sub-1/renew", server.takeRequest(10, TimeUnit.SECONDS).getPath());
+        RecordedRequest create = server.takeRequest(10, TimeUnit.SECONDS);
+        assertEquals("POST", create.getMethod());
+        assertEquals("/restapi/v1.0/subscription", create.getPath());
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!"sub-2".equals(session.getSubscription().id) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("sub-2", session.getSubscription().id);
+    }
+
+    public void testRemoveSubscriptionUrl() throws Exception {
+        Session session = restoredSession(System.currentTimeMillis() + 600000);
+        server.enqueue(new MockResponse().setResponseCode(204));
+        new Platform(session).removeSubscription();
+        assertEquals("/restapi/v1.0/subscription/sub-1", server.takeRequest(10, TimeUnit.SECONDS).getPath());
+    }
+}
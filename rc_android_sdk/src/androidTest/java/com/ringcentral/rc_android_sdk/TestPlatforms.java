@@ -0,0 +1,46 @@
+package com.ringcentral.rc_android_sdk;
+
+import com.ringcentral.rc_android_sdk.rcsdk.model.TokenResponse;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Helpers;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+/**
+ * Platforms pointed at a MockWebServer and authorized with an access token valid for an hour
+ */
+final class TestPlatforms {
+
+    private TestPlatforms() {
+    }
+
+    /**
+     * Returns the server's base URL without the trailing slash, as Platform expects it
+     */
+    static String url(MockWebServer server) {
+        return server.getUrl("").toString().replaceAll("/$", "");
+    }
+
+    static TokenResponse token() {
+        TokenResponse token = new TokenResponse();
+        token.tokenType = "bearer";
+        token.accessToken = "abc";
+        token.expiresIn = 3600;
+        return token;
+    }
+
+    static Platform authorized(MockWebServer server) {
+        Platform platform = new Platform("key", "secret", url(server));
+        platform.setAuthData(token());
+        return platform;
+    }
+
+    static Helpers helpers(MockWebServer server) {
+        return helpers(url(server));
+    }
+
+    static Helpers helpers(String url) {
+        Helpers helpers = new Helpers("key", "secret", url);
+        helpers.setAuthData(token());
+        return helpers;
+    }
+}
@@ -0,0 +1,155 @@
+package com.ringcentral.rc_android_sdk;
+
+import android.test.InstrumentationTestCase;
+
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.MetricsRegistry;
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.NotificationMetrics;
+import com.ringcentral.rc_android_sdk.rcsdk.model.Iso8601;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.ringcentral.rc_android_sdk.rcsdk.subscription.NotificationListener;
+import com.ringcentral.rc_android_sdk.rcsdk.subscription.Subscription;
+import com.ringcentral.rc_android_sdk.rcsdk.subscription.SubscriptionManager;
+import com.ringcentral.rc_android_sdk.rcsdk.subscription.WebhookReceiver;
+import com.squareup.okhttp.MediaType;
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.RequestBody;
+import com.squareup.okhttp.Response;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import org.json.JSONObject;
+
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okio.BufferedSink;
+import okio.Okio;
+
+public class WebhookReceiverTest extends InstrumentationTestCase {
+
+    private static final MediaType JSON = MediaType.parse("application/json");
+
+    private WebhookReceiver receiver;
+    private MockWebServer api;
+    private OkHttpClient client = new OkHttpClient();
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        receiver = new WebhookReceiver(0);
+        receiver.start();
+        api = new MockWebServer();
+        api.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        receiver.stop();
+        api.shutdown();
+        super.tearDown();
+    }
+
+    private Response post(String header, String value, String body) throws Exception {
+        Request.Builder request = new Request.Builder().url("http://127.0.0.1:" + receiver.getPort() + "/webhook")
+                .post(RequestBody.create(JSON, body));
+        if (header != null) {
+            request.header(header, value);
+        }
+        return client.newCall(request.build()).execute();
+    }
+
+    public void testDeliversNotificationsBySubscriptionToken() throws Exception {
+        Platform platform = TestPlatforms.authorized(api);
+        api.enqueue(new MockResponse().setBody("{\"id\":\"sub-1\",\"expiresIn\":900,\"eventFilters\":"
+                + "[\"/restapi/v1.0/account/~/extension/~/message-store\"],\"deliveryMode\":{\"transportType\":\"WebHook\"}}"));
+
+        SubscriptionManager manager = platform.getSubscriptionManager();
+        manager.setWebhook(receiver, "https://hooks.example.com/webhook");
+        final CountDownLatch received = new CountDownLatch(1);
+        manager.register(new NotificationListener() {
+            @Override
+            public void onNotification(String event, JSONObject body) {
+                received.countDown();
+            }
+        }, "/restapi/v1.0/account/~/extension/~/message-store");
+
+        RecordedRequest create = api.takeRequest(10, TimeUnit.SECONDS);
+        JSONObject deliveryMode = new JSONObject(create.getBody().readUtf8()).getJSONObject("deliveryMode");
+        assertEquals("WebHook", deliveryMode.getString("transportType"));
+        assertEquals("https://hooks.example.com/webhook", deliveryMode.getString("address"));
+        String verificationToken = deliveryMode.getString("verificationToken");
+
+        //Validation request sent while the subscription is created
+        Response validation = post("Validation-Token", "v-123", "");
+        assertEquals(200, validation.code());
+        assertEquals("v-123", validation.header("Validation-Token"));
+
+        String notification = "{\"uuid\":\"1\",\"event\":\"/restapi/v1.0/account/1/extension/2/message-store\","
+                + "\"timestamp\":\"" + Iso8601.format(System.currentTimeMillis() - 1500) + "\","
+                + "\"subscriptionId\":\"sub-1\",\"body\":{\"changes\":[]}}";
+        assertEquals(403, post("Verification-Token", "wrong", notification).code());
+        assertEquals(403, post(null, null, notification).code());
+        assertEquals(200, post("Verification-Token", verificationToken, notification).code());
+        assertTrue(received.await(10, TimeUnit.SECONDS));
+
+        //The lag is recorded once the listeners returned
+        NotificationMetrics metrics = platform.getMetrics().getNotification("/restapi/v1.0/account/1/extension/2/message-store");
+        long deadline = System.currentTimeMillis() + 10000;
+        while (metrics.getNotificationCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, metrics.getNotificationCount());
+        assertTrue(metrics.getDeliveryLag().getMax() >= 1500000);
+    }
+
+    public void testLagIsRecordedWithoutListenersAndWhenOneThrows() throws Exception {
+        Subscription subscription = new Subscription();
+        MetricsRegistry registry = new MetricsRegistry();
+        subscription.setMetrics(registry);
+        receiver.register("t-1", subscription);
+        String notification = "{\"uuid\":\"1\",\"event\":\"/restapi/v1.0/account/1/extension/2/presence\","
+                + "\"timestamp\":\"" + Iso8601.format(System.currentTimeMillis() - 1500) + "\",\"body\":{}}";
+        NotificationMetrics metrics = registry.getNotification("/restapi/v1.0/account/1/extension/2/presence");
+
+        assertEquals(200, post("Verification-Token", "t-1", notification).code());
+        awaitCount(metrics, 1);
+        assertTrue(metrics.getDeliveryLag().getMax() >= 1500000);
+
+        subscription.addNotificationListener(new NotificationListener() {
+            @Override
+            public void onNotification(String event, JSONObject body) {
+                throw new IllegalStateException("listener failure");
+            }
+        });
+        assertEquals(200, post("Verification-Token", "t-1", notification).code());
+        awaitCount(metrics, 2);
+    }
+
+    private static void awaitCount(NotificationMetrics metrics, long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (metrics.getNotificationCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, metrics.getNotificationCount());
+    }
+
+    public void testRejectsValidationTokenWithControlCharacters() throws Exception {
+        Socket socket = new Socket("127.0.0.1", receiver.getPort());
+        try {
+            BufferedSink out = Okio.buffer(Okio.sink(socket));
+            out.writeUtf8("POST /webhook HTTP/1.1\r\nHost: localhost\r\nContent-Length: 0\r\n"
+                    + "Validation-Token: v-123\rSet-Cookie: injected=1\r\nConnection: close\r\n\r\n");
+            out.flush();
+            String response = Okio.buffer(Okio.source(socket)).readUtf8();
+            assertTrue(response, response.startsWith("HTTP/1.1 400 "));
+            assertFalse(response.contains("injected"));
+            assertFalse(response.contains("Validation-Token"));
+        } finally {
+            socket.close();
+        }
+        assertEquals("v-123", post("Validation-Token", "v-123", "").header("Validation-Token"));
+    }
+}
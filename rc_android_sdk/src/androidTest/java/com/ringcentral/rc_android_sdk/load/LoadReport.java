@@ -0,0 +1,98 @@
+package com.ringcentral.rc_android_sdk.load;
+
+import android.os.Debug;
+import android.util.Log;
+
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.LatencyHistogram;
+
+import java.util.Locale;
+
+/**
+ * Throughput, latency percentiles and allocations of one load-test scenario.
+ *
+ * Allocations are counted with Debug's global allocation counters, so they include every thread of the
+ * test process, the mock server's as well as the SDK's.
+ */
+public class LoadReport {
+
+    private static final String TAG = "LoadTest";
+
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private long operations;
+    private long startNanos;
+    private long elapsedNanos;
+    private long allocCount;
+    private long allocBytes;
+
+    private LoadReport(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Starts timing a scenario and counting its allocations
+     */
+    @SuppressWarnings("deprecation")
+    public static LoadReport start(String name) {
+        LoadReport report = new LoadReport(name);
+        Debug.resetGlobalAllocCount();
+        Debug.resetGlobalAllocSize();
+        Debug.startAllocCounting();
+        report.startNanos = System.nanoTime();
+        return report;
+    }
+
+    /**
+     * Records the latency of one operation
+     */
+    public void record(long nanos) {
+        latency.recordNanos(nanos);
+    }
+
+    /**
+     * Adds latencies measured elsewhere, e.g. an endpoint's histogram from the platform's metrics
+     */
+    public void merge(LatencyHistogram other) {
+        latency.merge(other);
+    }
+
+    /**
+     * Stops the scenario and logs the report
+     *
+     * @param operations Number of operations completed, e.g. requests or records
+     */
+    @SuppressWarnings("deprecation")
+    public LoadReport finish(long operations) {
+        elapsedNanos = System.nanoTime() - startNanos;
+        Debug.stopAllocCounting();
+        allocCount = Debug.getGlobalAllocCount();
+        allocBytes = Debug.getGlobalAllocSize();
+        this.operations = operations;
+        Log.i(TAG, toString());
+        return this;
+    }
+
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : operations * 1e9 / elapsedNanos;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public long getAllocCount() {
+        return allocCount;
+    }
+
+    public long getAllocBytes() {
+        return allocBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%s: %d ops in %d ms, %.1f ops/s, latency p50 %d us p99 %d us max %d us, "
+                        + "%d allocations (%d bytes, %.1f per op)",
+                name, operations, elapsedNanos / 1000000, getThroughput(), latency.getP50(), latency.getP99(),
+                latency.getMax(), allocCount, allocBytes, operations == 0 ? 0.0 : (double) allocCount / operations);
+    }
+}
@@ -0,0 +1,216 @@
+package com.ringcentral.rc_android_sdk.load;
+
+import android.test.InstrumentationTestCase;
+
+import com.ringcentral.rc_android_sdk.rcsdk.SDK;
+import com.ringcentral.rc_android_sdk.rcsdk.calllog.CallLogStore;
+import com.ringcentral.rc_android_sdk.rcsdk.http.ApiFuture;
+import com.ringcentral.rc_android_sdk.rcsdk.http.Transaction;
+import com.ringcentral.rc_android_sdk.rcsdk.model.CallLogRecord;
+import com.ringcentral.rc_android_sdk.rcsdk.model.Page;
+import com.ringcentral.rc_android_sdk.rcsdk.model.Presence;
+import com.ringcentral.rc_android_sdk.rcsdk.model.TokenResponse;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Helpers;
+import com.ringcentral.rc_android_sdk.rcsdk.presence.PresenceCache;
+import com.ringcentral.rc_android_sdk.rcsdk.presence.PresenceListener;
+import com.ringcentral.rc_android_sdk.rcsdk.sms.BulkSmsJob;
+import com.ringcentral.rc_android_sdk.rcsdk.sms.BulkSmsListener;
+import com.ringcentral.rc_android_sdk.rcsdk.sms.SmsMessage;
+import com.ringcentral.rc_android_sdk.rcsdk.sms.SmsResult;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load scenarios against a local MockRingCentral. Each scenario logs a LoadReport under the "LoadTest" tag and
+ * asserts only on correctness, so results can be compared between runs without flaky thresholds.
+ */
+public class LoadTest extends InstrumentationTestCase {
+
+    private MockRingCentral server;
+    private Helpers helpers;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        server = new MockRingCentral();
+        server.start();
+        SDK sdk = new SDK("key", "secret", server.getUrl());
+        helpers = sdk.getHelpers();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        server.shutdown();
+        super.tearDown();
+    }
+
+    /**
+     * Many requests find an expired access token at once; the session must send a single refresh
+     */
+    public void testAuthStorm() throws Exception {
+        TokenResponse expired = new TokenResponse();
+        expired.tokenType = "bearer";
+        expired.accessToken = "expired";
+        expired.expiresIn = 0;
+        expired.refreshToken = "refresh";
+        expired.refreshTokenExpiresIn = 3600;
+        helpers.setAuthData(expired);
+
+        int requests = 200;
+        LoadReport report = LoadReport.start("auth storm");
+        List<ApiFuture<Transaction>> storm = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            storm.add(helpers.accountInfo());
+        }
+        for (ApiFuture<Transaction> future : storm) {
+            awaitQuietly(future);
+        }
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!helpers.auth.isAccessTokenValid() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(helpers.auth.isAccessTokenValid());
+        assertEquals(1, server.getRefreshGrantCount());
+
+        //The requests after the refresh go through with the new token
+        List<ApiFuture<Transaction>> after = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            after.add(helpers.accountInfo());
+        }
+        for (Transaction transaction : ApiFuture.allOf(after).get(30, TimeUnit.SECONDS)) {
+            transaction.getBodyString();
+        }
+        report.merge(helpers.getMetrics().getEndpoint("GET", "/restapi/v1.0/account/~").getLatency());
+        report.finish(requests * 2);
+    }
+
+    public void testCallLogPaging() throws Exception {
+        authorize();
+        int records = 20000;
+        server.setCallLogRecords(records);
+        server.setLatencyMillis(5);
+        final CallLogStore store = new CallLogStore();
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicInteger pages = new AtomicInteger();
+        final AtomicInteger added = new AtomicInteger();
+        LoadReport report = LoadReport.start("call-log paging");
+        store.fill(helpers, null, new CallLogStore.LoadCallback() {
+            @Override
+            public void onPage(Page<CallLogRecord> page) {
+                pages.incrementAndGet();
+            }
+
+            @Override
+            public void onComplete(int count) {
+                added.set(count);
+                done.countDown();
+            }
+
+            @Override
+            public void onFailure(IOException e) {
+                e.printStackTrace();
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        report.merge(helpers.getMetrics().getEndpoint("GET", "/restapi/v1.0/account/~/call-log").getLatency());
+        report.finish(records);
+        assertEquals(records, added.get());
+        assertEquals(records, store.size());
+        assertEquals(records / 1000, pages.get());
+    }
+
+    public void testBulkSms() throws Exception {
+        authorize();
+        final int messages = 1000;
+        server.setThrottleEvery(50);
+        server.setErrorRate(0.005);
+        server.setLatencyMillis(2);
+        Iterator<SmsMessage> input = new Iterator<SmsMessage>() {
+            int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < messages;
+            }
+
+            @Override
+            public SmsMessage next() {
+                int i = next++;
+                return new SmsMessage("m" + i, "+1650555" + (1000 + i % 9000), "+15855550000", "Load test " + i);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+        final AtomicInteger sent = new AtomicInteger();
+        LoadReport report = LoadReport.start("bulk sms");
+        BulkSmsJob job = new BulkSmsJob(helpers, input, new BulkSmsListener() {
+            @Override
+            public void onResult(SmsResult result) {
+                if (result.isSent()) {
+                    sent.incrementAndGet();
+                }
+            }
+        });
+        job.setConcurrency(8);
+        job.setRateLimit(100000);
+        job.setMaxRetries(5);
+        job.start();
+        assertTrue(job.awaitCompletion(120, TimeUnit.SECONDS));
+        report.merge(helpers.getMetrics().getEndpoint("POST", "/restapi/v1.0/account/~/extension/~/sms").getLatency());
+        report.finish(messages);
+        //5xx answers are not retried, those messages may or may not have been sent
+        assertEquals(messages, sent.get() + job.getUnknownCount());
+        assertEquals(0, job.getFailedCount());
+        assertTrue(server.getThrottledCount() > 0);
+    }
+
+    public void testNotificationFlood() throws Exception {
+        int extensions = 500;
+        int notifications = 100000;
+        PresenceCache cache = helpers.getPresenceCache();
+        final AtomicInteger changes = new AtomicInteger();
+        cache.addListener(new PresenceListener() {
+            @Override
+            public void onPresenceChanged(String extensionId, Presence previous, Presence current) {
+                changes.incrementAndGet();
+            }
+        });
+        NotificationSource source = new NotificationSource(extensions, 4);
+        LoadReport report = LoadReport.start("notification flood");
+        long[] latencies = source.flood(cache, notifications);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (cache.getAll().size() < extensions && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        for (long latency : latencies) {
+            report.record(latency);
+        }
+        report.finish(notifications);
+        assertEquals(extensions, cache.getAll().size());
+        //Coalescing applies at most one change per notification, usually far fewer
+        assertTrue(changes.get() <= notifications);
+    }
+
+    private void authorize() throws Exception {
+        helpers.authorize("15551234567", "", "password").get(10, TimeUnit.SECONDS);
+        assertEquals(1, server.getPasswordGrantCount());
+    }
+
+    private static void awaitQuietly(ApiFuture<Transaction> future) throws InterruptedException {
+        try {
+            future.get(10, TimeUnit.SECONDS).getBodyString();
+        } catch (Exception e) {
+            //Requests made while the token is being refreshed fail, the storm only measures refresh traffic
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.ringcentral.rc_android_sdk.load;
+
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the RingCentral API, for load tests that run offline.
+ *
+ * Serves OAuth password and refresh grants, a paged call log, SMS, subscriptions and a generic JSON reply for
+ * any other endpoint. Latency, a random 5xx error rate and 429 throttling of SMS can be configured and
+ * changed while a test runs.
+ */
+public class MockRingCentral {
+
+    private final MockWebServer server = new MockWebServer();
+    private final Random random = new Random(1);
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger passwordGrants = new AtomicInteger();
+    private final AtomicInteger refreshGrants = new AtomicInteger();
+    private final AtomicInteger smsRequests = new AtomicInteger();
+    private final AtomicInteger throttled = new AtomicInteger();
+    private final AtomicInteger tokens = new AtomicInteger();
+    private volatile long latencyMillis;
+    private volatile double errorRate;
+    private volatile int throttleEvery;
+    private volatile int callLogRecords = 1000;
+    private String url;
+
+    public void start() throws IOException {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                return MockRingCentral.this.dispatch(request);
+            }
+        });
+        server.start();
+        url = server.getUrl("").toString();
+        if (url.endsWith("/")) {
+            url = url.substring(0, url.length() - 1);
+        }
+    }
+
+    public void shutdown() throws IOException {
+        server.shutdown();
+    }
+
+    /**
+     * Returns the server URL to pass to the SDK in place of "SANDBOX"
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Delay before every response
+     */
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * Fraction of REST requests answered with a 503
+     */
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * Answers every nth SMS request with a 429, 0 to never throttle
+     */
+    public void setThrottleEvery(int throttleEvery) {
+        this.throttleEvery = throttleEvery;
+    }
+
+    /**
+     * Total number of records served by the call-log endpoint
+     */
+    public void setCallLogRecords(int callLogRecords) {
+        this.callLogRecords = callLogRecords;
+    }
+
+    public int getRequestCount() {
+        return requests.get();
+    }
+
+    public int getPasswordGrantCount() {
+        return passwordGrants.get();
+    }
+
+    public int getRefreshGrantCount() {
+        return refreshGrants.get();
+    }
+
+    public int getSmsRequestCount() {
+        return smsRequests.get();
+    }
+
+    public int getThrottledCount() {
+        return throttled.get();
+    }
+
+    private MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+        requests.incrementAndGet();
+        if (latencyMillis > 0) {
+            Thread.sleep(latencyMillis);
+        }
+        String path = request.getPath();
+        String method = request.getMethod();
+        if (path.startsWith("/restapi/oauth/token")) {
+            return token(request.getBody().readUtf8());
+        }
+        if (path.startsWith("/restapi/oauth/revoke")) {
+            return new MockResponse().setResponseCode(200);
+        }
+        if (errorRate > 0 && nextDouble() < errorRate) {
+            return json(503, "{\"errorCode\": \"CMN-201\", \"message\": \"Service Temporary Unavailable\"}");
+        }
+        if (path.contains("/call-log")) {
+            return callLog(path);
+        }
+        if (path.endsWith("/sms") && method.equals("POST")) {
+            int count = smsRequests.incrementAndGet();
+            if (throttleEvery > 0 && count % throttleEvery == 0) {
+                throttled.incrementAndGet();
+                return json(429, "{\"errorCode\": \"CMN-301\", \"message\": \"Request rate exceeded\"}")
+                        .setHeader("Retry-After", "0");
+            }
+            return json(200, "{\"id\": \"" + count + "\", \"messageStatus\": \"Queued\"}");
+        }
+        if (path.startsWith("/restapi/v1.0/subscription")) {
+            if (method.equals("DELETE")) {
+                return new MockResponse().setResponseCode(204);
+            }
+            return json(200, "{\"id\": \"sub-1\", \"expiresIn\": 900, \"status\": \"Active\", "
+                    + "\"deliveryMode\": {\"transportType\": \"PubNub\", \"encryption\": false, "
+                    + "\"address\": \"channel\", \"subscriberKey\": \"sub-key\", \"secretKey\": \"\"}}");
+        }
+        return json(200, "{\"id\": \"1\", \"uri\": \"" + url + path + "\"}");
+    }
+
+    private MockResponse token(String body) {
+        if (body.contains("grant_type=refresh_token")) {
+            refreshGrants.incrementAndGet();
+        } else {
+            passwordGrants.incrementAndGet();
+        }
+        return json(200, "{\"access_token\": \"token-" + tokens.incrementAndGet() + "\", \"token_type\": \"bearer\", "
+                + "\"expires_in\": 3600, \"refresh_token\": \"refresh\", \"refresh_token_expires_in\": 604800, "
+                + "\"scope\": \"SMS RingOut\", \"owner_id\": \"400\"}");
+    }
+
+    private MockResponse callLog(String path) {
+        int page = intParam(path, "page", 1);
+        int perPage = intParam(path, "perPage", 100);
+        int total = callLogRecords;
+        int totalPages = Math.max(1, (total + perPage - 1) / perPage);
+        int first = (page - 1) * perPage;
+        int last = Math.min(total, first + perPage);
+        StringBuilder json = new StringBuilder(256 + (last - first) * 320);
+        json.append("{\"records\": [");
+        for (int i = first; i < last; i++) {
+            if (i > first) {
+                json.append(',');
+            }
+            //Newest first, one call a minute
+            long start = 1439208000000L - i * 60000L;
+            json.append("{\"id\": \"call-").append(i).append("\", \"sessionId\": \"").append(i)
+                    .append("\", \"startTime\": \"").append(iso8601(start))
+                    .append("\", \"duration\": ").append(i % 600)
+                    .append(", \"type\": \"Voice\", \"direction\": \"").append(i % 2 == 0 ? "Inbound" : "Outbound")
+                    .append("\", \"action\": \"Phone Call\", \"result\": \"").append(i % 7 == 0 ? "Missed" : "Accepted")
+                    .append("\", \"from\": {\"phoneNumber\": \"+1650555").append(String.format("%04d", i % 1000))
+                    .append("\"}, \"to\": {\"phoneNumber\": \"+15855550000\"}}");
+        }
+        json.append("], \"paging\": {\"page\": ").append(page).append(", \"perPage\": ").append(perPage)
+                .append(", \"totalPages\": ").append(totalPages).append(", \"totalElements\": ").append(total)
+                .append("}, \"navigation\": {");
+        if (page < totalPages) {
+            json.append("\"nextPage\": {\"uri\": \"").append(url).append("/restapi/v1.0/account/~/call-log?view=Simple&perPage=")
+                    .append(perPage).append("&page=").append(page + 1).append("\"}");
+        }
+        json.append("}}");
+        return json(200, json.toString());
+    }
+
+    private synchronized double nextDouble() {
+        return random.nextDouble();
+    }
+
+    private static MockResponse json(int code, String body) {
+        return new MockResponse().setResponseCode(code).setHeader("Content-Type", "application/json").setBody(body);
+    }
+
+    private static int intParam(String path, String name, int defaultValue) {
+        int query = path.indexOf('?');
+        if (query < 0) {
+            return defaultValue;
+        }
+        for (String pair : path.substring(query + 1).split("&")) {
+            if (pair.startsWith(name + "=")) {
+                try {
+                    return Integer.parseInt(pair.substring(name.length() + 1));
+                } catch (NumberFormatException e) {
+                    return defaultValue;
+                }
+            }
+        }
+        return defaultValue;
+    }
+
+    private static String iso8601(long millis) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.format(new Date(millis));
+    }
+}
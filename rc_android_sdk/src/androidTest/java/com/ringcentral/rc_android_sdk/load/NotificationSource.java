@@ -0,0 +1,74 @@
+package com.ringcentral.rc_android_sdk.load;
+
+import com.ringcentral.rc_android_sdk.rcsdk.subscription.NotificationListener;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic stand-in for the Pubnub transport: delivers generated presence notifications to a listener
+ * from several threads, the way the subscription would after decoding them
+ */
+public class NotificationSource {
+
+    private static final String[] STATUSES = {"NoCall", "Ringing", "CallConnected", "OnHold"};
+
+    private final int extensions;
+    private final int threads;
+
+    /**
+     * @param extensions Number of distinct extensions the notifications are spread over
+     * @param threads    Number of threads delivering notifications concurrently
+     */
+    public NotificationSource(int extensions, int threads) {
+        this.extensions = extensions;
+        this.threads = threads;
+    }
+
+    /**
+     * Delivers the notifications and returns once all of them have been handed to the listener
+     *
+     * @return Time each delivery took, in nanoseconds, in no particular order
+     */
+    public long[] flood(final NotificationListener listener, int notifications) throws InterruptedException {
+        final long[] latencies = new long[notifications];
+        final int perThread = notifications / threads;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int offset = t * perThread;
+            final int count = t == threads - 1 ? notifications - offset : perThread;
+            Thread worker = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Random random = new Random(offset);
+                    for (int i = 0; i < count; i++) {
+                        int extension = random.nextInt(extensions);
+                        String event = "/restapi/v1.0/account/1/extension/" + extension + "/presence";
+                        JSONObject body = new JSONObject();
+                        try {
+                            body.put("extensionId", String.valueOf(extension));
+                            body.put("telephonyStatus", STATUSES[random.nextInt(STATUSES.length)]);
+                            body.put("presenceStatus", "Available");
+                            body.put("sequence", offset + i + 1);
+                        } catch (JSONException e) {
+                            throw new IllegalStateException(e);
+                        }
+                        long start = System.nanoTime();
+                        listener.onNotification(event, body);
+                        latencies[offset + i] = System.nanoTime() - start;
+                    }
+                }
+            }, "notification-source-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return latencies;
+    }
+}
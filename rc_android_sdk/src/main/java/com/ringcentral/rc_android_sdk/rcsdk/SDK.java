@@ -1,7 +1,9 @@
 package com.ringcentral.rc_android_sdk.rcsdk;
 
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.StartupTimings;
 import com.ringcentral.rc_android_sdk.rcsdk.platform.Helpers;
 import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Session;
 
 import java.io.Serializable;
 
@@ -10,12 +12,38 @@ import java.io.Serializable;
  */
 public class SDK implements Serializable{
 
+    Session session;
     Platform platform;
     Helpers helpers;
 
     public SDK(String appKey, String appSecret, String server){
-        helpers = new Helpers(appKey, appSecret, server);
-        platform = new Platform(appKey, appSecret, server);
+        this(appKey, appSecret, server, false);
+    }
+
+    /**
+     * @param prewarm If true, resolves and connects to the server in the background so the first request does
+     *                not pay for DNS, TCP and TLS setup
+     */
+    public SDK(String appKey, String appSecret, String server, boolean prewarm){
+        long start = System.nanoTime();
+        //Platform and Helpers share one session, so they authorize, refresh and subscribe once
+        session = new Session(appKey, appSecret, server);
+        platform = new Platform(session);
+        helpers = new Helpers(session);
+        platform.getStartupTimings().record(StartupTimings.SDK_INIT, System.nanoTime() - start);
+        if (prewarm) {
+            platform.prewarm();
+        }
+    }
+
+    /**
+     * Wraps a session restored from an earlier run, e.g. deserialized from storage, keeping its tokens and
+     * subscription
+     */
+    public SDK(Session session) {
+        this.session = session;
+        platform = new Platform(session);
+        helpers = new Helpers(session);
     }
 
     public Helpers getHelpers() {
@@ -26,4 +54,8 @@ public class SDK implements Serializable{
         return platform;
     }
 
+    public Session getSession() {
+        return session;
+    }
+
 }
@@ -0,0 +1,378 @@
+package com.ringcentral.rc_android_sdk.rcsdk.calllog;
+
+import com.ringcentral.rc_android_sdk.rcsdk.http.Transaction;
+import com.ringcentral.rc_android_sdk.rcsdk.model.CallLogRecord;
+import com.ringcentral.rc_android_sdk.rcsdk.model.Iso8601;
+import com.ringcentral.rc_android_sdk.rcsdk.model.Page;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.ringcentral.rc_android_sdk.rcsdk.subscription.NotificationListener;
+import com.squareup.okhttp.Callback;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rolling call statistics of the account, in total, per extension and per phone number.
+ *
+ * Time is cut into fixed buckets, e.g. hours, and the most recent buckets are kept in a ring; older calls are
+ * dropped. Each bucket holds a CallStats summary per key, so memory depends on the number of keys and buckets,
+ * not on the number of calls. A query merges the summaries of the buckets it covers, so windows are rounded
+ * to whole buckets.
+ *
+ * The statistics are fed by call-log pages, either through add or fill. When the subscription carries
+ * presence events, the end of a call triggers a fetch of the call log since the last update; calls ending
+ * before that fetch is due share it. Records fetched by fill and update are deduplicated by id over the update
+ * overlap, so a call is counted once even if it is fetched twice. All methods are thread-safe.
+ */
+public class CallLogAggregator extends NotificationListener {
+
+    private static final String CALL_LOG_ENDPOINT = "/restapi/v1.0/account/~/call-log?view=Simple&perPage=1000";
+    private static final String TOTAL = "";
+
+    private final Platform platform;
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final HashMap<String, Series> series = new HashMap<>();
+    //Ids of records that started after the update overlap began, with their start times
+    private final HashMap<String, Long> recentIds = new HashMap<>();
+    //Index of the newest bucket seen, buckets at or below newestBucket - bucketCount are gone
+    private long newestBucket = Long.MIN_VALUE;
+    private long overlapMillis = 4 * 3600000L;
+    private long updateDelayMillis = 10000;
+    private long lastUpdateMillis;
+    private boolean updating;
+    private boolean updateAgain;
+    //An update is scheduled by a notification and has not started yet
+    private boolean updateScheduled;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param bucketMillis Length of a bucket, e.g. an hour
+     * @param bucketCount  Number of buckets kept, e.g. 168 for a week of hours
+     */
+    public CallLogAggregator(Platform platform, long bucketMillis, int bucketCount) {
+        this.platform = platform;
+        this.bucketMillis = bucketMillis;
+        this.bucketCount = bucketCount;
+    }
+
+    /**
+     * How far back an update re-reads the call log, 4 hours by default. Calls are logged when they end with
+     * their start time, so this should exceed the longest expected call.
+     */
+    public synchronized void setOverlapMillis(long overlapMillis) {
+        this.overlapMillis = overlapMillis;
+    }
+
+    /**
+     * Delay between the end of a call and the update it triggers, 10 seconds by default, as calls take a
+     * moment to show up in the call log
+     */
+    public synchronized void setUpdateDelayMillis(long updateDelayMillis) {
+        this.updateDelayMillis = updateDelayMillis;
+    }
+
+    /**
+     * Adds a call, ignoring it if it was already added or is older than the oldest bucket
+     *
+     * @return true if the call was counted
+     */
+    public synchronized boolean add(CallLogRecord record) {
+        if (record.id != null && recentIds.containsKey(record.id)) {
+            return false;
+        }
+        long bucket = floorDiv(record.startTimeMillis, bucketMillis);
+        if (bucket > newestBucket) {
+            newestBucket = bucket;
+            prune();
+        } else if (bucket <= newestBucket - bucketCount) {
+            return false;
+        }
+        //Only calls an update may fetch again need their id remembered
+        if (record.id != null && lastUpdateMillis != 0 && record.startTimeMillis >= lastUpdateMillis - overlapMillis) {
+            recentIds.put(record.id, record.startTimeMillis);
+        }
+        addTo(TOTAL, bucket, record);
+        if (record.extensionId != null) {
+            addTo("e:" + record.extensionId, bucket, record);
+        }
+        String from = record.from == null ? null : CallLogStore.normalizeNumber(record.from.phoneNumber);
+        String to = record.to == null ? null : CallLogStore.normalizeNumber(record.to.phoneNumber);
+        if (from != null) {
+            addTo("n:" + from, bucket, record);
+        }
+        if (to != null && !to.equals(from)) {
+            addTo("n:" + to, bucket, record);
+        }
+        return true;
+    }
+
+    /**
+     * Adds every call of a call-log page or list
+     *
+     * @return The number of calls counted
+     */
+    public synchronized int addAll(Collection<CallLogRecord> records) {
+        int added = 0;
+        for (CallLogRecord record : records) {
+            if (add(record)) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Returns the statistics of all calls started in [fromMillis, toMillis)
+     */
+    public CallStats getTotals(long fromMillis, long toMillis) {
+        return query(TOTAL, fromMillis, toMillis);
+    }
+
+    public CallStats getByExtension(String extensionId, long fromMillis, long toMillis) {
+        return query("e:" + extensionId, fromMillis, toMillis);
+    }
+
+    /**
+     * Returns the statistics of calls from or to the phone number
+     */
+    public CallStats getByNumber(String phoneNumber, long fromMillis, long toMillis) {
+        String number = CallLogStore.normalizeNumber(phoneNumber);
+        return number == null ? new CallStats() : query("n:" + number, fromMillis, toMillis);
+    }
+
+    /**
+     * Returns the statistics of every extension with calls in [fromMillis, toMillis), keyed by extension id
+     */
+    public synchronized Map<String, CallStats> getAllByExtension(long fromMillis, long toMillis) {
+        HashMap<String, CallStats> result = new HashMap<>();
+        for (String key : series.keySet()) {
+            if (key.startsWith("e:")) {
+                CallStats stats = query(key, fromMillis, toMillis);
+                if (stats.getCalls() > 0) {
+                    result.put(key.substring(2), stats);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Fetches the account call log from the start of the oldest bucket and adds it
+     */
+    public void fill(CallLogStore.LoadCallback callback) {
+        long from;
+        synchronized (this) {
+            long newest = newestBucket == Long.MIN_VALUE ? floorDiv(System.currentTimeMillis(), bucketMillis) : newestBucket;
+            from = (newest - bucketCount + 1) * bucketMillis;
+            updating = true;
+            lastUpdateMillis = System.currentTimeMillis();
+        }
+        fetchPage(CALL_LOG_ENDPOINT + "&dateFrom=" + Iso8601.format(from), 0, callback);
+    }
+
+    /**
+     * Fetches the calls logged since the last update, minus the overlap, and adds them
+     */
+    public void update(CallLogStore.LoadCallback callback) {
+        long from;
+        synchronized (this) {
+            if (updating) {
+                updateAgain = true;
+                return;
+            }
+            updating = true;
+            long now = System.currentTimeMillis();
+            from = (lastUpdateMillis == 0 ? now : lastUpdateMillis) - overlapMillis;
+            lastUpdateMillis = now;
+            pruneIds(from);
+        }
+        fetchPage(CALL_LOG_ENDPOINT + "&dateFrom=" + Iso8601.format(from), 0, callback);
+    }
+
+    @Override
+    public void onNotification(String event, JSONObject body) {
+        if (!event.contains("/presence") || !"NoCall".equals(body.optString("telephonyStatus"))) {
+            return;
+        }
+        synchronized (this) {
+            if (updateScheduled) {
+                return;
+            }
+            updateScheduled = true;
+            if (scheduler == null) {
+                scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "rc-call-stats");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            }
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (CallLogAggregator.this) {
+                        updateScheduled = false;
+                    }
+                    update(BACKGROUND);
+                }
+            }, updateDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void fetchPage(String url, final int addedSoFar, final CallLogStore.LoadCallback callback) {
+        platform.get(url, new HashMap<String, String>(), new Callback() {
+            @Override
+            public void onFailure(Request request, IOException e) {
+                finishUpdate();
+                callback.onFailure(e);
+            }
+
+            @Override
+            public void onResponse(Response response) throws IOException {
+                Transaction transaction = new Transaction(response);
+                if (!transaction.isOK()) {
+                    response.body().close();
+                    finishUpdate();
+                    callback.onFailure(new IOException(transaction.getError()));
+                    return;
+                }
+                Page<CallLogRecord> page = transaction.getPage(CallLogRecord.class);
+                if (page == null) {
+                    finishUpdate();
+                    callback.onFailure(new IOException("Unreadable call-log page"));
+                    return;
+                }
+                int added = addedSoFar + addAll(page.records);
+                callback.onPage(page);
+                if (page.hasNextPage()) {
+                    fetchPage(page.nextPageUri, added, callback);
+                } else {
+                    boolean again = finishUpdate();
+                    callback.onComplete(added);
+                    if (again) {
+                        update(BACKGROUND);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * @return true if another update was requested while this one was running
+     */
+    private synchronized boolean finishUpdate() {
+        updating = false;
+        boolean again = updateAgain;
+        updateAgain = false;
+        return again;
+    }
+
+    private void addTo(String key, long bucket, CallLogRecord record) {
+        Series s = series.get(key);
+        if (s == null) {
+            s = new Series(bucketCount);
+            series.put(key, s);
+        }
+        int slot = (int) floorMod(bucket, bucketCount);
+        if (s.stats[slot] == null || s.buckets[slot] != bucket) {
+            s.stats[slot] = new CallStats();
+            s.buckets[slot] = bucket;
+        }
+        s.stats[slot].add(record);
+    }
+
+    private synchronized CallStats query(String key, long fromMillis, long toMillis) {
+        CallStats result = new CallStats();
+        Series s = series.get(key);
+        if (s == null || toMillis <= fromMillis) {
+            return result;
+        }
+        long first = Math.max(floorDiv(fromMillis, bucketMillis), newestBucket - bucketCount + 1);
+        long last = Math.min(floorDiv(toMillis - 1, bucketMillis), newestBucket);
+        for (long bucket = first; bucket <= last; bucket++) {
+            int slot = (int) floorMod(bucket, bucketCount);
+            if (s.stats[slot] != null && s.buckets[slot] == bucket) {
+                result.merge(s.stats[slot]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops series without calls in the kept buckets
+     */
+    private void prune() {
+        long oldest = newestBucket - bucketCount + 1;
+        Iterator<Series> iterator = series.values().iterator();
+        while (iterator.hasNext()) {
+            Series s = iterator.next();
+            boolean live = false;
+            for (int i = 0; i < bucketCount && !live; i++) {
+                live = s.stats[i] != null && s.buckets[i] >= oldest;
+            }
+            if (!live) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Forgets the ids of calls that started before the next update's start, they cannot be fetched again
+     */
+    private void pruneIds(long fromMillis) {
+        Iterator<Long> starts = recentIds.values().iterator();
+        while (starts.hasNext()) {
+            if (starts.next() < fromMillis) {
+                starts.remove();
+            }
+        }
+    }
+
+    private static long floorDiv(long value, long divisor) {
+        long quotient = value / divisor;
+        return value % divisor < 0 ? quotient - 1 : quotient;
+    }
+
+    private static long floorMod(long value, long divisor) {
+        return value - floorDiv(value, divisor) * divisor;
+    }
+
+    //Callback of updates started by notifications
+    private static final CallLogStore.LoadCallback BACKGROUND = new CallLogStore.LoadCallback() {
+        @Override
+        public void onComplete(int added) {
+        }
+
+        @Override
+        public void onFailure(IOException e) {
+            e.printStackTrace();
+        }
+    };
+
+    /**
+     * Ring of per-bucket summaries of one key
+     */
+    private static class Series {
+        final CallStats[] stats;
+        final long[] buckets;
+
+        Series(int bucketCount) {
+            stats = new CallStats[bucketCount];
+            buckets = new long[bucketCount];
+        }
+    }
+}
@@ -0,0 +1,506 @@
+package com.ringcentral.rc_android_sdk.rcsdk.calllog;
+
+import com.ringcentral.rc_android_sdk.rcsdk.http.Transaction;
+import com.ringcentral.rc_android_sdk.rcsdk.model.CallLogRecord;
+import com.ringcentral.rc_android_sdk.rcsdk.model.CallerInfo;
+import com.ringcentral.rc_android_sdk.rcsdk.model.Page;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.squareup.okhttp.Callback;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory call-log store with a columnar layout and indexes on phone number and start time.
+ *
+ * Each record is a row spread over primitive arrays: start times, durations, interned phone numbers and
+ * interned labels, so a million records take tens of megabytes rather than a million objects. Phone numbers
+ * are normalized to digits (keeping a leading '+') and indexed with a posting list of rows per number. Rows are
+ * kept sorted by start time, so a time range is found with a binary search. Queries return row numbers, which
+ * are read with the column accessors or turned back into records with getRecord.
+ *
+ * Rows are appended as call-log pages arrive; the time index is merged lazily on the next query. All methods
+ * are thread-safe.
+ */
+public class CallLogStore {
+
+    public static final byte DIRECTION_UNKNOWN = 0;
+    public static final byte DIRECTION_INBOUND = 1;
+    public static final byte DIRECTION_OUTBOUND = 2;
+
+    private static final int[] NO_ROWS = new int[0];
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int size;
+    private String[] ids = new String[64];
+    private long[] startTimes = new long[64];
+    private int[] durations = new int[64];
+    private int[] fromNumbers = new int[64];
+    private int[] toNumbers = new int[64];
+    private byte[] directions = new byte[64];
+    private short[] results = new short[64];
+    private short[] types = new short[64];
+
+    private final StringPool numbers = new StringPool();
+    private final StringPool labels = new StringPool();
+    private final HashMap<String, Integer> rowsById = new HashMap<>();
+    private final ArrayList<IntList> rowsByNumber = new ArrayList<>();
+
+    //Row numbers sorted by start time; rows at or above sortedCount have not been merged in yet
+    private int[] rowsByTime = new int[64];
+    private int sortedCount;
+
+    /**
+     * Adds a record, ignoring it if a record with the same id is already stored
+     *
+     * @return true if the record was added
+     */
+    public boolean add(CallLogRecord record) {
+        lock.writeLock().lock();
+        try {
+            return append(record);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds every record of a call-log page or list, ignoring ones already stored
+     *
+     * @return The number of records added
+     */
+    public int addAll(Collection<CallLogRecord> records) {
+        int added = 0;
+        lock.writeLock().lock();
+        try {
+            for (CallLogRecord record : records) {
+                if (append(record)) {
+                    added++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return added;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the rows whose start time is in [fromMillis, toMillis), ordered by start time
+     */
+    public int[] findByTime(long fromMillis, long toMillis) {
+        ensureSorted();
+        lock.readLock().lock();
+        try {
+            int lower = lowerBound(fromMillis);
+            int upper = lowerBound(toMillis);
+            return upper > lower ? Arrays.copyOfRange(rowsByTime, lower, upper) : NO_ROWS;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the rows of calls from or to a phone number whose start time is in [fromMillis, toMillis),
+     * ordered by start time. Walks whichever of the number's posting list and the time range is smaller.
+     */
+    public int[] findByNumber(String phoneNumber, long fromMillis, long toMillis) {
+        ensureSorted();
+        lock.readLock().lock();
+        try {
+            int number = numbers.find(normalizeNumber(phoneNumber));
+            if (number < 0) {
+                return NO_ROWS;
+            }
+            IntList posting = rowsByNumber.get(number);
+            int lower = lowerBound(fromMillis);
+            int upper = lowerBound(toMillis);
+            IntList matches = new IntList();
+            if (posting.size <= upper - lower) {
+                for (int i = 0; i < posting.size; i++) {
+                    int row = posting.get(i);
+                    if (startTimes[row] >= fromMillis && startTimes[row] < toMillis) {
+                        matches.add(row);
+                    }
+                }
+                int[] rows = matches.toArray();
+                sortByStartTime(rows, 0, rows.length);
+                return rows;
+            }
+            for (int i = lower; i < upper; i++) {
+                int row = rowsByTime[i];
+                if (fromNumbers[row] == number || toNumbers[row] == number) {
+                    matches.add(row);
+                }
+            }
+            return matches.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns all rows of calls from or to a phone number, ordered by start time
+     */
+    public int[] findByNumber(String phoneNumber) {
+        return findByNumber(phoneNumber, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    public long getStartTime(int row) {
+        lock.readLock().lock();
+        try {
+            return startTimes[checkRow(row)];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the call duration in seconds
+     */
+    public int getDuration(int row) {
+        lock.readLock().lock();
+        try {
+            return durations[checkRow(row)];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public String getFromNumber(int row) {
+        lock.readLock().lock();
+        try {
+            return numbers.get(fromNumbers[checkRow(row)]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public String getToNumber(int row) {
+        lock.readLock().lock();
+        try {
+            return numbers.get(toNumbers[checkRow(row)]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns one of DIRECTION_INBOUND, DIRECTION_OUTBOUND or DIRECTION_UNKNOWN
+     */
+    public byte getDirection(int row) {
+        lock.readLock().lock();
+        try {
+            return directions[checkRow(row)];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public String getResult(int row) {
+        lock.readLock().lock();
+        try {
+            return labels.get(results[checkRow(row)]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds a record from a row. Only the stored columns are filled in.
+     */
+    public CallLogRecord getRecord(int row) {
+        lock.readLock().lock();
+        try {
+            checkRow(row);
+            CallLogRecord record = new CallLogRecord();
+            record.id = ids[row];
+            record.startTimeMillis = startTimes[row];
+            record.duration = durations[row];
+            record.from = new CallerInfo(numbers.get(fromNumbers[row]));
+            record.to = new CallerInfo(numbers.get(toNumbers[row]));
+            record.direction = directions[row] == DIRECTION_INBOUND ? "Inbound"
+                    : directions[row] == DIRECTION_OUTBOUND ? "Outbound" : null;
+            record.result = labels.get(results[row]);
+            record.type = labels.get(types[row]);
+            return record;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Fetches the account call log page by page and adds every record to this store
+     *
+     * @param dateFrom ISO 8601 start of the period to fetch, or null for the API default
+     */
+    public void fill(final Platform platform, String dateFrom, final LoadCallback callback) {
+        String url = "/restapi/v1.0/account/~/call-log?view=Simple&perPage=1000";
+        if (dateFrom != null) {
+            url += "&dateFrom=" + dateFrom;
+        }
+        fetchPage(platform, url, 0, callback);
+    }
+
+    private void fetchPage(final Platform platform, String url, final int addedSoFar, final LoadCallback callback) {
+        platform.get(url, new HashMap<String, String>(), new Callback() {
+            @Override
+            public void onFailure(Request request, IOException e) {
+                callback.onFailure(e);
+            }
+
+            @Override
+            public void onResponse(Response response) throws IOException {
+                Transaction transaction = new Transaction(response);
+                if (!transaction.isOK()) {
+                    response.body().close();
+                    callback.onFailure(new IOException(transaction.getError()));
+                    return;
+                }
+                Page<CallLogRecord> page = transaction.getPage(CallLogRecord.class);
+                if (page == null) {
+                    callback.onFailure(new IOException("Unreadable call-log page"));
+                    return;
+                }
+                int added = addedSoFar + addAll(page.records);
+                callback.onPage(page);
+                if (page.hasNextPage()) {
+                    fetchPage(platform, page.nextPageUri, added, callback);
+                } else {
+                    callback.onComplete(added);
+                }
+            }
+        });
+    }
+
+    /**
+     * Receives the progress of fill
+     */
+    public abstract static class LoadCallback {
+
+        /**
+         * Called after each page has been added to the store
+         */
+        public void onPage(Page<CallLogRecord> page) {
+        }
+
+        /**
+         * @param added Number of new records added over all pages
+         */
+        public abstract void onComplete(int added);
+
+        public abstract void onFailure(IOException e);
+    }
+
+    /**
+     * Keeps digits and a leading '+', so "+1 (650) 555-1234" and "+16505551234" are the same number
+     */
+    public static String normalizeNumber(String phoneNumber) {
+        if (phoneNumber == null) {
+            return null;
+        }
+        StringBuilder normalized = new StringBuilder(phoneNumber.length());
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if ((c >= '0' && c <= '9') || (c == '+' && normalized.length() == 0)) {
+                normalized.append(c);
+            }
+        }
+        return normalized.length() == 0 ? null : normalized.toString();
+    }
+
+    private boolean append(CallLogRecord record) {
+        if (record.id != null && rowsById.containsKey(record.id)) {
+            return false;
+        }
+        ensureCapacity(size + 1);
+        int row = size;
+        ids[row] = record.id;
+        startTimes[row] = record.startTimeMillis;
+        durations[row] = record.duration;
+        fromNumbers[row] = internNumber(record.from);
+        toNumbers[row] = internNumber(record.to);
+        directions[row] = "Inbound".equals(record.direction) ? DIRECTION_INBOUND
+                : "Outbound".equals(record.direction) ? DIRECTION_OUTBOUND : DIRECTION_UNKNOWN;
+        results[row] = (short) labels.intern(record.result);
+        types[row] = (short) labels.intern(record.type);
+        if (record.id != null) {
+            rowsById.put(record.id, row);
+        }
+        index(fromNumbers[row], row);
+        if (toNumbers[row] != fromNumbers[row]) {
+            index(toNumbers[row], row);
+        }
+        size++;
+        return true;
+    }
+
+    private int internNumber(CallerInfo caller) {
+        if (caller == null) {
+            return -1;
+        }
+        String number = caller.phoneNumber != null ? caller.phoneNumber : caller.extensionNumber;
+        return numbers.intern(normalizeNumber(number));
+    }
+
+    private void index(int number, int row) {
+        if (number < 0) {
+            return;
+        }
+        while (rowsByNumber.size() <= number) {
+            rowsByNumber.add(new IntList());
+        }
+        rowsByNumber.get(number).add(row);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= startTimes.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, startTimes.length * 2);
+        ids = Arrays.copyOf(ids, newCapacity);
+        startTimes = Arrays.copyOf(startTimes, newCapacity);
+        durations = Arrays.copyOf(durations, newCapacity);
+        fromNumbers = Arrays.copyOf(fromNumbers, newCapacity);
+        toNumbers = Arrays.copyOf(toNumbers, newCapacity);
+        directions = Arrays.copyOf(directions, newCapacity);
+        results = Arrays.copyOf(results, newCapacity);
+        types = Arrays.copyOf(types, newCapacity);
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+        return row;
+    }
+
+    /**
+     * Merges rows added since the last query into the start-time index
+     */
+    private void ensureSorted() {
+        lock.readLock().lock();
+        try {
+            if (sortedCount == size) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            int pending = size - sortedCount;
+            if (pending == 0) {
+                return;
+            }
+            if (rowsByTime.length < size) {
+                rowsByTime = Arrays.copyOf(rowsByTime, Math.max(size, rowsByTime.length * 2));
+            }
+            int[] added = new int[pending];
+            for (int i = 0; i < pending; i++) {
+                added[i] = sortedCount + i;
+            }
+            sortByStartTime(added, 0, pending);
+            if (sortedCount == 0 || startTimes[added[0]] >= startTimes[rowsByTime[sortedCount - 1]]) {
+                System.arraycopy(added, 0, rowsByTime, sortedCount, pending);
+            } else {
+                int[] merged = new int[rowsByTime.length];
+                int i = 0;
+                int j = 0;
+                int k = 0;
+                while (i < sortedCount && j < pending) {
+                    merged[k++] = startTimes[added[j]] < startTimes[rowsByTime[i]] ? added[j++] : rowsByTime[i++];
+                }
+                while (i < sortedCount) {
+                    merged[k++] = rowsByTime[i++];
+                }
+                while (j < pending) {
+                    merged[k++] = added[j++];
+                }
+                rowsByTime = merged;
+            }
+            sortedCount = size;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * First position in the time index whose start time is not below the given time
+     */
+    private int lowerBound(long millis) {
+        int low = 0;
+        int high = sortedCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (startTimes[rowsByTime[mid]] < millis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Stable merge sort of row numbers by start time, without boxing
+     */
+    private void sortByStartTime(int[] rows, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int[] buffer = new int[to - from];
+        mergeSort(rows, buffer, from, to);
+    }
+
+    private void mergeSort(int[] rows, int[] buffer, int from, int to) {
+        if (to - from <= 16) {
+            for (int i = from + 1; i < to; i++) {
+                int row = rows[i];
+                long key = startTimes[row];
+                int j = i - 1;
+                while (j >= from && startTimes[rows[j]] > key) {
+                    rows[j + 1] = rows[j];
+                    j--;
+                }
+                rows[j + 1] = row;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(rows, buffer, from, mid);
+        mergeSort(rows, buffer, mid, to);
+        if (startTimes[rows[mid - 1]] <= startTimes[rows[mid]]) {
+            return;
+        }
+        System.arraycopy(rows, from, buffer, 0, to - from);
+        int i = 0;
+        int j = mid - from;
+        int end = to - from;
+        int k = from;
+        while (i < mid - from && j < end) {
+            rows[k++] = startTimes[buffer[j]] < startTimes[buffer[i]] ? buffer[j++] : buffer[i++];
+        }
+        while (i < mid - from) {
+            rows[k++] = buffer[i++];
+        }
+        while (j < end) {
+            rows[k++] = buffer[j++];
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.ringcentral.rc_android_sdk.rcsdk.calllog;
+
+import com.ringcentral.rc_android_sdk.rcsdk.model.CallLogRecord;
+
+/**
+ * Mergeable summary of a set of calls: counts, durations and a coarse duration histogram.
+ *
+ * A summary has a fixed size whatever the number of calls, and merging two summaries gives the summary of the
+ * union of their calls, so windows can be built by merging per-bucket summaries.
+ */
+public class CallStats {
+
+    //Bucket i holds durations in [2^(i-1), 2^i) seconds, the last one everything longer
+    private static final int DURATION_BUCKETS = 16;
+
+    private long calls;
+    private long missed;
+    private long inbound;
+    private long outbound;
+    private long totalDuration;
+    private int maxDuration;
+    private final int[] durationCounts = new int[DURATION_BUCKETS];
+
+    public void add(CallLogRecord record) {
+        calls++;
+        if (isMissed(record.result)) {
+            missed++;
+        }
+        if ("Inbound".equals(record.direction)) {
+            inbound++;
+        } else if ("Outbound".equals(record.direction)) {
+            outbound++;
+        }
+        int duration = Math.max(0, record.duration);
+        totalDuration += duration;
+        maxDuration = Math.max(maxDuration, duration);
+        durationCounts[bucketOf(duration)]++;
+    }
+
+    /**
+     * Adds the calls summarized by another summary to this one
+     */
+    public void merge(CallStats other) {
+        calls += other.calls;
+        missed += other.missed;
+        inbound += other.inbound;
+        outbound += other.outbound;
+        totalDuration += other.totalDuration;
+        maxDuration = Math.max(maxDuration, other.maxDuration);
+        for (int i = 0; i < DURATION_BUCKETS; i++) {
+            durationCounts[i] += other.durationCounts[i];
+        }
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * Returns the number of inbound calls that were missed or went to voicemail
+     */
+    public long getMissed() {
+        return missed;
+    }
+
+    public long getInbound() {
+        return inbound;
+    }
+
+    public long getOutbound() {
+        return outbound;
+    }
+
+    /**
+     * Returns the total duration of the calls in seconds
+     */
+    public long getTotalDuration() {
+        return totalDuration;
+    }
+
+    public int getMaxDuration() {
+        return maxDuration;
+    }
+
+    /**
+     * Returns the mean duration of the calls in seconds
+     */
+    public double getAverageDuration() {
+        return calls == 0 ? 0 : (double) totalDuration / calls;
+    }
+
+    /**
+     * Returns the share of inbound calls that were missed, between 0 and 1
+     */
+    public double getMissedRate() {
+        return inbound == 0 ? 0 : (double) missed / inbound;
+    }
+
+    /**
+     * Returns an upper bound, in seconds, of the given percentile of call durations. Durations are bucketed
+     * by powers of two, so the bound is within a factor of two.
+     *
+     * @param percentile Value between 0 and 100
+     */
+    public int getDurationPercentile(double percentile) {
+        if (calls == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(calls * (percentile / 100.0)));
+        long seen = 0;
+        for (int i = 0; i < DURATION_BUCKETS; i++) {
+            seen += durationCounts[i];
+            if (seen >= rank) {
+                return i == DURATION_BUCKETS - 1 ? maxDuration : Math.min((1 << i) - 1, maxDuration);
+            }
+        }
+        return maxDuration;
+    }
+
+    @Override
+    public String toString() {
+        return calls + " calls, " + missed + " missed, average " + Math.round(getAverageDuration()) + "s, max "
+                + maxDuration + "s";
+    }
+
+    private static boolean isMissed(String result) {
+        return "Missed".equals(result) || "Voicemail".equals(result);
+    }
+
+    private static int bucketOf(int duration) {
+        return Math.min(32 - Integer.numberOfLeadingZeros(duration), DURATION_BUCKETS - 1);
+    }
+}
@@ -0,0 +1,35 @@
+package com.ringcentral.rc_android_sdk.rcsdk.calllog;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints, used for posting lists and row sets without boxing
+ */
+class IntList {
+
+    int[] values;
+    int size;
+
+    IntList() {
+        this(4);
+    }
+
+    IntList(int capacity) {
+        values = new int[Math.max(capacity, 1)];
+    }
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,48 @@
+package com.ringcentral.rc_android_sdk.rcsdk.calllog;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Interns strings to dense int ids, so columns can store an int per row instead of a String reference
+ */
+class StringPool {
+
+    private final HashMap<String, Integer> ids = new HashMap<>();
+    private final ArrayList<String> values = new ArrayList<>();
+
+    /**
+     * Returns the id of the value, adding it to the pool if needed; null maps to -1
+     */
+    int intern(String value) {
+        if (value == null) {
+            return -1;
+        }
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = values.size();
+            ids.put(value, id);
+            values.add(value);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the id of the value, or -1 if it is not in the pool
+     */
+    int find(String value) {
+        if (value == null) {
+            return -1;
+        }
+        Integer id = ids.get(value);
+        return id == null ? -1 : id;
+    }
+
+    String get(int id) {
+        return id < 0 ? null : values.get(id);
+    }
+
+    int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,646 @@
+package com.ringcentral.rc_android_sdk.rcsdk.directory;
+
+import com.ringcentral.rc_android_sdk.rcsdk.calllog.CallLogStore;
+import com.ringcentral.rc_android_sdk.rcsdk.http.Transaction;
+import com.ringcentral.rc_android_sdk.rcsdk.model.DirectoryEntry;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.ringcentral.rc_android_sdk.rcsdk.subscription.NotificationListener;
+import com.squareup.okhttp.Callback;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Local copy of the company directory and the user's personal contacts, indexed for caller-ID and type-ahead.
+ *
+ * Phone numbers are normalized as in CallLogStore and kept in a hash index, together with an index on their
+ * last ten digits, so "+16505551234" finds a contact saved as "(650) 555-1234". Extension numbers have an
+ * index of their own. Every word of a name is kept in a sorted map, so a prefix query is a range scan. When
+ * several entries share a number, extensions win over contacts.
+ *
+ * fill() loads extensions, their phone numbers and the address book. sync() then applies only address-book
+ * changes since the last sync. Extension and address-book changes arrive as notifications for EVENT_FILTERS,
+ * which Platform.getDirectoryCache() registers with the subscription manager. Lookups never go to the
+ * network. All methods are thread-safe.
+ */
+public class DirectoryCache extends NotificationListener {
+
+    /**
+     * Event filters of the extension list and address-book changes the cache applies
+     */
+    public static final String[] EVENT_FILTERS = {"/restapi/v1.0/account/~/extension",
+            "/restapi/v1.0/account/~/extension/~/address-book-subscription"};
+
+    private static final String EXTENSION_ENDPOINT = "/restapi/v1.0/account/~/extension";
+    private static final String PHONE_NUMBER_ENDPOINT = "/restapi/v1.0/account/~/phone-number?perPage=1000";
+    private static final String ADDRESS_BOOK_SYNC_ENDPOINT = "/restapi/v1.0/account/~/extension/~/address-book-sync";
+    private static final Pattern EXTENSION_LIST_EVENT = Pattern.compile(".*/account/[^/]+/extension");
+    private static final Pattern ADDRESS_BOOK_EVENT = Pattern.compile(".*/address-book(-subscription)?");
+    private static final String[] CONTACT_PHONES = {"businessPhone", "businessPhone2", "mobilePhone", "homePhone",
+            "homePhone2", "otherPhone", "companyPhone", "carPhone", "callbackPhone"};
+    //Numbers with at least this many digits are also indexed by their last digits
+    private static final int SUFFIX_DIGITS = 10;
+
+    private static final Comparator<DirectoryEntry> BY_NAME = new Comparator<DirectoryEntry>() {
+        @Override
+        public int compare(DirectoryEntry a, DirectoryEntry b) {
+            String nameA = a.name == null ? "" : a.name;
+            String nameB = b.name == null ? "" : b.name;
+            return nameA.compareToIgnoreCase(nameB);
+        }
+    };
+
+    //Callback of syncs started by notifications
+    private static final LoadCallback BACKGROUND = new LoadCallback() {
+        @Override
+        public void onComplete() {
+        }
+
+        @Override
+        public void onFailure(IOException e) {
+            e.printStackTrace();
+        }
+    };
+
+    private final Platform platform;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    //Keyed by type and id, e.g. "Extension:1234"
+    private final HashMap<String, DirectoryEntry> entries = new HashMap<>();
+    private final HashMap<String, List<DirectoryEntry>> byNumber = new HashMap<>();
+    private final HashMap<String, List<DirectoryEntry>> bySuffix = new HashMap<>();
+    private final HashMap<String, List<DirectoryEntry>> byExtensionNumber = new HashMap<>();
+    private final TreeMap<String, List<DirectoryEntry>> byNameWord = new TreeMap<>();
+    private String syncToken;
+    private boolean syncing;
+    private boolean resync;
+
+    public DirectoryCache(Platform platform) {
+        this.platform = platform;
+    }
+
+    /**
+     * Returns the entry owning the phone or extension number, or null if it is not in the directory
+     */
+    public DirectoryEntry findByNumber(String number) {
+        String normalized = CallLogStore.normalizeNumber(number);
+        if (normalized == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            List<DirectoryEntry> found = byNumber.get(normalized);
+            if (found == null) {
+                found = byExtensionNumber.get(normalized);
+            }
+            if (found == null) {
+                String suffix = suffix(normalized);
+                found = suffix == null ? null : bySuffix.get(suffix);
+            }
+            return found == null ? null : best(found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns entries whose name has a word starting with each word of the query, ordered by name. Matching
+     * ignores case, so "jo sm" finds "John Smith".
+     */
+    public List<DirectoryEntry> findByName(String query, int limit) {
+        String[] words = words(query);
+        if (words.length == 0) {
+            return new ArrayList<>();
+        }
+        List<DirectoryEntry> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            LinkedHashSet<DirectoryEntry> candidates = new LinkedHashSet<>();
+            for (List<DirectoryEntry> list : byNameWord.subMap(words[0], words[0] + Character.MAX_VALUE).values()) {
+                candidates.addAll(list);
+            }
+            for (DirectoryEntry entry : candidates) {
+                if (matchesAll(words(entry.name), words)) {
+                    matches.add(entry);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Collections.sort(matches, BY_NAME);
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    public DirectoryEntry get(String type, String id) {
+        lock.readLock().lock();
+        try {
+            return entries.get(type + ":" + id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds an entry, replacing the stored entry of the same type and id
+     */
+    public void put(DirectoryEntry entry) {
+        lock.writeLock().lock();
+        try {
+            DirectoryEntry previous = entries.put(entry.type + ":" + entry.id, entry);
+            if (previous != null) {
+                unindex(previous);
+            }
+            index(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String type, String id) {
+        lock.writeLock().lock();
+        try {
+            DirectoryEntry previous = entries.remove(type + ":" + id);
+            if (previous != null) {
+                unindex(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Loads every extension with its phone numbers, then the whole address book
+     */
+    public void fill(final LoadCallback callback) {
+        fetchExtensions(EXTENSION_ENDPOINT + "?perPage=1000", new LoadCallback() {
+            @Override
+            public void onComplete() {
+                fetchPhoneNumbers(PHONE_NUMBER_ENDPOINT, new LoadCallback() {
+                    @Override
+                    public void onComplete() {
+                        syncAddressBook(null, null, callback);
+                    }
+
+                    @Override
+                    public void onFailure(IOException e) {
+                        callback.onFailure(e);
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(IOException e) {
+                callback.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Applies address-book changes since the last fill or sync; does a full fill if there was none
+     */
+    public void sync(LoadCallback callback) {
+        String token;
+        synchronized (this) {
+            token = syncToken;
+        }
+        if (token == null) {
+            fill(callback);
+        } else {
+            syncAddressBook(token, null, callback);
+        }
+    }
+
+    @Override
+    public void onNotification(String event, JSONObject body) {
+        String path = event.contains("?") ? event.substring(0, event.indexOf('?')) : event;
+        if (EXTENSION_LIST_EVENT.matcher(path).matches()) {
+            JSONArray changes = body.optJSONArray("extensions");
+            for (int i = 0; changes != null && i < changes.length(); i++) {
+                JSONObject change = changes.optJSONObject(i);
+                if (change == null) {
+                    continue;
+                }
+                String id = string(change, "extensionId");
+                if ("Delete".equals(string(change, "eventType"))) {
+                    remove(DirectoryEntry.TYPE_EXTENSION, id);
+                } else if (id != null) {
+                    fetchExtension(id);
+                }
+            }
+        } else if (ADDRESS_BOOK_EVENT.matcher(path).matches()) {
+            synchronized (this) {
+                //A sync in flight may have missed this change, so it runs another one when it completes
+                if (syncing) {
+                    resync = true;
+                    return;
+                }
+            }
+            sync(BACKGROUND);
+        }
+    }
+
+    private void fetchExtensions(String url, final LoadCallback callback) {
+        platform.get(url, new HashMap<String, String>(), new JsonCallback(callback) {
+            @Override
+            void onJson(JSONObject json) {
+                JSONArray records = json.optJSONArray("records");
+                for (int i = 0; records != null && i < records.length(); i++) {
+                    JSONObject record = records.optJSONObject(i);
+                    if (record != null) {
+                        putExtension(parseExtension(record));
+                    }
+                }
+                String next = nextPageUri(json);
+                if (next != null) {
+                    fetchExtensions(next, callback);
+                } else {
+                    callback.onComplete();
+                }
+            }
+        });
+    }
+
+    private void fetchExtension(String id) {
+        platform.get(EXTENSION_ENDPOINT + "/" + id, new HashMap<String, String>(), new JsonCallback(null) {
+            @Override
+            void onJson(JSONObject json) {
+                putExtension(parseExtension(json));
+            }
+        });
+    }
+
+    /**
+     * Stores an extension, keeping the phone numbers assigned to it from the phone-number list
+     */
+    private void putExtension(DirectoryEntry entry) {
+        lock.writeLock().lock();
+        try {
+            DirectoryEntry previous = entries.get(entry.type + ":" + entry.id);
+            if (previous != null) {
+                for (String number : previous.phoneNumbers) {
+                    if (!entry.phoneNumbers.contains(number)) {
+                        entry.phoneNumbers.add(number);
+                    }
+                }
+            }
+            put(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void fetchPhoneNumbers(String url, final LoadCallback callback) {
+        platform.get(url, new HashMap<String, String>(), new JsonCallback(callback) {
+            @Override
+            void onJson(JSONObject json) {
+                JSONArray records = json.optJSONArray("records");
+                for (int i = 0; records != null && i < records.length(); i++) {
+                    JSONObject record = records.optJSONObject(i);
+                    JSONObject extension = record == null ? null : record.optJSONObject("extension");
+                    String number = record == null ? null : string(record, "phoneNumber");
+                    if (extension != null && number != null) {
+                        addNumber(string(extension, "id"), number);
+                    }
+                }
+                String next = nextPageUri(json);
+                if (next != null) {
+                    fetchPhoneNumbers(next, callback);
+                } else {
+                    callback.onComplete();
+                }
+            }
+        });
+    }
+
+    private void addNumber(String extensionId, String number) {
+        lock.writeLock().lock();
+        try {
+            DirectoryEntry entry = entries.get(DirectoryEntry.TYPE_EXTENSION + ":" + extensionId);
+            if (entry != null && !entry.phoneNumbers.contains(number)) {
+                //Entries may be held by callers, so the stored one is replaced rather than changed
+                DirectoryEntry copy = new DirectoryEntry();
+                copy.id = entry.id;
+                copy.type = entry.type;
+                copy.name = entry.name;
+                copy.extensionNumber = entry.extensionNumber;
+                copy.email = entry.email;
+                copy.phoneNumbers.addAll(entry.phoneNumbers);
+                copy.phoneNumbers.add(number);
+                put(copy);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a full sync of the address book when token is null, otherwise an incremental one
+     */
+    private void syncAddressBook(final String token, String pageId, final LoadCallback callback) {
+        synchronized (this) {
+            syncing = true;
+        }
+        String url = ADDRESS_BOOK_SYNC_ENDPOINT + (token == null ? "?syncType=FSync" : "?syncType=ISync&syncToken=" + token);
+        if (pageId != null) {
+            url += "&pageId=" + pageId;
+        }
+        platform.get(url, new HashMap<String, String>(), new JsonCallback(new LoadCallback() {
+            @Override
+            public void onComplete() {
+            }
+
+            @Override
+            public void onFailure(IOException e) {
+                synchronized (DirectoryCache.this) {
+                    syncing = false;
+                    resync = false;
+                }
+                callback.onFailure(e);
+            }
+        }) {
+            @Override
+            void onJson(JSONObject json) {
+                JSONArray records = json.optJSONArray("records");
+                for (int i = 0; records != null && i < records.length(); i++) {
+                    JSONObject record = records.optJSONObject(i);
+                    if (record == null) {
+                        continue;
+                    }
+                    if ("Deleted".equals(string(record, "availability"))) {
+                        remove(DirectoryEntry.TYPE_CONTACT, string(record, "id"));
+                    } else {
+                        put(parseContact(record));
+                    }
+                }
+                String nextPageId = string(json, "nextPageId");
+                if (nextPageId != null) {
+                    syncAddressBook(token, nextPageId, callback);
+                    return;
+                }
+                JSONObject syncInfo = json.optJSONObject("syncInfo");
+                boolean again;
+                synchronized (DirectoryCache.this) {
+                    syncing = false;
+                    again = resync;
+                    resync = false;
+                    if (syncInfo != null && string(syncInfo, "syncToken") != null) {
+                        syncToken = string(syncInfo, "syncToken");
+                    }
+                }
+                callback.onComplete();
+                if (again) {
+                    sync(BACKGROUND);
+                }
+            }
+        });
+    }
+
+    private void index(DirectoryEntry entry) {
+        for (String number : entry.phoneNumbers) {
+            String normalized = CallLogStore.normalizeNumber(number);
+            if (normalized != null) {
+                add(byNumber, normalized, entry);
+                String suffix = suffix(normalized);
+                if (suffix != null) {
+                    add(bySuffix, suffix, entry);
+                }
+            }
+        }
+        if (entry.extensionNumber != null) {
+            add(byExtensionNumber, entry.extensionNumber, entry);
+        }
+        for (String word : words(entry.name)) {
+            List<DirectoryEntry> list = byNameWord.get(word);
+            if (list == null) {
+                list = new ArrayList<>(1);
+                byNameWord.put(word, list);
+            }
+            if (!list.contains(entry)) {
+                list.add(entry);
+            }
+        }
+    }
+
+    private void unindex(DirectoryEntry entry) {
+        for (String number : entry.phoneNumbers) {
+            String normalized = CallLogStore.normalizeNumber(number);
+            if (normalized != null) {
+                removeFrom(byNumber, normalized, entry);
+                String suffix = suffix(normalized);
+                if (suffix != null) {
+                    removeFrom(bySuffix, suffix, entry);
+                }
+            }
+        }
+        if (entry.extensionNumber != null) {
+            removeFrom(byExtensionNumber, entry.extensionNumber, entry);
+        }
+        for (String word : words(entry.name)) {
+            removeFrom(byNameWord, word, entry);
+        }
+    }
+
+    private static void add(Map<String, List<DirectoryEntry>> index, String key, DirectoryEntry entry) {
+        List<DirectoryEntry> list = index.get(key);
+        if (list == null) {
+            list = new ArrayList<>(1);
+            index.put(key, list);
+        }
+        if (!list.contains(entry)) {
+            list.add(entry);
+        }
+    }
+
+    private static void removeFrom(Map<String, List<DirectoryEntry>> index, String key, DirectoryEntry entry) {
+        List<DirectoryEntry> list = index.get(key);
+        if (list != null) {
+            list.remove(entry);
+            if (list.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static DirectoryEntry best(List<DirectoryEntry> found) {
+        for (DirectoryEntry entry : found) {
+            if (entry.isExtension()) {
+                return entry;
+            }
+        }
+        return found.get(0);
+    }
+
+    private static String suffix(String normalized) {
+        String digits = normalized.startsWith("+") ? normalized.substring(1) : normalized;
+        return digits.length() < SUFFIX_DIGITS ? null : digits.substring(digits.length() - SUFFIX_DIGITS);
+    }
+
+    /**
+     * Splits a name into lower-case words, e.g. "Smith, John" into "smith" and "john"
+     */
+    static String[] words(String name) {
+        if (name == null) {
+            return new String[0];
+        }
+        String trimmed = name.toLowerCase(Locale.US).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+        return trimmed.length() == 0 ? new String[0] : trimmed.split(" ");
+    }
+
+    /**
+     * Every query word must be a prefix of a distinct word of the name
+     */
+    private static boolean matchesAll(String[] nameWords, String[] queryWords) {
+        boolean[] used = new boolean[nameWords.length];
+        for (String query : queryWords) {
+            boolean found = false;
+            for (int i = 0; i < nameWords.length && !found; i++) {
+                if (!used[i] && nameWords[i].startsWith(query)) {
+                    used[i] = true;
+                    found = true;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static DirectoryEntry parseExtension(JSONObject json) {
+        DirectoryEntry entry = new DirectoryEntry();
+        entry.type = DirectoryEntry.TYPE_EXTENSION;
+        entry.id = string(json, "id");
+        entry.extensionNumber = string(json, "extensionNumber");
+        entry.name = string(json, "name");
+        JSONObject contact = json.optJSONObject("contact");
+        if (contact != null) {
+            if (entry.name == null) {
+                entry.name = join(string(contact, "firstName"), string(contact, "lastName"));
+            }
+            entry.email = string(contact, "email");
+            String businessPhone = string(contact, "businessPhone");
+            if (businessPhone != null) {
+                entry.phoneNumbers.add(businessPhone);
+            }
+        }
+        return entry;
+    }
+
+    static DirectoryEntry parseContact(JSONObject json) {
+        DirectoryEntry entry = new DirectoryEntry();
+        entry.type = DirectoryEntry.TYPE_CONTACT;
+        entry.id = string(json, "id");
+        entry.name = join(string(json, "firstName"), string(json, "lastName"));
+        if (entry.name == null) {
+            entry.name = string(json, "company");
+        }
+        entry.email = string(json, "email");
+        for (String field : CONTACT_PHONES) {
+            String number = string(json, field);
+            if (number != null) {
+                entry.phoneNumbers.add(number);
+            }
+        }
+        return entry;
+    }
+
+    private static String join(String first, String last) {
+        if (first == null) {
+            return last;
+        }
+        return last == null ? first : first + " " + last;
+    }
+
+    private static String nextPageUri(JSONObject json) {
+        JSONObject navigation = json.optJSONObject("navigation");
+        JSONObject nextPage = navigation == null ? null : navigation.optJSONObject("nextPage");
+        return nextPage == null ? null : string(nextPage, "uri");
+    }
+
+    /**
+     * Reads a string or number member, treating JSON null and empty strings as missing
+     */
+    private static String string(JSONObject json, String name) {
+        if (json.isNull(name)) {
+            return null;
+        }
+        String value = json.optString(name);
+        return value.length() == 0 ? null : value;
+    }
+
+    /**
+     * Receives the outcome of fill or sync
+     */
+    public abstract static class LoadCallback {
+
+        public abstract void onComplete();
+
+        public abstract void onFailure(IOException e);
+    }
+
+    /**
+     * Reads a JSON response, reporting failures to the callback, or printing them if there is none
+     */
+    private abstract static class JsonCallback implements Callback {
+
+        private final LoadCallback callback;
+
+        JsonCallback(LoadCallback callback) {
+            this.callback = callback;
+        }
+
+        abstract void onJson(JSONObject json);
+
+        @Override
+        public void onFailure(Request request, IOException e) {
+            fail(e);
+        }
+
+        @Override
+        public void onResponse(Response response) throws IOException {
+            Transaction transaction = new Transaction(response);
+            if (!transaction.isOK()) {
+                response.body().close();
+                fail(new IOException(transaction.getError()));
+                return;
+            }
+            JSONObject json = transaction.getJsonObject();
+            if (json == null) {
+                fail(new IOException("Unreadable directory response"));
+                return;
+            }
+            onJson(json);
+        }
+
+        private void fail(IOException e) {
+            if (callback != null) {
+                callback.onFailure(e);
+            } else {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.ringcentral.rc_android_sdk.rcsdk.http;
+
+import java.io.IOException;
+
+/**
+ * Error of an API call that received an unsuccessful HTTP response
+ */
+public class ApiException extends IOException {
+
+    private final int code;
+    private final String body;
+
+    public ApiException(int code, String message, String body) {
+        super("Unexpected code " + code + " " + message);
+        this.code = code;
+        this.body = body;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Returns the error response body, usually a JSON object with "errorCode" and "message"
+     */
+    public String getBody() {
+        return body;
+    }
+}
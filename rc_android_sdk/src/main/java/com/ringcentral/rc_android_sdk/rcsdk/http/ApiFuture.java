@@ -0,0 +1,343 @@
+package com.ringcentral.rc_android_sdk.rcsdk.http;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Result of an asynchronous API call that can be composed with other calls without blocking a thread.
+ *
+ * Listeners and composition functions run on the thread that completes the future, usually an OkHttp
+ * thread, or immediately on the caller's thread if the future is already done. Cancelling a future cancels
+ * the HTTP calls it still depends on.
+ */
+public class ApiFuture<T> implements Future<T> {
+
+    /**
+     * Receives the outcome of a future
+     */
+    public abstract static class Listener<T> {
+
+        public abstract void onSuccess(T value);
+
+        public abstract void onFailure(Throwable error);
+    }
+
+    /**
+     * Transforms the value of a future, see thenApply
+     */
+    public interface Function<A, B> {
+        B apply(A value) throws Exception;
+    }
+
+    /**
+     * Starts the next asynchronous step from the value of a future, see thenCompose
+     */
+    public interface AsyncFunction<A, B> {
+        ApiFuture<B> apply(A value) throws Exception;
+    }
+
+    private final CountDownLatch done = new CountDownLatch(1);
+    private final List<Listener<? super T>> listeners = new ArrayList<>();
+    //Futures and calls whose results this future is still waiting for, cancelled along with it
+    private final List<Future<?>> dependencies = new ArrayList<>();
+    private boolean completed;
+    private boolean cancelled;
+    private T value;
+    private Throwable error;
+
+    public static <T> ApiFuture<T> completed(T value) {
+        ApiFuture<T> future = new ApiFuture<>();
+        future.complete(value);
+        return future;
+    }
+
+    public static <T> ApiFuture<T> failed(Throwable error) {
+        ApiFuture<T> future = new ApiFuture<>();
+        future.fail(error);
+        return future;
+    }
+
+    /**
+     * Returns a future of the values of all futures, in order. It fails as soon as one of them fails, and then
+     * cancels the others.
+     */
+    public static <T> ApiFuture<List<T>> allOf(final List<? extends ApiFuture<? extends T>> futures) {
+        final ApiFuture<List<T>> result = new ApiFuture<>();
+        if (futures.isEmpty()) {
+            result.complete(new ArrayList<T>());
+            return result;
+        }
+        final Object[] values = new Object[futures.size()];
+        final AtomicInteger remaining = new AtomicInteger(futures.size());
+        for (ApiFuture<? extends T> future : futures) {
+            result.dependsOn(future);
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            final int index = i;
+            futures.get(i).addListener(new Listener<T>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public void onSuccess(T value) {
+                    values[index] = value;
+                    if (remaining.decrementAndGet() == 0) {
+                        result.complete((List<T>) Arrays.asList(values));
+                    }
+                }
+
+                @Override
+                public void onFailure(Throwable error) {
+                    if (result.fail(error)) {
+                        for (ApiFuture<? extends T> other : futures) {
+                            other.cancel(true);
+                        }
+                    }
+                }
+            });
+        }
+        return result;
+    }
+
+    @SafeVarargs
+    public static <T> ApiFuture<List<T>> allOf(ApiFuture<? extends T>... futures) {
+        //Copied element by element, handing the array itself on is what makes varargs unsafe
+        List<ApiFuture<? extends T>> list = new ArrayList<>(futures.length);
+        for (ApiFuture<? extends T> future : futures) {
+            list.add(future);
+        }
+        return allOf(list);
+    }
+
+    /**
+     * Completes the future with a value
+     *
+     * @return false if the future was already done
+     */
+    public boolean complete(T value) {
+        List<Listener<? super T>> toNotify;
+        synchronized (this) {
+            if (isDoneLocked()) {
+                return false;
+            }
+            this.value = value;
+            completed = true;
+            toNotify = takeListeners();
+        }
+        done.countDown();
+        for (Listener<? super T> listener : toNotify) {
+            notifySuccess(listener, value);
+        }
+        return true;
+    }
+
+    /**
+     * Completes the future with an error
+     *
+     * @return false if the future was already done
+     */
+    public boolean fail(Throwable error) {
+        List<Listener<? super T>> toNotify;
+        synchronized (this) {
+            if (isDoneLocked()) {
+                return false;
+            }
+            this.error = error;
+            completed = true;
+            toNotify = takeListeners();
+        }
+        done.countDown();
+        for (Listener<? super T> listener : toNotify) {
+            notifyFailure(listener, error);
+        }
+        return true;
+    }
+
+    /**
+     * Cancels the future and the calls it depends on. Listeners receive a CancellationException.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        List<Listener<? super T>> toNotify;
+        List<Future<?>> toCancel;
+        CancellationException exception = new CancellationException();
+        synchronized (this) {
+            if (isDoneLocked()) {
+                return false;
+            }
+            cancelled = true;
+            error = exception;
+            toCancel = new ArrayList<>(dependencies);
+            toNotify = takeListeners();
+        }
+        done.countDown();
+        for (Future<?> dependency : toCancel) {
+            dependency.cancel(true);
+        }
+        for (Listener<? super T> listener : toNotify) {
+            notifyFailure(listener, exception);
+        }
+        return true;
+    }
+
+    /**
+     * Registers a future or call that this future waits for. If this future is already cancelled, the
+     * dependency is cancelled right away.
+     */
+    protected void dependsOn(Future<?> dependency) {
+        synchronized (this) {
+            if (!cancelled) {
+                dependencies.add(dependency);
+                return;
+            }
+        }
+        dependency.cancel(true);
+    }
+
+    /**
+     * Calls the listener once the future is done, right away if it already is
+     */
+    public void addListener(Listener<? super T> listener) {
+        synchronized (this) {
+            if (!isDoneLocked()) {
+                listeners.add(listener);
+                return;
+            }
+        }
+        if (error == null) {
+            notifySuccess(listener, value);
+        } else {
+            notifyFailure(listener, error);
+        }
+    }
+
+    /**
+     * Returns a future of the function applied to this future's value
+     */
+    public <U> ApiFuture<U> thenApply(final Function<? super T, ? extends U> function) {
+        final ApiFuture<U> result = new ApiFuture<>();
+        result.dependsOn(this);
+        addListener(new Listener<T>() {
+            @Override
+            public void onSuccess(T value) {
+                try {
+                    result.complete(function.apply(value));
+                } catch (Exception e) {
+                    result.fail(e);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable error) {
+                result.fail(error);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Starts the next call with this future's value and returns a future of its result, e.g. to send an SMS
+     * once authorization has completed
+     */
+    public <U> ApiFuture<U> thenCompose(final AsyncFunction<? super T, U> function) {
+        final ApiFuture<U> result = new ApiFuture<>();
+        result.dependsOn(this);
+        addListener(new Listener<T>() {
+            @Override
+            public void onSuccess(T value) {
+                ApiFuture<U> next;
+                try {
+                    next = function.apply(value);
+                } catch (Exception e) {
+                    result.fail(e);
+                    return;
+                }
+                result.dependsOn(next);
+                next.addListener(new Listener<U>() {
+                    @Override
+                    public void onSuccess(U value) {
+                        result.complete(value);
+                    }
+
+                    @Override
+                    public void onFailure(Throwable error) {
+                        result.fail(error);
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(Throwable error) {
+                result.fail(error);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return isDoneLocked();
+    }
+
+    @Override
+    public T get() throws InterruptedException, ExecutionException {
+        done.await();
+        return getNow();
+    }
+
+    @Override
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!done.await(timeout, unit)) {
+            throw new TimeoutException();
+        }
+        return getNow();
+    }
+
+    private synchronized T getNow() throws ExecutionException {
+        if (cancelled) {
+            throw (CancellationException) error;
+        }
+        if (error != null) {
+            throw new ExecutionException(error);
+        }
+        return value;
+    }
+
+    private boolean isDoneLocked() {
+        return completed || cancelled;
+    }
+
+    private List<Listener<? super T>> takeListeners() {
+        List<Listener<? super T>> taken = new ArrayList<>(listeners);
+        listeners.clear();
+        dependencies.clear();
+        return taken;
+    }
+
+    private static <T> void notifySuccess(Listener<? super T> listener, T value) {
+        try {
+            listener.onSuccess(value);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void notifyFailure(Listener<?> listener, Throwable error) {
+        try {
+            listener.onFailure(error);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.ringcentral.rc_android_sdk.rcsdk.http;
+
+/**
+ * Health of one API server. After a number of consecutive failures the breaker opens and requests skip the
+ * server; once the cool-down has passed a single probe request is let through, and its outcome closes the
+ * breaker or opens it again.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String server;
+    private final int failureThreshold;
+    private final long cooldownNanos;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(String server, int failureThreshold, long cooldownMillis) {
+        this.server = server;
+        this.failureThreshold = failureThreshold;
+        this.cooldownNanos = cooldownMillis * 1000000L;
+    }
+
+    public String getServer() {
+        return server;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Returns whether a request may be sent to the server now. A true result must be followed by onSuccess,
+     * onFailure or release.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < cooldownNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (probeInFlight) {
+            return false;
+        }
+        probeInFlight = true;
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        probeInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Ends a request that says nothing about the server's health, such as a cancelled one
+     */
+    public synchronized void release() {
+        probeInFlight = false;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return server + " " + state + " (" + consecutiveFailures + " consecutive failures)";
+    }
+}
@@ -0,0 +1,121 @@
+package com.ringcentral.rc_android_sdk.rcsdk.http;
+
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.MediaType;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.RequestBody;
+import com.squareup.okhttp.Response;
+
+import java.io.IOException;
+
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+
+/**
+ * OkHttp application interceptor that negotiates compression on the shared request path.
+ *
+ * Request bodies of at least the threshold are gzipped and sent with "Content-Encoding: gzip", unless they are
+ * multipart (attachments are mostly compressed already), of unknown length, or do not get smaller. The body is
+ * compressed once into memory, so it has a Content-Length and is replayed as is when failover retries it.
+ * Request compression is off until a threshold is set.
+ *
+ * Responses are gzipped by the server when OkHttp offers "Accept-Encoding: gzip", which it does for every
+ * request without its own Accept-Encoding header, Range requests included, and decoded before they reach the
+ * callback. Platform.download therefore sends "Accept-Encoding: identity" with a Range. When response
+ * compression is turned off, "Accept-Encoding: identity" is sent instead.
+ */
+public class CompressionInterceptor implements Interceptor {
+
+    private volatile long requestThreshold;
+    private volatile boolean responseCompression = true;
+
+    /**
+     * Gzips request bodies of at least minBytes; 0 turns request compression off
+     */
+    public void setRequestThreshold(long minBytes) {
+        this.requestThreshold = Math.max(0, minBytes);
+    }
+
+    public long getRequestThreshold() {
+        return requestThreshold;
+    }
+
+    /**
+     * Turns the offer of gzipped responses on or off, on by default
+     */
+    public void setResponseCompression(boolean enabled) {
+        this.responseCompression = enabled;
+    }
+
+    public boolean isResponseCompression() {
+        return responseCompression;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Request.Builder builder = null;
+        if (!responseCompression && request.header("Accept-Encoding") == null) {
+            builder = request.newBuilder().header("Accept-Encoding", "identity");
+        }
+        RequestBody body = request.body();
+        long threshold = requestThreshold;
+        if (threshold > 0 && body != null && request.header("Content-Encoding") == null && !isMultipart(body)) {
+            long length = body.contentLength();
+            if (length >= threshold) {
+                Buffer compressed = gzip(body);
+                if (compressed.size() < length) {
+                    if (builder == null) {
+                        builder = request.newBuilder();
+                    }
+                    builder.header("Content-Encoding", "gzip")
+                            .method(request.method(), new BufferedBody(body.contentType(), compressed));
+                }
+            }
+        }
+        return chain.proceed(builder == null ? request : builder.build());
+    }
+
+    private static boolean isMultipart(RequestBody body) {
+        MediaType type = body.contentType();
+        return type != null && type.type().equals("multipart");
+    }
+
+    private static Buffer gzip(RequestBody body) throws IOException {
+        Buffer compressed = new Buffer();
+        BufferedSink sink = Okio.buffer(new GzipSink(compressed));
+        body.writeTo(sink);
+        sink.close();
+        return compressed;
+    }
+
+    /**
+     * Request body held in memory, which can be written any number of times
+     */
+    private static class BufferedBody extends RequestBody {
+        private final MediaType contentType;
+        private final Buffer content;
+
+        BufferedBody(MediaType contentType, Buffer content) {
+            this.contentType = contentType;
+            this.content = content;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return contentType;
+        }
+
+        @Override
+        public long contentLength() {
+            return content.size();
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            sink.write(content.clone(), content.size());
+        }
+    }
+}
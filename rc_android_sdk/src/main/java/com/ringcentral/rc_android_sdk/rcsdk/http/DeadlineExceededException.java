@@ -0,0 +1,13 @@
+package com.ringcentral.rc_android_sdk.rcsdk.http;
+
+import java.io.IOException;
+
+/**
+ * Failure of a request whose deadline passed before it completed
+ */
+public class DeadlineExceededException extends IOException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,83 @@
+package com.ringcentral.rc_android_sdk.rcsdk.http;
+
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.Response;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces request deadlines and cancellation.
+ *
+ * Installed once as an application interceptor, which runs when the dispatcher takes a call off its queue: a
+ * request whose deadline passed while it waited is cancelled before any connection is made, otherwise a timer
+ * cancels the call once the deadline passes. Installed once as a network interceptor, where it checks again
+ * once a connection is ready, before the request is written. This catches retries past the deadline, and
+ * cancels that OkHttp misses when they arrive while the connection is being set up.
+ */
+public class DeadlineInterceptor implements Interceptor {
+
+    private final boolean network;
+    private ScheduledExecutorService scheduler;
+
+    public DeadlineInterceptor(boolean network) {
+        this.network = network;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        final RequestContext context = RequestContext.of(chain.request());
+        if (context == null) {
+            return chain.proceed(chain.request());
+        }
+        if (network) {
+            if (context.isExpired()) {
+                throw new DeadlineExceededException("Deadline passed before the request was sent");
+            }
+            if (context.isCancelled()) {
+                throw new IOException("Canceled");
+            }
+            return chain.proceed(chain.request());
+        }
+        if (!context.hasDeadline()) {
+            return chain.proceed(chain.request());
+        }
+        long remaining = context.getRemainingMillis();
+        if (remaining <= 0) {
+            //OkHttp 2.4 loses exceptions thrown here before proceed, so let the cancelled call fail instead
+            context.expire();
+        } else {
+            context.setDeadlineTimer(scheduler().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    context.expire();
+                }
+            }, remaining, TimeUnit.MILLISECONDS));
+        }
+        try {
+            return chain.proceed(chain.request());
+        } catch (IOException e) {
+            if (context.isExpired() && !(e instanceof DeadlineExceededException)) {
+                throw new DeadlineExceededException("Deadline passed while the request was in flight");
+            }
+            throw e;
+        }
+    }
+
+    private synchronized ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "rc-deadline");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return scheduler;
+    }
+}
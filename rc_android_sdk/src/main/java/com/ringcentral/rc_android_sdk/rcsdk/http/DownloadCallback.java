@@ -0,0 +1,31 @@
+package com.ringcentral.rc_android_sdk.rcsdk.http;
+
+import java.io.IOException;
+
+/**
+ * Receives progress and the outcome of a streaming download.
+ *
+ * Methods are called on the OkHttp thread doing the download.
+ */
+public abstract class DownloadCallback {
+
+    /**
+     * Called after each chunk is written
+     *
+     * @param bytesWritten Bytes written so far, including any bytes already present when resuming
+     * @param totalBytes   Full size of the content, or -1 if the server did not say
+     */
+    public void onProgress(long bytesWritten, long totalBytes) {
+    }
+
+    /**
+     * @param totalBytes Bytes written in total, including any bytes already present when resuming
+     */
+    public abstract void onComplete(long totalBytes);
+
+    /**
+     * Called when the download fails. Bytes written before the failure are kept, so a file download can be
+     * resumed by calling download again with the same file.
+     */
+    public abstract void onFailure(IOException e);
+}
@@ -0,0 +1,183 @@
+package com.ringcentral.rc_android_sdk.rcsdk.http;
+
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.MetricsRegistry;
+import com.squareup.okhttp.HttpUrl;
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * OkHttp application interceptor that routes API requests to the first healthy server of a prioritized list.
+ *
+ * Every server has a CircuitBreaker fed by connection failures and 502, 503 and 504 responses. Requests skip
+ * servers whose breaker is open, so traffic moves to an alternate while the primary is down and comes back
+ * once a probe to the primary succeeds. If every breaker is open the request fails at once instead of waiting
+ * for a timeout. Requests other than POST and PATCH are retried on the next server when one fails; POST and
+ * PATCH are not, since the server may already have acted on them. Retries stop once the request's deadline
+ * has passed, and are counted in the metrics registry when one is set.
+ *
+ * Requests to hosts not in the list, such as attachment downloads from a media server, pass through untouched.
+ */
+public class FailoverInterceptor implements Interceptor {
+
+    private final int failureThreshold;
+    private final long cooldownMillis;
+    private volatile List<Endpoint> endpoints = Collections.emptyList();
+    private volatile MetricsRegistry metrics;
+
+    /**
+     * @param failureThreshold Consecutive failures that open a server's breaker
+     * @param cooldownMillis   Time an open breaker waits before letting a probe through
+     */
+    public FailoverInterceptor(int failureThreshold, long cooldownMillis) {
+        this.failureThreshold = failureThreshold;
+        this.cooldownMillis = cooldownMillis;
+    }
+
+    /**
+     * Sets the servers in order of preference. Breakers of servers already in the list keep their state.
+     */
+    public synchronized void setServers(List<String> servers) {
+        List<Endpoint> updated = new ArrayList<>();
+        for (String server : servers) {
+            HttpUrl url = HttpUrl.parse(server);
+            if (url == null) {
+                continue;
+            }
+            Endpoint endpoint = find(url);
+            updated.add(endpoint != null ? endpoint : new Endpoint(url, new CircuitBreaker(server, failureThreshold, cooldownMillis)));
+        }
+        endpoints = Collections.unmodifiableList(updated);
+    }
+
+    /**
+     * Sets the registry in which retries on another server are counted
+     */
+    public void setMetrics(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the breakers of the servers, in order of preference
+     */
+    public List<CircuitBreaker> getBreakers() {
+        List<CircuitBreaker> breakers = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            breakers.add(endpoint.breaker);
+        }
+        return breakers;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        List<Endpoint> candidates = endpoints;
+        if (findIn(candidates, request.httpUrl()) == null) {
+            return chain.proceed(request);
+        }
+        boolean retryable = !request.method().equals("POST") && !request.method().equals("PATCH");
+        RequestContext context = RequestContext.of(request);
+        IOException lastError = null;
+        Response lastResponse = null;
+        for (Endpoint endpoint : candidates) {
+            if ((lastError != null || lastResponse != null) && context != null && context.isExpired()) {
+                //No time left to try another server
+                break;
+            }
+            if (!endpoint.breaker.tryAcquire()) {
+                continue;
+            }
+            if (lastError != null || lastResponse != null) {
+                recordRetry(request);
+            }
+            if (lastResponse != null) {
+                lastResponse.body().close();
+                lastResponse = null;
+            }
+            Request routed = request.newBuilder().url(endpoint.route(request.httpUrl())).build();
+            Response response;
+            try {
+                response = chain.proceed(routed);
+            } catch (IOException e) {
+                //A cancelled call fails with "Canceled", or with a closed socket if it was cut off while reading;
+                //the server is not at fault either way
+                if ("Canceled".equals(e.getMessage()) || (context != null && context.isCancelled())) {
+                    endpoint.breaker.release();
+                    throw e;
+                }
+                endpoint.breaker.onFailure();
+                if (!retryable) {
+                    throw e;
+                }
+                lastError = e;
+                continue;
+            }
+            int code = response.code();
+            if (code == 502 || code == 503 || code == 504) {
+                endpoint.breaker.onFailure();
+                if (!retryable) {
+                    return response;
+                }
+                lastResponse = response;
+                continue;
+            }
+            endpoint.breaker.onSuccess();
+            return response;
+        }
+        if (lastResponse != null) {
+            return lastResponse;
+        }
+        if (lastError != null) {
+            throw lastError;
+        }
+        IOException unavailable = new IOException("No API server available, every circuit breaker is open");
+        //Nothing was sent, and OkHttp 2.4 loses exceptions thrown here before proceed, so let the cancelled call fail
+        if (context != null && context.fail(unavailable)) {
+            return chain.proceed(request);
+        }
+        throw unavailable;
+    }
+
+    private void recordRetry(Request request) {
+        MetricsRegistry registry = metrics;
+        if (registry != null) {
+            registry.recordRetry(registry.getEndpoint(request.method(), request.httpUrl().encodedPath()));
+        }
+    }
+
+    private Endpoint find(HttpUrl url) {
+        return findIn(endpoints, url);
+    }
+
+    private static Endpoint findIn(List<Endpoint> endpoints, HttpUrl url) {
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.matches(url)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    private static class Endpoint {
+        final HttpUrl base;
+        final CircuitBreaker breaker;
+
+        Endpoint(HttpUrl base, CircuitBreaker breaker) {
+            this.base = base;
+            this.breaker = breaker;
+        }
+
+        boolean matches(HttpUrl url) {
+            return base.scheme().equals(url.scheme()) && base.host().equals(url.host()) && base.port() == url.port();
+        }
+
+        HttpUrl route(HttpUrl url) {
+            return url.newBuilder().scheme(base.scheme()).host(base.host()).port(base.port()).build();
+        }
+    }
+}
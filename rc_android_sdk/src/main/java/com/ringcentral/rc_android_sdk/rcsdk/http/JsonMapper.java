@@ -0,0 +1,137 @@
+package com.ringcentral.rc_android_sdk.rcsdk.http;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.ringcentral.rc_android_sdk.rcsdk.model.CallLogRecord;
+import com.ringcentral.rc_android_sdk.rcsdk.model.Message;
+import com.ringcentral.rc_android_sdk.rcsdk.model.Page;
+import com.ringcentral.rc_android_sdk.rcsdk.model.Presence;
+import com.ringcentral.rc_android_sdk.rcsdk.model.SubscriptionInfo;
+import com.ringcentral.rc_android_sdk.rcsdk.model.TokenResponse;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+
+/**
+ * The single JSON mapper shared by the SDK.
+ *
+ * Gson instances are thread-safe and cache the adapter of every type they have seen, so sharing one means
+ * reflective set-up is paid once per type instead of once per response. The core models are registered with
+ * hand-written adapters. The mapper is created on first use.
+ */
+public final class JsonMapper {
+
+    private JsonMapper() {
+    }
+
+    private static class Holder {
+        static final Gson GSON = new GsonBuilder()
+                .registerTypeAdapter(TokenResponse.class, new TokenResponse.Adapter())
+                .registerTypeAdapter(CallLogRecord.class, new CallLogRecord.Adapter())
+                .registerTypeAdapter(Presence.class, new Presence.Adapter())
+                .create();
+
+        static {
+            //Resolve the reflective adapters up front, so the first message or subscription response does not
+            //pay for it
+            GSON.getAdapter(Message.class);
+            GSON.getAdapter(SubscriptionInfo.class);
+        }
+    }
+
+    public static Gson gson() {
+        return Holder.GSON;
+    }
+
+    public static <T> T fromJson(String json, Class<T> type) {
+        return Holder.GSON.fromJson(json, type);
+    }
+
+    public static <T> T fromJson(Reader reader, Class<T> type) {
+        return Holder.GSON.fromJson(reader, type);
+    }
+
+    public static <T> T fromJson(String json, Type type) {
+        return Holder.GSON.fromJson(json, type);
+    }
+
+    public static String toJson(Object value) {
+        return Holder.GSON.toJson(value);
+    }
+
+    /**
+     * Reads a list response ({"records": [...], "paging": {...}, "navigation": {...}}) record by record from
+     * the reader, without building an intermediate tree
+     */
+    public static <T> Page<T> readPage(Reader reader, Class<T> type) throws IOException {
+        TypeAdapter<T> adapter = Holder.GSON.getAdapter(type);
+        Page<T> page = new Page<>();
+        JsonReader in = new JsonReader(reader);
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+            } else if (name.equals("records")) {
+                in.beginArray();
+                while (in.hasNext()) {
+                    page.records.add(adapter.read(in));
+                }
+                in.endArray();
+            } else if (name.equals("paging")) {
+                readPaging(in, page);
+            } else if (name.equals("navigation")) {
+                readNavigation(in, page);
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return page;
+    }
+
+    private static void readPaging(JsonReader in, Page<?> page) throws IOException {
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() != JsonToken.NUMBER) {
+                in.skipValue();
+            } else if (name.equals("page")) {
+                page.page = in.nextInt();
+            } else if (name.equals("perPage")) {
+                page.perPage = in.nextInt();
+            } else if (name.equals("totalPages")) {
+                page.totalPages = in.nextInt();
+            } else if (name.equals("totalElements")) {
+                page.totalElements = in.nextInt();
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+    }
+
+    private static void readNavigation(JsonReader in, Page<?> page) throws IOException {
+        in.beginObject();
+        while (in.hasNext()) {
+            if (in.nextName().equals("nextPage") && in.peek() == JsonToken.BEGIN_OBJECT) {
+                in.beginObject();
+                while (in.hasNext()) {
+                    if (in.nextName().equals("uri") && in.peek() == JsonToken.STRING) {
+                        page.nextPageUri = in.nextString();
+                    } else {
+                        in.skipValue();
+                    }
+                }
+                in.endObject();
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+    }
+}
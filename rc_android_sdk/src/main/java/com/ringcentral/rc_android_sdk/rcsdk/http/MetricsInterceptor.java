@@ -0,0 +1,126 @@
+package com.ringcentral.rc_android_sdk.rcsdk.http;
+
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.EndpointMetrics;
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.MetricsRegistry;
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+import com.squareup.okhttp.ResponseBody;
+
+import java.io.IOException;
+
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * OkHttp interceptor that records latency, status and byte counts of every request into a MetricsRegistry.
+ *
+ * Installed as an application interceptor, it counts the bodies as the caller sees them, before request
+ * compression and after response decompression. Installed as a network interceptor, it only counts the body
+ * bytes on the wire, once per attempt.
+ */
+public class MetricsInterceptor implements Interceptor {
+
+    private final MetricsRegistry registry;
+    private final boolean network;
+
+    public MetricsInterceptor(MetricsRegistry registry) {
+        this(registry, false);
+    }
+
+    public MetricsInterceptor(MetricsRegistry registry, boolean network) {
+        this.registry = registry;
+        this.network = network;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        EndpointMetrics metrics = registry.getEndpoint(request.method(), request.httpUrl().encodedPath());
+        if (network) {
+            return countWire(chain, request, metrics);
+        }
+        long bytesOut = request.body() != null ? request.body().contentLength() : 0;
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            registry.recordFailure(metrics, System.nanoTime() - start, bytesOut, e);
+            throw e;
+        }
+        registry.recordResponse(metrics, response.code(), System.nanoTime() - start, bytesOut);
+        ResponseBody body = response.body();
+        if (body == null) {
+            return response;
+        }
+        CountingSource counted = new CountingSource(body.source(), metrics, -1);
+        return response.newBuilder()
+                .body(ResponseBody.create(body.contentType(), body.contentLength(), Okio.buffer(counted)))
+                .build();
+    }
+
+    /**
+     * Counts the body bytes as sent and received, still compressed if they were
+     */
+    private Response countWire(Chain chain, Request request, EndpointMetrics metrics) throws IOException {
+        long bytesOut = request.body() != null ? Math.max(0, request.body().contentLength()) : 0;
+        Response response = chain.proceed(request);
+        ResponseBody body = response.body();
+        if (body == null) {
+            registry.recordWireBytes(metrics, bytesOut, 0);
+            return response;
+        }
+        CountingSource counted = new CountingSource(body.source(), metrics, bytesOut);
+        return response.newBuilder()
+                .body(ResponseBody.create(body.contentType(), body.contentLength(), Okio.buffer(counted)))
+                .build();
+    }
+
+    /**
+     * Counts the bytes read from the response body and reports them once, on exhaustion or close
+     */
+    private class CountingSource extends ForwardingSource {
+        private final EndpointMetrics metrics;
+        //Wire bytes sent, reported along with the wire bytes received, or -1 for decoded counts
+        private final long wireBytesOut;
+        private long count;
+        private boolean reported;
+
+        CountingSource(Source delegate, EndpointMetrics metrics, long wireBytesOut) {
+            super(delegate);
+            this.metrics = metrics;
+            this.wireBytesOut = wireBytesOut;
+        }
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            long read = super.read(sink, byteCount);
+            if (read == -1) {
+                report();
+            } else {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            report();
+            super.close();
+        }
+
+        private void report() {
+            if (!reported) {
+                reported = true;
+                if (wireBytesOut < 0) {
+                    registry.recordBytesIn(metrics, count);
+                } else {
+                    registry.recordWireBytes(metrics, wireBytesOut, count);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.ringcentral.rc_android_sdk.rcsdk.http;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Smooth rate limiter that spaces out permits evenly, and can be paused when the server asks callers to back
+ * off (e.g. a 429 with a Retry-After header)
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;
+    private long nextFreeAt;
+
+    /**
+     * @param permitsPerSecond Maximum sustained rate, e.g. 40.0 / 60 for 40 requests per minute
+     */
+    public RateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.nextFreeAt = System.nanoTime();
+    }
+
+    /**
+     * Blocks until a permit is available
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Holds back every permit for at least the given time from now
+     */
+    public synchronized void pauseFor(long millis) {
+        long resumeAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        if (resumeAt > nextFreeAt) {
+            nextFreeAt = resumeAt;
+        }
+    }
+
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        if (nextFreeAt < now) {
+            nextFreeAt = now;
+        }
+        long waitNanos = nextFreeAt - now;
+        nextFreeAt += intervalNanos;
+        return waitNanos;
+    }
+}
@@ -0,0 +1,177 @@
+package com.ringcentral.rc_android_sdk.rcsdk.http;
+
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.RequestTrace;
+import com.squareup.okhttp.Call;
+import com.squareup.okhttp.Request;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Per-request state carried through OkHttp as the Request tag, so interceptors, callbacks and Transaction
+ * can all reach it
+ */
+public class RequestContext {
+
+    private final RequestTrace trace;
+    private final long deadlineMillis;
+    private final Object tag;
+    private final List<RequestGroup> groups = new ArrayList<>();
+    private Call call;
+    private ScheduledFuture<?> deadlineTimer;
+    private boolean finished;
+    private volatile boolean cancelled;
+    private volatile boolean expired;
+    private volatile IOException failure;
+
+    public RequestContext(String method, String url) {
+        this(method, url, null);
+    }
+
+    public RequestContext(String method, String url, RequestOptions options) {
+        this.trace = new RequestTrace(method, url);
+        this.deadlineMillis = options == null ? 0 : options.getDeadline();
+        this.tag = options == null ? null : options.getTag();
+    }
+
+    public RequestTrace getTrace() {
+        return trace;
+    }
+
+    public Object getTag() {
+        return tag;
+    }
+
+    public boolean hasDeadline() {
+        return deadlineMillis != 0;
+    }
+
+    /**
+     * Returns the time left before the deadline, negative once it passed, or Long.MAX_VALUE without deadline
+     */
+    public long getRemainingMillis() {
+        return deadlineMillis == 0 ? Long.MAX_VALUE : deadlineMillis - System.currentTimeMillis();
+    }
+
+    public boolean isExpired() {
+        return expired || getRemainingMillis() <= 0;
+    }
+
+    /**
+     * Cancels the request as having run out of time; the timer may fire a little before the clock reaches the
+     * deadline
+     */
+    public void expire() {
+        expired = true;
+        cancel();
+    }
+
+    /**
+     * Sets the call of the request, which cancel() and the deadline timer cancel
+     */
+    public synchronized void setCall(Call call) {
+        this.call = call;
+    }
+
+    /**
+     * Adds the request to a group
+     *
+     * @return false if the group was cancelled
+     */
+    public boolean join(RequestGroup group) {
+        if (!group.add(this)) {
+            return false;
+        }
+        synchronized (this) {
+            groups.add(group);
+        }
+        return true;
+    }
+
+    /**
+     * Cancels the request's call, wherever it is: queued, in flight or between retries
+     */
+    public void cancel() {
+        //Set first, DeadlineInterceptor checks it in case OkHttp misses a cancel while connecting
+        cancelled = true;
+        Call toCancel;
+        synchronized (this) {
+            toCancel = call;
+        }
+        if (toCancel != null) {
+            toCancel.cancel();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Fails the request with the given error by cancelling its call, for interceptors that must not throw
+     * before proceed: OkHttp 2.4 loses those exceptions along with the callback
+     *
+     * @return false if the request has no call to cancel yet
+     */
+    public boolean fail(IOException error) {
+        synchronized (this) {
+            if (call == null) {
+                return false;
+            }
+        }
+        failure = error;
+        cancel();
+        return true;
+    }
+
+    /**
+     * Returns the error given to fail(), or null
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Holds the timer that cancels the call at its deadline, so finish() can stop it
+     */
+    synchronized boolean setDeadlineTimer(ScheduledFuture<?> timer) {
+        if (finished || deadlineTimer != null) {
+            timer.cancel(false);
+            return false;
+        }
+        deadlineTimer = timer;
+        return true;
+    }
+
+    /**
+     * Called once the request's callback ran: stops the deadline timer and leaves the groups
+     */
+    public void finish() {
+        List<RequestGroup> joined;
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (deadlineTimer != null) {
+                deadlineTimer.cancel(false);
+            }
+            joined = new ArrayList<>(groups);
+        }
+        for (RequestGroup group : joined) {
+            group.remove(this);
+        }
+    }
+
+    /**
+     * Returns the context attached to a request, or null if it was not built by Platform
+     */
+    public static RequestContext of(Request request) {
+        if (request != null && request.tag() instanceof RequestContext) {
+            return (RequestContext) request.tag();
+        }
+        return null;
+    }
+}
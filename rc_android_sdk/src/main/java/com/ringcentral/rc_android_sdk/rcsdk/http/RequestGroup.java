@@ -0,0 +1,79 @@
+package com.ringcentral.rc_android_sdk.rcsdk.http;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Set of requests that can be cancelled together, e.g. the calls made for one screen or one batch job.
+ *
+ * Requests join the group when they are enqueued and leave it once their callback has run. Cancelling the
+ * group cancels the requests it holds, and any request made with the group afterwards fails at once.
+ */
+public class RequestGroup {
+
+    private final LinkedHashSet<RequestContext> requests = new LinkedHashSet<>();
+    private boolean cancelled;
+
+    /**
+     * Cancels every request of the group, now and later. Their callbacks get an IOException("Canceled").
+     */
+    public void cancel() {
+        List<RequestContext> toCancel;
+        synchronized (this) {
+            cancelled = true;
+            toCancel = new ArrayList<>(requests);
+            requests.clear();
+        }
+        for (RequestContext context : toCancel) {
+            context.cancel();
+        }
+    }
+
+    /**
+     * Cancels the requests of the group carrying the tag; the group stays usable
+     *
+     * @return The number of requests cancelled
+     */
+    public int cancel(Object tag) {
+        List<RequestContext> toCancel = new ArrayList<>();
+        synchronized (this) {
+            for (RequestContext context : requests) {
+                if (tag.equals(context.getTag())) {
+                    toCancel.add(context);
+                }
+            }
+            requests.removeAll(toCancel);
+        }
+        for (RequestContext context : toCancel) {
+            context.cancel();
+        }
+        return toCancel.size();
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns the number of requests of the group still in flight
+     */
+    public synchronized int size() {
+        return requests.size();
+    }
+
+    /**
+     * @return false if the group was cancelled, in which case the request must not be made
+     */
+    synchronized boolean add(RequestContext context) {
+        if (cancelled) {
+            return false;
+        }
+        requests.add(context);
+        return true;
+    }
+
+    synchronized void remove(RequestContext context) {
+        requests.remove(context);
+    }
+}
@@ -0,0 +1,55 @@
+package com.ringcentral.rc_android_sdk.rcsdk.http;
+
+/**
+ * Optional per-request settings: a deadline, a cancellation group and a tag.
+ *
+ * One instance can be shared by many requests, e.g. every call of a batch job, which then share the deadline
+ * and can be cancelled together.
+ */
+public class RequestOptions {
+
+    private long deadlineMillis;
+    private RequestGroup group;
+    private Object tag;
+
+    /**
+     * Sets the time, in epoch milliseconds, after which the request is abandoned: queued requests are dropped
+     * before any network I/O, and requests in flight or between retries are cancelled. 0 means no deadline.
+     */
+    public void setDeadline(long deadlineMillis) {
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    /**
+     * Sets the deadline to the given time from now
+     */
+    public void setTimeout(long millis) {
+        setDeadline(System.currentTimeMillis() + millis);
+    }
+
+    /**
+     * Adds the requests to a group, so RequestGroup.cancel() cancels them
+     */
+    public void setGroup(RequestGroup group) {
+        this.group = group;
+    }
+
+    /**
+     * Tags the requests, so Platform.cancel(tag) cancels them
+     */
+    public void setTag(Object tag) {
+        this.tag = tag;
+    }
+
+    public long getDeadline() {
+        return deadlineMillis;
+    }
+
+    public RequestGroup getGroup() {
+        return group;
+    }
+
+    public Object getTag() {
+        return tag;
+    }
+}
@@ -0,0 +1,65 @@
+package com.ringcentral.rc_android_sdk.rcsdk.http;
+
+import com.squareup.okhttp.Call;
+import com.squareup.okhttp.Callback;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+import java.io.IOException;
+
+/**
+ * Future of an API call, completed by passing it as the Callback of any Platform or Helpers method.
+ *
+ * It completes with a Transaction for a successful response and fails with an ApiException otherwise. The
+ * response body is unread and must be consumed or closed by whoever takes the Transaction.
+ */
+public class ResponseFuture extends ApiFuture<Transaction> implements Callback {
+
+    private Call call;
+
+    /**
+     * Sets the HTTP call completing this future, so cancelling the future cancels the call
+     */
+    public void setCall(Call call) {
+        synchronized (this) {
+            if (!isCancelled()) {
+                this.call = call;
+                return;
+            }
+        }
+        call.cancel();
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (!super.cancel(mayInterruptIfRunning)) {
+            return false;
+        }
+        Call toCancel;
+        synchronized (this) {
+            toCancel = call;
+        }
+        if (toCancel != null) {
+            toCancel.cancel();
+        }
+        return true;
+    }
+
+    @Override
+    public void onFailure(Request request, IOException e) {
+        fail(e);
+    }
+
+    @Override
+    public void onResponse(Response response) throws IOException {
+        if (!response.isSuccessful()) {
+            String body = response.body().string();
+            fail(new ApiException(response.code(), response.message(), body));
+            return;
+        }
+        if (!complete(new Transaction(response))) {
+            //Nobody will read a cancelled response
+            response.body().close();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.ringcentral.rc_android_sdk.rcsdk.http;
+
+import com.squareup.okhttp.Callback;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Okio;
+import okio.Sink;
+
+/**
+ * OkHttp Callback that streams a response body into a file or sink in fixed-size chunks, so binary content
+ * such as voicemail or fax attachments never has to fit in memory.
+ *
+ * When the request was sent with a Range header, a 206 response is appended after the existing bytes, a 200
+ * response means the server ignored the range and the content is written from the start, and a 416 response
+ * means there was nothing left to download.
+ */
+public class StreamingDownload implements Callback {
+
+    private static final long CHUNK_SIZE = 8192;
+
+    private final File file;
+    private final Sink sink;
+    private final long offset;
+    private final DownloadCallback callback;
+
+    /**
+     * Streams into a file, appending to it when the response is a partial one
+     */
+    public StreamingDownload(File file, long offset, DownloadCallback callback) {
+        this.file = file;
+        this.sink = null;
+        this.offset = offset;
+        this.callback = callback;
+    }
+
+    /**
+     * Streams into a sink that already holds the first offset bytes of the content
+     */
+    public StreamingDownload(Sink sink, long offset, DownloadCallback callback) {
+        this.file = null;
+        this.sink = sink;
+        this.offset = offset;
+        this.callback = callback;
+    }
+
+    /**
+     * Returns the Range header value for resuming after the given number of bytes, or null to fetch everything
+     */
+    public static String rangeHeader(long offset) {
+        return offset > 0 ? "bytes=" + offset + "-" : null;
+    }
+
+    @Override
+    public void onFailure(Request request, IOException e) {
+        callback.onFailure(e);
+    }
+
+    @Override
+    public void onResponse(Response response) throws IOException {
+        BufferedSource source = response.body().source();
+        try {
+            int code = response.code();
+            if (code == 416 && offset > 0) {
+                callback.onComplete(offset);
+                return;
+            }
+            if (code != 200 && code != 206) {
+                callback.onFailure(new IOException(response.code() + " " + response.message()));
+                return;
+            }
+            boolean partial = code == 206;
+            long written = partial ? offset : 0;
+            long total = partial ? totalFromContentRange(response.header("Content-Range")) : response.body().contentLength();
+            Sink target;
+            if (file != null) {
+                target = Okio.sink(new FileOutputStream(file, partial));
+            } else {
+                target = sink;
+                if (!partial && offset > 0) {
+                    //The sink already holds the first offset bytes, skip them in the full response
+                    source.skip(offset);
+                    written = offset;
+                }
+            }
+            Buffer buffer = new Buffer();
+            try {
+                long read;
+                while ((read = source.read(buffer, CHUNK_SIZE)) != -1) {
+                    target.write(buffer, read);
+                    written += read;
+                    callback.onProgress(written, total);
+                }
+                target.flush();
+            } finally {
+                if (file != null) {
+                    target.close();
+                }
+            }
+            callback.onComplete(written);
+        } catch (IOException e) {
+            callback.onFailure(e);
+        } finally {
+            source.close();
+        }
+    }
+
+    private static long totalFromContentRange(String contentRange) {
+        if (contentRange == null) {
+            return -1;
+        }
+        int slash = contentRange.lastIndexOf('/');
+        if (slash < 0 || contentRange.endsWith("*")) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(contentRange.substring(slash + 1).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.ringcentral.rc_android_sdk.rcsdk.http;
+
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.RequestTrace;
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.Response;
+import com.squareup.okhttp.ResponseBody;
+
+import java.io.IOException;
+
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * Marks the phases of a request on its RequestTrace.
+ *
+ * Installed once as an application interceptor, where it marks dispatch and wraps the response body to time
+ * the body read, and once as a network interceptor, where it marks when a connection was ready and when the
+ * response headers arrived.
+ */
+public class TraceInterceptor implements Interceptor {
+
+    private final boolean network;
+
+    public TraceInterceptor(boolean network) {
+        this.network = network;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        RequestContext context = RequestContext.of(chain.request());
+        if (context == null) {
+            return chain.proceed(chain.request());
+        }
+        RequestTrace trace = context.getTrace();
+        if (network) {
+            trace.markNetworkStart();
+            Response response = chain.proceed(chain.request());
+            trace.markHeaders(response.code());
+            return response;
+        }
+        trace.markDispatched();
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException e) {
+            trace.markFailed(e);
+            throw e;
+        }
+        ResponseBody body = response.body();
+        if (body == null) {
+            return response;
+        }
+        TimingSource timed = new TimingSource(body.source(), trace);
+        return response.newBuilder()
+                .body(ResponseBody.create(body.contentType(), body.contentLength(), Okio.buffer(timed)))
+                .build();
+    }
+
+    private static class TimingSource extends ForwardingSource {
+        private final RequestTrace trace;
+
+        TimingSource(Source delegate, RequestTrace trace) {
+            super(delegate);
+            this.trace = trace;
+        }
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            trace.markBodyStart();
+            long read = super.read(sink, byteCount);
+            if (read == -1) {
+                trace.markBodyEnd();
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            trace.markBodyEnd();
+            super.close();
+        }
+    }
+}
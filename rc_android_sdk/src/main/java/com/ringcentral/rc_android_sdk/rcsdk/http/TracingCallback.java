@@ -0,0 +1,66 @@
+package com.ringcentral.rc_android_sdk.rcsdk.http;
+
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.FlightRecorder;
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.RequestTrace;
+import com.squareup.okhttp.Callback;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+import java.io.IOException;
+
+/**
+ * Wraps a caller's Callback and hands the request's trace to the FlightRecorder once the callback returns,
+ * so that time spent parsing in the callback is part of the trace. It also releases the request's deadline
+ * timer and groups, and reports a call cancelled at its deadline as a DeadlineExceededException and any other
+ * cancelled call as IOException("Canceled").
+ */
+public class TracingCallback implements Callback {
+
+    private final Callback delegate;
+    private final RequestContext context;
+    private final RequestTrace trace;
+    private final FlightRecorder recorder;
+
+    public TracingCallback(Callback delegate, RequestContext context, FlightRecorder recorder) {
+        this.delegate = delegate;
+        this.context = context;
+        this.trace = context.getTrace();
+        this.recorder = recorder;
+    }
+
+    @Override
+    public void onFailure(Request request, IOException e) {
+        if (context.getFailure() != null) {
+            e = context.getFailure();
+        } else if (context.isExpired()) {
+            if (!(e instanceof DeadlineExceededException)) {
+                e = new DeadlineExceededException("Deadline passed while the request was in flight");
+            }
+        } else if (context.isCancelled() && !"Canceled".equals(e.getMessage())) {
+            //A cancel while reading shows up as a closed socket
+            e = new IOException("Canceled", e);
+        }
+        trace.markFailed(e);
+        try {
+            delegate.onFailure(request, e);
+        } finally {
+            context.finish();
+            trace.markFinished();
+            recorder.record(trace);
+        }
+    }
+
+    @Override
+    public void onResponse(Response response) throws IOException {
+        try {
+            delegate.onResponse(response);
+        } catch (IOException e) {
+            trace.markFailed(e);
+            throw e;
+        } finally {
+            context.finish();
+            trace.markFinished();
+            recorder.record(trace);
+        }
+    }
+}
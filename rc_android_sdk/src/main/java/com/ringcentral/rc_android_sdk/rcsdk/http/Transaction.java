@@ -1,7 +1,9 @@
 package com.ringcentral.rc_android_sdk.rcsdk.http;
 
-import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import com.google.gson.reflect.TypeToken;
+import com.ringcentral.rc_android_sdk.rcsdk.model.Page;
+import com.ringcentral.rc_android_sdk.rcsdk.model.TokenResponse;
 import com.squareup.okhttp.Request;
 import com.squareup.okhttp.Response;
 
@@ -9,6 +11,7 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.lang.reflect.Type;
 import java.util.HashMap;
 
@@ -17,6 +20,8 @@ import java.util.HashMap;
  */
 public class Transaction {
 
+    private static final Type MAP_TYPE = new TypeToken<HashMap<String, String>>() {}.getType();
+
     public Request request;
     public Response response;
 
@@ -29,14 +34,80 @@ public class Transaction {
      * Parses authentication Json to return a HashMap used for setting Auth data
      */
     public HashMap getAuthJson(){
-        Gson gson = new Gson();
-        Type mapType = new TypeToken<HashMap<String, String>>() {}.getType();
+        markParseStart();
         HashMap<String, String> jsonMap = null;
-            jsonMap = gson.fromJson(this.getBodyString(), mapType);
-
+            jsonMap = JsonMapper.fromJson(this.getBodyString(), MAP_TYPE);
+        markParseEnd();
         return jsonMap;
     }
 
+    /**
+     * Parses an authentication response into a TokenResponse, with expiries as numbers
+     */
+    public TokenResponse getTokenResponse(){
+        return getAs(TokenResponse.class);
+    }
+
+    /**
+     * Parses the response body into the given model type with the shared JsonMapper, reading it straight from
+     * the response stream
+     *
+     * @return The parsed object, or null if the body could not be read or parsed
+     */
+    public <T> T getAs(Class<T> type){
+        markParseStart();
+        T value = null;
+        Reader reader = null;
+        try {
+            reader = response.body().charStream();
+            value = JsonMapper.fromJson(reader, type);
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (JsonParseException e) {
+            e.printStackTrace();
+        } finally {
+            closeQuietly(reader);
+        }
+        markParseEnd();
+        return value;
+    }
+
+    /**
+     * Parses a list response into a Page of the given record type, reading the records one by one from the
+     * response stream
+     *
+     * @return The parsed page, or null if the body could not be read or parsed
+     */
+    public <T> Page<T> getPage(Class<T> type){
+        markParseStart();
+        Page<T> page = null;
+        Reader reader = null;
+        try {
+            reader = response.body().charStream();
+            page = JsonMapper.readPage(reader, type);
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (JsonParseException e) {
+            e.printStackTrace();
+        } catch (IllegalStateException e) {
+            e.printStackTrace();
+        } finally {
+            closeQuietly(reader);
+        }
+        markParseEnd();
+        return page;
+    }
+
+    private static void closeQuietly(Reader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
     /**
      * Returns the response body as a string
      * @return
@@ -56,6 +127,7 @@ public class Transaction {
      */
     public JSONObject getJsonObject(){
         JSONObject object = null;
+        markParseStart();
         try {
             object = new JSONObject(response.body().string());
         } catch (JSONException e) {
@@ -63,9 +135,24 @@ public class Transaction {
         } catch (IOException e) {
             e.printStackTrace();
         }
+        markParseEnd();
         return object;
     }
 
+    private void markParseStart() {
+        RequestContext context = RequestContext.of(request);
+        if (context != null) {
+            context.getTrace().markParseStart();
+        }
+    }
+
+    private void markParseEnd() {
+        RequestContext context = RequestContext.of(request);
+        if (context != null) {
+            context.getTrace().markParseEnd();
+        }
+    }
+
     /**
      * Checks if the HTTP status code of the response is successful
      */
@@ -0,0 +1,163 @@
+package com.ringcentral.rc_android_sdk.rcsdk.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters and latency histogram for a single "METHOD /endpoint/template" pair
+ */
+public class EndpointMetrics {
+
+    private final String method;
+    private final String endpoint;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong bytesOut = new AtomicLong();
+    private final AtomicLong bytesIn = new AtomicLong();
+    private final AtomicLong wireBytesOut = new AtomicLong();
+    private final AtomicLong wireBytesIn = new AtomicLong();
+    private final ConcurrentHashMap<Integer, AtomicLong> statusCounts = new ConcurrentHashMap<>();
+
+    public EndpointMetrics(String method, String endpoint) {
+        this.method = method;
+        this.endpoint = endpoint;
+    }
+
+    void recordResponse(int status, long latencyNanos, long requestBytes) {
+        requests.incrementAndGet();
+        latency.recordNanos(latencyNanos);
+        if (requestBytes > 0) {
+            bytesOut.addAndGet(requestBytes);
+        }
+        if (status >= 400) {
+            errors.incrementAndGet();
+        }
+        AtomicLong counter = statusCounts.get(status);
+        if (counter == null) {
+            AtomicLong created = new AtomicLong();
+            counter = statusCounts.putIfAbsent(status, created);
+            if (counter == null) {
+                counter = created;
+            }
+        }
+        counter.incrementAndGet();
+    }
+
+    void recordFailure(long latencyNanos, long requestBytes) {
+        requests.incrementAndGet();
+        failures.incrementAndGet();
+        latency.recordNanos(latencyNanos);
+        if (requestBytes > 0) {
+            bytesOut.addAndGet(requestBytes);
+        }
+    }
+
+    void recordBytesIn(long bytes) {
+        bytesIn.addAndGet(bytes);
+    }
+
+    void recordWireBytes(long bytesOut, long bytesIn) {
+        wireBytesOut.addAndGet(bytesOut);
+        wireBytesIn.addAndGet(bytesIn);
+    }
+
+    void recordRetry() {
+        retries.incrementAndGet();
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Number of requests that completed, with or without an HTTP response
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Number of responses with an HTTP status of 400 or above
+     */
+    public long getErrorCount() {
+        return errors.get();
+    }
+
+    /**
+     * Number of requests that failed without receiving an HTTP response
+     */
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    /**
+     * Request body bytes as built by the caller, before compression
+     */
+    public long getBytesOut() {
+        return bytesOut.get();
+    }
+
+    /**
+     * Response body bytes as read by the caller, after decompression
+     */
+    public long getBytesIn() {
+        return bytesIn.get();
+    }
+
+    /**
+     * Request body bytes sent on the wire, compressed if they were, over all attempts
+     */
+    public long getWireBytesOut() {
+        return wireBytesOut.get();
+    }
+
+    /**
+     * Response body bytes received on the wire, compressed if they were, over all attempts
+     */
+    public long getWireBytesIn() {
+        return wireBytesIn.get();
+    }
+
+    /**
+     * Returns a sorted copy of the response counts keyed by HTTP status code
+     */
+    public Map<Integer, Long> getStatusCounts() {
+        TreeMap<Integer, Long> copy = new TreeMap<>();
+        for (Map.Entry<Integer, AtomicLong> entry : statusCounts.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().get());
+        }
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + endpoint
+                + " requests=" + requests.get()
+                + " errors=" + errors.get()
+                + " failures=" + failures.get()
+                + " p50=" + latency.getP50() + "us"
+                + " p99=" + latency.getP99() + "us"
+                + " max=" + latency.getMax() + "us"
+                + " in=" + bytesIn.get()
+                + " out=" + bytesOut.get()
+                + " wireIn=" + wireBytesIn.get()
+                + " wireOut=" + wireBytesOut.get();
+    }
+}
@@ -0,0 +1,106 @@
+package com.ringcentral.rc_android_sdk.rcsdk.metrics;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded in-memory recorder of request traces.
+ *
+ * Every request slower than the slow threshold is kept, along with one in every sampleRate of the others.
+ * Traces are stored in a fixed-size ring buffer, so the oldest ones are overwritten first.
+ */
+public class FlightRecorder {
+
+    public static final int DEFAULT_CAPACITY = 128;
+
+    private final AtomicReferenceArray<RequestTrace> buffer;
+    private final AtomicLong next = new AtomicLong();
+    private final AtomicLong seen = new AtomicLong();
+    private volatile int sampleRate = 100;
+    private volatile long slowThresholdMillis = 2000;
+
+    public FlightRecorder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public FlightRecorder(int capacity) {
+        buffer = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * @param sampleRate Keep one in every sampleRate requests that are not slow, or 0 to keep only slow requests
+     */
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Requests taking at least this long, or failing, are always recorded
+     */
+    public void setSlowThresholdMillis(long slowThresholdMillis) {
+        this.slowThresholdMillis = slowThresholdMillis;
+    }
+
+    /**
+     * Offers a finished trace to the recorder, which keeps it if it is slow, failed or sampled
+     */
+    public void record(RequestTrace trace) {
+        long count = seen.incrementAndGet();
+        int rate = sampleRate;
+        boolean keep = trace.getError() != null
+                || trace.getTotalMillis() >= slowThresholdMillis
+                || (rate > 0 && count % rate == 0);
+        if (keep) {
+            int slot = (int) (next.getAndIncrement() % buffer.length());
+            buffer.set(slot, trace);
+        }
+    }
+
+    /**
+     * Returns the recorded traces, oldest first
+     */
+    public List<RequestTrace> getTraces() {
+        ArrayList<RequestTrace> traces = new ArrayList<>(buffer.length());
+        for (int i = 0; i < buffer.length(); i++) {
+            RequestTrace trace = buffer.get(i);
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        Collections.sort(traces, new Comparator<RequestTrace>() {
+            @Override
+            public int compare(RequestTrace a, RequestTrace b) {
+                return a.startedAtMillis < b.startedAtMillis ? -1 : (a.startedAtMillis == b.startedAtMillis ? 0 : 1);
+            }
+        });
+        return traces;
+    }
+
+    /**
+     * Dumps the recorded traces as a JSON array, oldest first
+     */
+    public String dumpJson() {
+        JSONArray array = new JSONArray();
+        try {
+            for (RequestTrace trace : getTraces()) {
+                array.put(trace.toJson());
+            }
+        } catch (JSONException e) {
+            e.printStackTrace();
+        }
+        return array.toString();
+    }
+
+    public void clear() {
+        for (int i = 0; i < buffer.length(); i++) {
+            buffer.set(i, null);
+        }
+    }
+}
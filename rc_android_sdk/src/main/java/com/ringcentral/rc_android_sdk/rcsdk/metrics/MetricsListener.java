@@ -0,0 +1,69 @@
+package com.ringcentral.rc_android_sdk.rcsdk.metrics;
+
+import java.io.IOException;
+
+/**
+ * Receives every measurement recorded by a MetricsRegistry, for bridging to an external metrics backend.
+ *
+ * Methods are called on the OkHttp thread that completed the request, so implementations should hand off
+ * any slow work. Override only the methods you need.
+ */
+public abstract class MetricsListener {
+
+    /**
+     * Called when an HTTP response has been received
+     *
+     * @param endpoint     Endpoint template, e.g. "/restapi/v1.0/account/~/extension/{id}/presence"
+     * @param latencyNanos Time from dispatch until the response headers were received
+     */
+    public void onResponse(String method, String endpoint, int status, long latencyNanos, long bytesOut) {
+    }
+
+    /**
+     * Called when a request failed without receiving an HTTP response
+     */
+    public void onFailure(String method, String endpoint, long latencyNanos, IOException e) {
+    }
+
+    /**
+     * Called once the response body has been fully read or closed
+     */
+    public void onBytesIn(String method, String endpoint, long bytesIn) {
+    }
+
+    /**
+     * Called once per attempt when the response body has been read or closed, with the body bytes as they
+     * went over the wire. They are smaller than the bytes of onResponse and onBytesIn when compressed.
+     */
+    public void onWireBytes(String method, String endpoint, long wireBytesOut, long wireBytesIn) {
+    }
+
+    public void onRetry(String method, String endpoint) {
+    }
+
+    public void onTokenRefresh(boolean success) {
+    }
+
+    /**
+     * Called on the notification thread once the listeners of a notification returned
+     *
+     * @param event             Event template, e.g. "/restapi/v1.0/account/~/extension/{id}/presence"
+     * @param deliveryLagMillis Time from the event's server timestamp until receipt, or -1 without timestamp
+     * @param handlingNanos     Time spent in the notification listeners
+     */
+    public void onNotification(String event, long deliveryLagMillis, long handlingNanos) {
+    }
+
+    /**
+     * Called when the total lag of an event's notifications rises to the threshold set with
+     * MetricsRegistry.setNotificationLagThreshold, once until it falls below it again
+     */
+    public void onNotificationLagAlert(String event, long lagMillis, long thresholdMillis) {
+    }
+
+    /**
+     * Called when the total lag of an event's notifications falls back below the threshold
+     */
+    public void onNotificationLagRecovered(String event, long lagMillis) {
+    }
+}
@@ -0,0 +1,220 @@
+package com.ringcentral.rc_android_sdk.rcsdk.metrics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects per-endpoint request metrics for a Platform.
+ *
+ * Requests are grouped by method and endpoint template, where path segments holding ids are replaced with
+ * "{id}" so that e.g. every message-store/{id} call shares one histogram. Subscription notifications are
+ * grouped by event template the same way.
+ */
+public class MetricsRegistry {
+
+    private final ConcurrentHashMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, NotificationMetrics> notifications = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<MetricsListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong tokenRefreshes = new AtomicLong();
+    private final AtomicLong tokenRefreshFailures = new AtomicLong();
+    private volatile long notificationLagThresholdMillis;
+
+    public void addListener(MetricsListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(MetricsListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the metrics for an endpoint, creating them on first use
+     *
+     * @param path URL path of the request, ids are replaced by the template
+     */
+    public EndpointMetrics getEndpoint(String method, String path) {
+        String endpoint = endpointTemplate(path);
+        String key = method + " " + endpoint;
+        EndpointMetrics metrics = endpoints.get(key);
+        if (metrics == null) {
+            EndpointMetrics created = new EndpointMetrics(method, endpoint);
+            metrics = endpoints.putIfAbsent(key, created);
+            if (metrics == null) {
+                metrics = created;
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns a snapshot list of the metrics of every endpoint called so far
+     */
+    public List<EndpointMetrics> getEndpoints() {
+        return new ArrayList<>(endpoints.values());
+    }
+
+    /**
+     * Returns the metrics for a notification event, creating them on first use
+     *
+     * @param event Event path of the notification, ids are replaced by the template
+     */
+    public NotificationMetrics getNotification(String event) {
+        String template = endpointTemplate(event);
+        NotificationMetrics metrics = notifications.get(template);
+        if (metrics == null) {
+            NotificationMetrics created = new NotificationMetrics(template);
+            metrics = notifications.putIfAbsent(template, created);
+            if (metrics == null) {
+                metrics = created;
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns a snapshot list of the metrics of every notification event received so far
+     */
+    public List<NotificationMetrics> getNotifications() {
+        return new ArrayList<>(notifications.values());
+    }
+
+    /**
+     * Sets the total notification lag, from server timestamp until the listeners returned, at which listeners
+     * get onNotificationLagAlert. 0, the default, disables the alerts.
+     */
+    public void setNotificationLagThreshold(long millis) {
+        this.notificationLagThresholdMillis = millis;
+    }
+
+    /**
+     * @param deliveryLagMillis Lag from the server timestamp until receipt, or -1 without timestamp
+     */
+    public void recordNotification(NotificationMetrics metrics, long deliveryLagMillis, long handlingNanos) {
+        metrics.record(deliveryLagMillis, handlingNanos);
+        for (MetricsListener listener : listeners) {
+            listener.onNotification(metrics.getEvent(), deliveryLagMillis, handlingNanos);
+        }
+        long threshold = notificationLagThresholdMillis;
+        if (threshold <= 0 || deliveryLagMillis < 0) {
+            return;
+        }
+        long lagMillis = deliveryLagMillis + TimeUnit.NANOSECONDS.toMillis(handlingNanos);
+        if (lagMillis >= threshold) {
+            if (metrics.setLagging(true)) {
+                for (MetricsListener listener : listeners) {
+                    listener.onNotificationLagAlert(metrics.getEvent(), lagMillis, threshold);
+                }
+            }
+        } else if (metrics.setLagging(false)) {
+            for (MetricsListener listener : listeners) {
+                listener.onNotificationLagRecovered(metrics.getEvent(), lagMillis);
+            }
+        }
+    }
+
+    public void recordResponse(EndpointMetrics metrics, int status, long latencyNanos, long bytesOut) {
+        metrics.recordResponse(status, latencyNanos, bytesOut);
+        for (MetricsListener listener : listeners) {
+            listener.onResponse(metrics.getMethod(), metrics.getEndpoint(), status, latencyNanos, bytesOut);
+        }
+    }
+
+    public void recordFailure(EndpointMetrics metrics, long latencyNanos, long bytesOut, IOException e) {
+        metrics.recordFailure(latencyNanos, bytesOut);
+        for (MetricsListener listener : listeners) {
+            listener.onFailure(metrics.getMethod(), metrics.getEndpoint(), latencyNanos, e);
+        }
+    }
+
+    public void recordBytesIn(EndpointMetrics metrics, long bytesIn) {
+        metrics.recordBytesIn(bytesIn);
+        for (MetricsListener listener : listeners) {
+            listener.onBytesIn(metrics.getMethod(), metrics.getEndpoint(), bytesIn);
+        }
+    }
+
+    public void recordWireBytes(EndpointMetrics metrics, long wireBytesOut, long wireBytesIn) {
+        metrics.recordWireBytes(wireBytesOut, wireBytesIn);
+        for (MetricsListener listener : listeners) {
+            listener.onWireBytes(metrics.getMethod(), metrics.getEndpoint(), wireBytesOut, wireBytesIn);
+        }
+    }
+
+    public void recordRetry(EndpointMetrics metrics) {
+        metrics.recordRetry();
+        for (MetricsListener listener : listeners) {
+            listener.onRetry(metrics.getMethod(), metrics.getEndpoint());
+        }
+    }
+
+    public void recordTokenRefresh(boolean success) {
+        tokenRefreshes.incrementAndGet();
+        if (!success) {
+            tokenRefreshFailures.incrementAndGet();
+        }
+        for (MetricsListener listener : listeners) {
+            listener.onTokenRefresh(success);
+        }
+    }
+
+    public long getTokenRefreshCount() {
+        return tokenRefreshes.get();
+    }
+
+    public long getTokenRefreshFailureCount() {
+        return tokenRefreshFailures.get();
+    }
+
+    public void reset() {
+        endpoints.clear();
+        notifications.clear();
+        tokenRefreshes.set(0);
+        tokenRefreshFailures.set(0);
+    }
+
+    /**
+     * Replaces path segments that contain digits (ids, phone numbers) with "{id}", keeping the API version
+     * segment and "~" as they are
+     */
+    public static String endpointTemplate(String path) {
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        StringBuilder template = new StringBuilder(path.length());
+        int start = 0;
+        while (start < path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (isIdSegment(path, start, end)) {
+                template.append("{id}");
+            } else {
+                template.append(path, start, end);
+            }
+            if (end < path.length()) {
+                template.append('/');
+            }
+            start = end + 1;
+        }
+        return template.toString();
+    }
+
+    private static boolean isIdSegment(String path, int start, int end) {
+        if (path.startsWith("v1.0", start) && end - start == 4) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (Character.isDigit(path.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
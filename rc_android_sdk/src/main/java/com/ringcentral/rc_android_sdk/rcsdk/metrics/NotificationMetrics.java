@@ -0,0 +1,104 @@
+package com.ringcentral.rc_android_sdk.rcsdk.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivery-lag histograms for the notifications of one event template, e.g.
+ * "/restapi/v1.0/account/~/extension/{id}/presence".
+ *
+ * The delivery lag runs from the event's server timestamp until the notification was received, and the total
+ * lag on until every listener returned; handling time is the part spent in the listeners. Lags compare the
+ * server clock with the device clock, so clock skew shifts them and negative values count as 0.
+ */
+public class NotificationMetrics {
+
+    private final String event;
+    private final LatencyHistogram deliveryLag = new LatencyHistogram();
+    private final LatencyHistogram handling = new LatencyHistogram();
+    private final LatencyHistogram totalLag = new LatencyHistogram();
+    private final AtomicLong notifications = new AtomicLong();
+    private final AtomicLong withoutTimestamp = new AtomicLong();
+    //Set while the total lag is above the alert threshold
+    private final AtomicBoolean lagging = new AtomicBoolean();
+
+    public NotificationMetrics(String event) {
+        this.event = event;
+    }
+
+    /**
+     * @param deliveryLagMillis Lag until receipt, or -1 if the notification had no timestamp
+     */
+    void record(long deliveryLagMillis, long handlingNanos) {
+        notifications.incrementAndGet();
+        handling.recordNanos(handlingNanos);
+        if (deliveryLagMillis < 0) {
+            withoutTimestamp.incrementAndGet();
+            return;
+        }
+        long deliveryMicros = TimeUnit.MILLISECONDS.toMicros(deliveryLagMillis);
+        deliveryLag.record(deliveryMicros);
+        totalLag.record(deliveryMicros + TimeUnit.NANOSECONDS.toMicros(handlingNanos));
+    }
+
+    /**
+     * @return true if the lagging state changed
+     */
+    boolean setLagging(boolean value) {
+        return lagging.compareAndSet(!value, value);
+    }
+
+    public String getEvent() {
+        return event;
+    }
+
+    /**
+     * Returns the lag from the server timestamp to receipt, in microseconds
+     */
+    public LatencyHistogram getDeliveryLag() {
+        return deliveryLag;
+    }
+
+    /**
+     * Returns the time spent in the listeners, in microseconds
+     */
+    public LatencyHistogram getHandlingTime() {
+        return handling;
+    }
+
+    /**
+     * Returns the lag from the server timestamp until the listeners returned, in microseconds
+     */
+    public LatencyHistogram getTotalLag() {
+        return totalLag;
+    }
+
+    public long getNotificationCount() {
+        return notifications.get();
+    }
+
+    /**
+     * Number of notifications without a server timestamp, which only count towards the handling time
+     */
+    public long getWithoutTimestampCount() {
+        return withoutTimestamp.get();
+    }
+
+    /**
+     * Returns true while the last total lag was above the alert threshold
+     */
+    public boolean isLagging() {
+        return lagging.get();
+    }
+
+    @Override
+    public String toString() {
+        return event
+                + " notifications=" + notifications.get()
+                + " lag.p50=" + deliveryLag.getP50() / 1000 + "ms"
+                + " lag.p99=" + deliveryLag.getP99() / 1000 + "ms"
+                + " lag.max=" + deliveryLag.getMax() / 1000 + "ms"
+                + " handling.p99=" + handling.getP99() + "us";
+    }
+}
@@ -0,0 +1,190 @@
+package com.ringcentral.rc_android_sdk.rcsdk.metrics;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Phase timings of a single request, from the moment it was enqueued until its callback returned.
+ *
+ * Marks are taken with System.nanoTime() and may be set from different threads; a phase whose marks were
+ * never taken is reported as -1.
+ */
+public class RequestTrace {
+
+    final String method;
+    final String url;
+    final long startedAtMillis;
+
+    volatile long enqueuedAt;
+    volatile long dispatchedAt;
+    volatile long networkStartAt;
+    volatile long headersAt;
+    volatile long bodyStartAt;
+    volatile long bodyEndAt;
+    volatile long parseStartAt;
+    volatile long parseEndAt;
+    volatile long finishedAt;
+    volatile int status;
+    volatile String error;
+
+    /**
+     * @param url Request URL, redacted before it is stored
+     */
+    public RequestTrace(String method, String url) {
+        this.method = method;
+        this.url = redact(url);
+        this.startedAtMillis = System.currentTimeMillis();
+        this.enqueuedAt = System.nanoTime();
+    }
+
+    public void markDispatched() {
+        dispatchedAt = System.nanoTime();
+    }
+
+    public void markNetworkStart() {
+        if (networkStartAt == 0) {
+            networkStartAt = System.nanoTime();
+        }
+    }
+
+    public void markHeaders(int status) {
+        this.headersAt = System.nanoTime();
+        this.status = status;
+    }
+
+    public void markBodyStart() {
+        if (bodyStartAt == 0) {
+            bodyStartAt = System.nanoTime();
+        }
+    }
+
+    public void markBodyEnd() {
+        if (bodyEndAt == 0) {
+            bodyEndAt = System.nanoTime();
+        }
+    }
+
+    public void markParseStart() {
+        if (parseStartAt == 0) {
+            parseStartAt = System.nanoTime();
+        }
+    }
+
+    public void markParseEnd() {
+        parseEndAt = System.nanoTime();
+    }
+
+    public void markFailed(Throwable e) {
+        this.error = e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+
+    public void markFinished() {
+        finishedAt = System.nanoTime();
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Time spent waiting in the dispatcher queue before the request started
+     */
+    public long getQueuedMillis() {
+        return between(enqueuedAt, dispatchedAt);
+    }
+
+    /**
+     * Time from dispatch until a connection was ready, covering DNS, TCP and TLS for new connections
+     */
+    public long getConnectMillis() {
+        return between(dispatchedAt, networkStartAt);
+    }
+
+    /**
+     * Time from writing the request on the connection until the response headers arrived
+     */
+    public long getTimeToFirstByteMillis() {
+        return between(networkStartAt, headersAt);
+    }
+
+    public long getBodyReadMillis() {
+        return between(bodyStartAt, bodyEndAt);
+    }
+
+    public long getParseMillis() {
+        long start = Math.max(parseStartAt, bodyEndAt);
+        return parseEndAt >= start ? between(start, parseEndAt) : between(parseStartAt, parseEndAt);
+    }
+
+    public long getTotalMillis() {
+        return between(enqueuedAt, finishedAt);
+    }
+
+    public JSONObject toJson() throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("method", method);
+        json.put("url", url);
+        json.put("startedAt", startedAtMillis);
+        json.put("status", status);
+        if (error != null) {
+            json.put("error", error);
+        }
+        json.put("queuedMs", getQueuedMillis());
+        json.put("connectMs", getConnectMillis());
+        json.put("ttfbMs", getTimeToFirstByteMillis());
+        json.put("bodyReadMs", getBodyReadMillis());
+        json.put("parseMs", getParseMillis());
+        json.put("totalMs", getTotalMillis());
+        return json;
+    }
+
+    private static long between(long start, long end) {
+        if (start == 0 || end == 0 || end < start) {
+            return -1;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(end - start);
+    }
+
+    /**
+     * Replaces the values of token query parameters so that traces can be shared safely
+     */
+    static String redact(String url) {
+        if (url == null) {
+            return null;
+        }
+        int query = url.indexOf('?');
+        if (query < 0) {
+            return url;
+        }
+        StringBuilder redacted = new StringBuilder(url.substring(0, query + 1));
+        String[] params = url.substring(query + 1).split("&");
+        for (int i = 0; i < params.length; i++) {
+            if (i > 0) {
+                redacted.append('&');
+            }
+            String param = params[i];
+            int equals = param.indexOf('=');
+            String name = equals < 0 ? param : param.substring(0, equals);
+            if (name.toLowerCase().contains("token")) {
+                redacted.append(name).append("=REDACTED");
+            } else {
+                redacted.append(param);
+            }
+        }
+        return redacted.toString();
+    }
+}
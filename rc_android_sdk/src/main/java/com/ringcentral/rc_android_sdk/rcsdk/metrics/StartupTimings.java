@@ -0,0 +1,62 @@
+package com.ringcentral.rc_android_sdk.rcsdk.metrics;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durations of the start-up phases of a Platform, in the order they completed.
+ *
+ * Registered as a MetricsListener so that it also captures the latency of the first request and the time
+ * from creation until that first response arrived.
+ */
+public class StartupTimings extends MetricsListener {
+
+    public static final String SDK_INIT = "sdkInit";
+    public static final String CLIENT_INIT = "clientInit";
+    public static final String DNS = "dns";
+    //Round trip of the warm-up request, including the TCP and TLS handshakes
+    public static final String PREWARM = "prewarm";
+    public static final String FIRST_REQUEST = "firstRequest";
+    public static final String TIME_TO_FIRST_RESPONSE = "timeToFirstResponse";
+
+    private final long createdAt = System.nanoTime();
+    private final LinkedHashMap<String, Long> timings = new LinkedHashMap<>();
+    private volatile boolean firstResponseSeen;
+
+    /**
+     * Records the duration of a phase, keeping the first value if the phase is recorded twice
+     */
+    public synchronized void record(String phase, long nanos) {
+        if (!timings.containsKey(phase)) {
+            timings.put(phase, TimeUnit.NANOSECONDS.toMillis(nanos));
+        }
+    }
+
+    /**
+     * Returns a copy of the recorded phase durations in milliseconds
+     */
+    public synchronized Map<String, Long> getTimings() {
+        return new LinkedHashMap<>(timings);
+    }
+
+    @Override
+    public void onResponse(String method, String endpoint, int status, long latencyNanos, long bytesOut) {
+        if (!firstResponseSeen) {
+            firstResponseSeen = true;
+            record(FIRST_REQUEST, latencyNanos);
+            record(TIME_TO_FIRST_RESPONSE, System.nanoTime() - createdAt);
+        }
+    }
+
+    @Override
+    public void onFailure(String method, String endpoint, long latencyNanos, IOException e) {
+        onResponse(method, endpoint, 0, latencyNanos, 0);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return timings.toString();
+    }
+}
@@ -0,0 +1,183 @@
+package com.ringcentral.rc_android_sdk.rcsdk.model;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * A record of the /account/~/call-log or /account/~/extension/~/call-log endpoints
+ */
+public class CallLogRecord {
+
+    public String id;
+    public String uri;
+    public String sessionId;
+    public String startTime;
+    /**
+     * startTime in milliseconds since the epoch
+     */
+    public long startTimeMillis;
+    /**
+     * Duration of the call in seconds
+     */
+    public int duration;
+    public String type;
+    public String direction;
+    public String action;
+    public String result;
+    public CallerInfo from;
+    public CallerInfo to;
+    /**
+     * Id of the extension the record belongs to, only set in account-level call logs
+     */
+    public String extensionId;
+
+    /**
+     * Hand-written adapter, call logs are read in pages of hundreds of records
+     */
+    public static class Adapter extends TypeAdapter<CallLogRecord> {
+
+        @Override
+        public void write(JsonWriter out, CallLogRecord value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("id").value(value.id);
+            out.name("uri").value(value.uri);
+            out.name("sessionId").value(value.sessionId);
+            out.name("startTime").value(value.startTime);
+            out.name("duration").value(value.duration);
+            out.name("type").value(value.type);
+            out.name("direction").value(value.direction);
+            out.name("action").value(value.action);
+            out.name("result").value(value.result);
+            writeCaller(out, "from", value.from);
+            writeCaller(out, "to", value.to);
+            if (value.extensionId != null) {
+                out.name("extension").beginObject().name("id").value(value.extensionId).endObject();
+            }
+            out.endObject();
+        }
+
+        @Override
+        public CallLogRecord read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            CallLogRecord record = new CallLogRecord();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "id":
+                        record.id = in.nextString();
+                        break;
+                    case "uri":
+                        record.uri = in.nextString();
+                        break;
+                    case "sessionId":
+                        record.sessionId = in.nextString();
+                        break;
+                    case "startTime":
+                        record.startTime = in.nextString();
+                        record.startTimeMillis = Iso8601.parse(record.startTime);
+                        break;
+                    case "duration":
+                        record.duration = in.nextInt();
+                        break;
+                    case "type":
+                        record.type = in.nextString();
+                        break;
+                    case "direction":
+                        record.direction = in.nextString();
+                        break;
+                    case "action":
+                        record.action = in.nextString();
+                        break;
+                    case "result":
+                        record.result = in.nextString();
+                        break;
+                    case "from":
+                        record.from = readCaller(in);
+                        break;
+                    case "to":
+                        record.to = readCaller(in);
+                        break;
+                    case "extension":
+                        record.extensionId = readId(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return record;
+        }
+
+        private static void writeCaller(JsonWriter out, String name, CallerInfo caller) throws IOException {
+            if (caller == null) {
+                return;
+            }
+            out.name(name).beginObject();
+            out.name("phoneNumber").value(caller.phoneNumber);
+            out.name("extensionNumber").value(caller.extensionNumber);
+            out.name("name").value(caller.name);
+            out.name("location").value(caller.location);
+            out.endObject();
+        }
+
+        static CallerInfo readCaller(JsonReader in) throws IOException {
+            CallerInfo caller = new CallerInfo();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "phoneNumber":
+                        caller.phoneNumber = in.nextString();
+                        break;
+                    case "extensionNumber":
+                        caller.extensionNumber = in.nextString();
+                        break;
+                    case "name":
+                        caller.name = in.nextString();
+                        break;
+                    case "location":
+                        caller.location = in.nextString();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return caller;
+        }
+
+        static String readId(JsonReader in) throws IOException {
+            String id = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                if (in.nextName().equals("id") && in.peek() != JsonToken.NULL) {
+                    id = in.nextString();
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return id;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.ringcentral.rc_android_sdk.rcsdk.model;
+
+/**
+ * Caller or callee of a call-log record or message
+ */
+public class CallerInfo {
+
+    public String phoneNumber;
+    public String extensionNumber;
+    public String name;
+    public String location;
+
+    public CallerInfo() {
+    }
+
+    public CallerInfo(String phoneNumber) {
+        this.phoneNumber = phoneNumber;
+    }
+}
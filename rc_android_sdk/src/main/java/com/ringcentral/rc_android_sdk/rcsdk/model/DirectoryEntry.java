@@ -0,0 +1,35 @@
+package com.ringcentral.rc_android_sdk.rcsdk.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A company extension or a personal contact of the directory cache
+ */
+public class DirectoryEntry {
+
+    public static final String TYPE_EXTENSION = "Extension";
+    public static final String TYPE_CONTACT = "Contact";
+
+    public String id;
+    /**
+     * TYPE_EXTENSION or TYPE_CONTACT
+     */
+    public String type;
+    public String name;
+    /**
+     * Short extension number, null for contacts
+     */
+    public String extensionNumber;
+    public String email;
+    public final List<String> phoneNumbers = new ArrayList<>();
+
+    public boolean isExtension() {
+        return TYPE_EXTENSION.equals(type);
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + id + " " + name;
+    }
+}
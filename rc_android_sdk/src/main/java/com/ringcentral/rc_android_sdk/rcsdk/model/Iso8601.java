@@ -0,0 +1,117 @@
+package com.ringcentral.rc_android_sdk.rcsdk.model;
+
+/**
+ * Allocation-free parser for the ISO 8601 timestamps used by the API, e.g. "2015-08-10T12:34:56.789Z" or
+ * "2015-08-10T12:34:56+03:00".
+ *
+ * Unlike SimpleDateFormat it is thread-safe, so it can be shared by every parser.
+ */
+public final class Iso8601 {
+
+    private Iso8601() {
+    }
+
+    /**
+     * Returns the timestamp in milliseconds since the epoch, or 0 if it is null or malformed
+     */
+    public static long parse(String value) {
+        if (value == null || value.length() < 19) {
+            return 0;
+        }
+        try {
+            int year = digits(value, 0, 4);
+            int month = digits(value, 5, 2);
+            int day = digits(value, 8, 2);
+            int hour = digits(value, 11, 2);
+            int minute = digits(value, 14, 2);
+            int second = digits(value, 17, 2);
+            int index = 19;
+            int millis = 0;
+            if (index < value.length() && value.charAt(index) == '.') {
+                index++;
+                int scale = 100;
+                while (index < value.length() && Character.isDigit(value.charAt(index))) {
+                    millis += (value.charAt(index) - '0') * scale;
+                    scale /= 10;
+                    index++;
+                }
+            }
+            long offsetMillis = 0;
+            if (index < value.length()) {
+                char sign = value.charAt(index);
+                if (sign == '+' || sign == '-') {
+                    int offsetHours = digits(value, index + 1, 2);
+                    int minutesAt = value.charAt(index + 3) == ':' ? index + 4 : index + 3;
+                    int offsetMinutes = digits(value, minutesAt, 2);
+                    offsetMillis = (offsetHours * 60L + offsetMinutes) * 60000L;
+                    if (sign == '-') {
+                        offsetMillis = -offsetMillis;
+                    }
+                }
+            }
+            long days = daysFromCivil(year, month, day);
+            return ((days * 24 + hour) * 60 + minute) * 60000L + second * 1000L + millis - offsetMillis;
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Formats milliseconds since the epoch as a UTC timestamp, e.g. "2015-08-10T12:34:56.789Z"
+     */
+    public static String format(long millis) {
+        long days = millis >= 0 ? millis / 86400000L : (millis + 1) / 86400000L - 1;
+        long millisOfDay = millis - days * 86400000L;
+        //Inverse of daysFromCivil
+        long z = days + 719468;
+        long era = (z >= 0 ? z : z - 146096) / 146097;
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        StringBuilder builder = new StringBuilder(24);
+        pad(builder, year, 4).append('-');
+        pad(builder, month, 2).append('-');
+        pad(builder, day, 2).append('T');
+        pad(builder, millisOfDay / 3600000, 2).append(':');
+        pad(builder, millisOfDay / 60000 % 60, 2).append(':');
+        pad(builder, millisOfDay / 1000 % 60, 2).append('.');
+        pad(builder, millisOfDay % 1000, 3).append('Z');
+        return builder.toString();
+    }
+
+    private static StringBuilder pad(StringBuilder builder, long value, int width) {
+        String digits = Long.toString(value);
+        for (int i = digits.length(); i < width; i++) {
+            builder.append('0');
+        }
+        return builder.append(digits);
+    }
+
+    private static int digits(String value, int start, int count) {
+        int result = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException(value);
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    /**
+     * Days since 1970-01-01 in the proleptic Gregorian calendar
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        year -= month <= 2 ? 1 : 0;
+        long era = (year >= 0 ? year : year - 399) / 400;
+        long yearOfEra = year - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+}
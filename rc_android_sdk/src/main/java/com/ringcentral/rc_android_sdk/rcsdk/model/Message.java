@@ -0,0 +1,30 @@
+package com.ringcentral.rc_android_sdk.rcsdk.model;
+
+import java.util.List;
+
+/**
+ * A record of the /account/~/extension/~/message-store endpoint, also returned when sending an SMS or fax
+ */
+public class Message {
+
+    public String id;
+    public String uri;
+    public String type;
+    public String direction;
+    public String subject;
+    public String messageStatus;
+    public String readStatus;
+    public String availability;
+    public String creationTime;
+    public String lastModifiedTime;
+    public CallerInfo from;
+    public List<CallerInfo> to;
+    public List<Attachment> attachments;
+
+    public static class Attachment {
+        public String id;
+        public String uri;
+        public String type;
+        public String contentType;
+    }
+}
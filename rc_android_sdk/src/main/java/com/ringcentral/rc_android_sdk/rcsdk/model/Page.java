@@ -0,0 +1,24 @@
+package com.ringcentral.rc_android_sdk.rcsdk.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of a list endpoint: its records plus the "paging" and "navigation" information
+ */
+public class Page<T> {
+
+    public final List<T> records = new ArrayList<>();
+    public int page;
+    public int perPage;
+    public int totalPages;
+    public int totalElements;
+    /**
+     * Uri of the next page, or null on the last page
+     */
+    public String nextPageUri;
+
+    public boolean hasNextPage() {
+        return nextPageUri != null;
+    }
+}
@@ -0,0 +1,95 @@
+package com.ringcentral.rc_android_sdk.rcsdk.model;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Presence of an extension, as returned by the presence endpoint and carried in presence notifications
+ */
+public class Presence {
+
+    public String extensionId;
+    public String presenceStatus;
+    public String telephonyStatus;
+    public String userStatus;
+    public String dndStatus;
+    public String message;
+    /**
+     * Sequence number of the presence event, used to drop out-of-order updates; 0 when unknown
+     */
+    public long sequence;
+
+    /**
+     * Hand-written adapter, presence is parsed for every presence notification
+     */
+    public static class Adapter extends TypeAdapter<Presence> {
+
+        @Override
+        public void write(JsonWriter out, Presence value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("extensionId").value(value.extensionId);
+            out.name("presenceStatus").value(value.presenceStatus);
+            out.name("telephonyStatus").value(value.telephonyStatus);
+            out.name("userStatus").value(value.userStatus);
+            out.name("dndStatus").value(value.dndStatus);
+            out.name("message").value(value.message);
+            out.name("sequence").value(value.sequence);
+            out.endObject();
+        }
+
+        @Override
+        public Presence read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            Presence presence = new Presence();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "extensionId":
+                        presence.extensionId = in.nextString();
+                        break;
+                    case "extension":
+                        presence.extensionId = CallLogRecord.Adapter.readId(in);
+                        break;
+                    case "presenceStatus":
+                        presence.presenceStatus = in.nextString();
+                        break;
+                    case "telephonyStatus":
+                        presence.telephonyStatus = in.nextString();
+                        break;
+                    case "userStatus":
+                        presence.userStatus = in.nextString();
+                        break;
+                    case "dndStatus":
+                        presence.dndStatus = in.nextString();
+                        break;
+                    case "message":
+                        presence.message = in.nextString();
+                        break;
+                    case "sequence":
+                        presence.sequence = in.nextLong();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return presence;
+        }
+    }
+}
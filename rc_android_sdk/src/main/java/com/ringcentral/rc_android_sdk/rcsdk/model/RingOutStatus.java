@@ -0,0 +1,50 @@
+package com.ringcentral.rc_android_sdk.rcsdk.model;
+
+/**
+ * Response of the /ringout endpoints: the RingOut id and the status of the call and of each party
+ */
+public class RingOutStatus {
+
+    public String id;
+    public String uri;
+    public Status status;
+
+    public static class Status {
+        /**
+         * "InProgress" while the parties are being called, "Success" once they are connected, otherwise an error
+         * such as "CannotReach" or "NoAnsweringMachine"
+         */
+        public String callStatus;
+        public String callerStatus;
+        public String calleeStatus;
+
+        public boolean isRinging() {
+            return "InProgress".equals(callStatus);
+        }
+
+        public boolean isConnected() {
+            return "Success".equals(callStatus);
+        }
+
+        /**
+         * Returns true if the call failed and will not change any more
+         */
+        public boolean isFailed() {
+            return callStatus != null && !isRinging() && !isConnected();
+        }
+
+        public boolean sameAs(Status other) {
+            return other != null && equal(callStatus, other.callStatus) && equal(callerStatus, other.callerStatus)
+                    && equal(calleeStatus, other.calleeStatus);
+        }
+
+        private static boolean equal(String a, String b) {
+            return a == null ? b == null : a.equals(b);
+        }
+
+        @Override
+        public String toString() {
+            return callStatus + " (caller " + callerStatus + ", callee " + calleeStatus + ")";
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.ringcentral.rc_android_sdk.rcsdk.model;
+
+import java.util.List;
+
+/**
+ * Response of the /subscription endpoints
+ */
+public class SubscriptionInfo {
+
+    public String id;
+    public String uri;
+    public List<String> eventFilters;
+    public String expirationTime;
+    public int expiresIn;
+    public String status;
+    public String creationTime;
+    public DeliveryMode deliveryMode;
+
+    public static class DeliveryMode {
+        public String transportType;
+        public boolean encryption;
+        public String address;
+        public String subscriberKey;
+        public String secretKey;
+        public String encryptionKey;
+        public String verificationToken;
+    }
+}
@@ -0,0 +1,94 @@
+package com.ringcentral.rc_android_sdk.rcsdk.model;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Response of the /restapi/oauth/token endpoint, with expiries as numbers
+ */
+public class TokenResponse {
+
+    public String accessToken;
+    public String tokenType;
+    public long expiresIn;
+    public String refreshToken;
+    public long refreshTokenExpiresIn;
+    public String scope;
+    public String ownerId;
+    public String endpointId;
+
+    /**
+     * Hand-written adapter for the snake_case token response, avoiding reflection on every refresh
+     */
+    public static class Adapter extends TypeAdapter<TokenResponse> {
+
+        @Override
+        public void write(JsonWriter out, TokenResponse value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("access_token").value(value.accessToken);
+            out.name("token_type").value(value.tokenType);
+            out.name("expires_in").value(value.expiresIn);
+            out.name("refresh_token").value(value.refreshToken);
+            out.name("refresh_token_expires_in").value(value.refreshTokenExpiresIn);
+            out.name("scope").value(value.scope);
+            out.name("owner_id").value(value.ownerId);
+            out.name("endpoint_id").value(value.endpointId);
+            out.endObject();
+        }
+
+        @Override
+        public TokenResponse read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            TokenResponse token = new TokenResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "access_token":
+                        token.accessToken = in.nextString();
+                        break;
+                    case "token_type":
+                        token.tokenType = in.nextString();
+                        break;
+                    case "expires_in":
+                        token.expiresIn = in.nextLong();
+                        break;
+                    case "refresh_token":
+                        token.refreshToken = in.nextString();
+                        break;
+                    case "refresh_token_expires_in":
+                        token.refreshTokenExpiresIn = in.nextLong();
+                        break;
+                    case "scope":
+                        token.scope = in.nextString();
+                        break;
+                    case "owner_id":
+                        token.ownerId = in.nextString();
+                        break;
+                    case "endpoint_id":
+                        token.endpointId = in.nextString();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return token;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.ringcentral.rc_android_sdk.rcsdk.outbox;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+
+/**
+ * Flushes an Outbox when the device gets a network connection, see Outbox.register
+ */
+class ConnectivityReceiver extends BroadcastReceiver {
+
+    private final Outbox outbox;
+
+    ConnectivityReceiver(Outbox outbox) {
+        this.outbox = outbox;
+    }
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        ConnectivityManager manager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        NetworkInfo network = manager.getActiveNetworkInfo();
+        if (network != null && network.isConnected()) {
+            outbox.flush();
+        }
+    }
+}
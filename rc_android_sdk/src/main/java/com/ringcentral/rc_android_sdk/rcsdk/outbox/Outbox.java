@@ -0,0 +1,405 @@
+package com.ringcentral.rc_android_sdk.rcsdk.outbox;
+
+import android.content.Context;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+
+import com.ringcentral.rc_android_sdk.rcsdk.http.ApiException;
+import com.ringcentral.rc_android_sdk.rcsdk.http.Transaction;
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.MetricsRegistry;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.squareup.okhttp.Callback;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.RequestBody;
+import com.squareup.okhttp.Response;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Durable queue of write requests, such as SMS and RingOut, that are sent when the network is available.
+ *
+ * Requests are appended to a log file before they are sent, and a completion record is appended once the
+ * server has answered, so requests survive a crash or restart and are replayed by open(). Each request has
+ * an idempotency key; adding a key that is pending or was recently completed does nothing, so callers can
+ * safely retry an add.
+ *
+ * A request that failed may still have reached the server: the connection can drop or time out after the
+ * request was written, a 5xx can come after the server acted, and the process can die before the completion
+ * record was written. Such requests are sent again, with the key in an Idempotency-Key header so that a server
+ * honoring it applies them once. Against a server that ignores the header, a resend can duplicate the request.
+ *
+ * flush() starts requests in the order they were added, with up to setParallelism requests in flight. A
+ * network failure, 429 or 5xx response stops the flush and leaves the request queued for the next flush;
+ * other 4xx responses drop it. Call register() to flush automatically when connectivity comes back.
+ */
+public class Outbox {
+
+    private static final String SMS_ENDPOINT = "/restapi/v1.0/account/~/extension/~/sms";
+    private static final String RINGOUT_ENDPOINT = "/restapi/v1.0/account/~/extension/~/ringout";
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    //Keys of completed requests kept to reject duplicate adds
+    private static final int COMPLETED_KEYS = 1000;
+    //Completion records written before the log is compacted
+    private static final int COMPACT_AFTER = 256;
+
+    private final Platform platform;
+    private final File file;
+    private final LinkedHashMap<String, OutboxEntry> pending = new LinkedHashMap<>();
+    private final Set<String> inFlight = new HashSet<>();
+    private final LinkedHashSet<String> completed = new LinkedHashSet<>();
+    private OutboxListener listener;
+    private int parallelism = 4;
+    private FileOutputStream out;
+    private Writer writer;
+    private int completionsSinceCompact;
+    //Set when a request was deferred; cleared by the next call to flush()
+    private boolean stalled;
+    private ConnectivityReceiver receiver;
+
+    /**
+     * @param file Log file of this outbox, created if it does not exist
+     */
+    public Outbox(Platform platform, File file) {
+        this.platform = platform;
+        this.file = file;
+    }
+
+    public synchronized void setListener(OutboxListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Maximum number of requests in flight during a flush, 4 by default. Use 1 to also complete requests in order.
+     */
+    public synchronized void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Reads the log, restoring requests that were not completed, and opens it for appending
+     */
+    public synchronized void open() throws IOException {
+        if (writer != null) {
+            return;
+        }
+        if (file.exists()) {
+            replay();
+        }
+        //Rewriting drops completed requests and any torn record at the end
+        compact();
+    }
+
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+            out = null;
+        }
+    }
+
+    /**
+     * Returns the requests not yet completed, in the order they were added
+     */
+    public synchronized List<OutboxEntry> getPending() {
+        return new ArrayList<>(pending.values());
+    }
+
+    /**
+     * Queues an SMS and starts a flush
+     *
+     * @param key Idempotency key, or null to generate one
+     * @return The key of the request
+     */
+    public String sendSMS(String key, String to, String from, String text) throws IOException {
+        try {
+            JSONObject body = new JSONObject();
+            body.put("to", new JSONArray().put(new JSONObject().put("phoneNumber", to)));
+            body.put("from", new JSONObject().put("phoneNumber", from));
+            body.put("text", text);
+            return add(key, "POST", SMS_ENDPOINT, body.toString());
+        } catch (JSONException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Queues a RingOut and starts a flush
+     *
+     * @param key Idempotency key, or null to generate one
+     * @return The key of the request
+     */
+    public String ringOut(String key, String to, String from, String callerId, boolean playPrompt) throws IOException {
+        try {
+            JSONObject body = new JSONObject();
+            body.put("to", new JSONObject().put("phoneNumber", to));
+            body.put("from", new JSONObject().put("phoneNumber", from));
+            body.put("callerId", new JSONObject().put("phoneNumber", callerId));
+            body.put("playPrompt", playPrompt);
+            return add(key, "POST", RINGOUT_ENDPOINT, body.toString());
+        } catch (JSONException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes a request with a JSON body to the log and starts a flush. Returns once the request is on disk.
+     *
+     * @param key Idempotency key, or null to generate one
+     * @return The key of the request
+     */
+    public String add(String key, String method, String url, String jsonBody) throws IOException {
+        if (key == null) {
+            key = UUID.randomUUID().toString();
+        }
+        synchronized (this) {
+            checkOpen();
+            if (pending.containsKey(key) || completed.contains(key)) {
+                return key;
+            }
+            OutboxEntry entry = new OutboxEntry(key, method.toUpperCase(), url, jsonBody, System.currentTimeMillis());
+            try {
+                append(entry.toJson());
+            } catch (JSONException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            pending.put(key, entry);
+        }
+        flush();
+        return key;
+    }
+
+    /**
+     * Starts sending queued requests, resuming after an earlier flush stopped on a failure
+     */
+    public void flush() {
+        synchronized (this) {
+            stalled = false;
+        }
+        drain();
+    }
+
+    /**
+     * Flushes the outbox whenever the device connects to a network, until unregister is called
+     */
+    public synchronized void register(Context context) {
+        if (receiver == null) {
+            receiver = new ConnectivityReceiver(this);
+            context.getApplicationContext().registerReceiver(receiver, new IntentFilter(ConnectivityManager.CONNECTIVITY_ACTION));
+        }
+    }
+
+    public synchronized void unregister(Context context) {
+        if (receiver != null) {
+            context.getApplicationContext().unregisterReceiver(receiver);
+            receiver = null;
+        }
+    }
+
+    private void drain() {
+        List<OutboxEntry> toSend = new ArrayList<>();
+        synchronized (this) {
+            if (writer == null || stalled) {
+                return;
+            }
+            for (OutboxEntry entry : pending.values()) {
+                if (inFlight.size() >= parallelism) {
+                    break;
+                }
+                if (inFlight.add(entry.key)) {
+                    entry.attempts++;
+                    toSend.add(entry);
+                }
+            }
+        }
+        //Sent outside the lock, sendRequest may call back synchronously
+        for (OutboxEntry entry : toSend) {
+            send(entry);
+        }
+    }
+
+    private void send(final OutboxEntry entry) {
+        if (entry.attempts > 1) {
+            MetricsRegistry metrics = platform.getMetrics();
+            metrics.recordRetry(metrics.getEndpoint(entry.method, entry.url));
+        }
+        HashMap<String, String> headers = new HashMap<>();
+        headers.put(IDEMPOTENCY_KEY, entry.key);
+        RequestBody body = RequestBody.create(Platform.JSON_TYPE_MARKDOWN, entry.body);
+        platform.sendRequest(entry.method, entry.url, body, headers, new Callback() {
+            @Override
+            public void onFailure(Request request, IOException e) {
+                defer(entry, e);
+            }
+
+            @Override
+            public void onResponse(Response response) throws IOException {
+                int status = response.code();
+                if (response.isSuccessful()) {
+                    complete(entry);
+                    OutboxListener listener = getListener();
+                    if (listener != null) {
+                        listener.onSent(entry, new Transaction(response));
+                    } else {
+                        response.body().close();
+                    }
+                } else if (status == 429 || status >= 500) {
+                    response.body().close();
+                    defer(entry, new ApiException(status, response.message(), null));
+                } else {
+                    ApiException e = new ApiException(status, response.message(), response.body().string());
+                    complete(entry);
+                    OutboxListener listener = getListener();
+                    if (listener != null) {
+                        listener.onRejected(entry, e);
+                    }
+                }
+                drain();
+            }
+        });
+    }
+
+    private synchronized OutboxListener getListener() {
+        return listener;
+    }
+
+    private void defer(OutboxEntry entry, IOException e) {
+        OutboxListener listener;
+        synchronized (this) {
+            inFlight.remove(entry.key);
+            stalled = true;
+            listener = this.listener;
+        }
+        if (listener != null) {
+            listener.onDeferred(entry, e);
+        }
+    }
+
+    private synchronized void complete(OutboxEntry entry) {
+        inFlight.remove(entry.key);
+        if (pending.remove(entry.key) == null) {
+            return;
+        }
+        remember(entry.key);
+        try {
+            JSONObject record = new JSONObject();
+            record.put("op", "done");
+            record.put("key", entry.key);
+            append(record);
+            if (++completionsSinceCompact >= COMPACT_AFTER) {
+                compact();
+            }
+        } catch (Exception e) {
+            //The request is done; at worst it is sent again after a restart
+            e.printStackTrace();
+        }
+    }
+
+    private void remember(String key) {
+        completed.add(key);
+        if (completed.size() > COMPLETED_KEYS) {
+            Iterator<String> oldest = completed.iterator();
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    private void replay() throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.length() == 0) {
+                    continue;
+                }
+                JSONObject record;
+                try {
+                    record = new JSONObject(line);
+                } catch (JSONException e) {
+                    //A record torn by a crash while it was written, nothing after it was acknowledged
+                    break;
+                }
+                String key = record.optString("key");
+                if ("add".equals(record.optString("op"))) {
+                    try {
+                        pending.put(key, OutboxEntry.fromJson(record));
+                    } catch (JSONException e) {
+                        e.printStackTrace();
+                    }
+                } else {
+                    pending.remove(key);
+                    remember(key);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Rewrites the log with only the pending requests and the remembered completion keys
+     */
+    private void compact() throws IOException {
+        close();
+        File temp = new File(file.getPath() + ".tmp");
+        FileOutputStream tempOut = new FileOutputStream(temp);
+        Writer tempWriter = new OutputStreamWriter(tempOut, "UTF-8");
+        try {
+            for (String key : completed) {
+                JSONObject record = new JSONObject();
+                record.put("op", "done");
+                record.put("key", key);
+                tempWriter.write(record.toString());
+                tempWriter.write('\n');
+            }
+            for (OutboxEntry entry : pending.values()) {
+                tempWriter.write(entry.toJson().toString());
+                tempWriter.write('\n');
+            }
+            tempWriter.flush();
+            tempOut.getFD().sync();
+        } catch (JSONException e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            tempWriter.close();
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("Could not replace " + file);
+        }
+        out = new FileOutputStream(file, true);
+        writer = new OutputStreamWriter(out, "UTF-8");
+        completionsSinceCompact = 0;
+    }
+
+    private void append(JSONObject record) throws IOException {
+        writer.write(record.toString());
+        writer.write('\n');
+        writer.flush();
+        out.getFD().sync();
+    }
+
+    private void checkOpen() throws IOException {
+        if (writer == null) {
+            throw new IOException("Outbox is not open");
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.ringcentral.rc_android_sdk.rcsdk.outbox;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * A write request waiting in an Outbox
+ */
+public class OutboxEntry {
+
+    final String key;
+    final String method;
+    final String url;
+    final String body;
+    final long createdAt;
+    //Times the request was sent since the outbox was opened, not persisted
+    int attempts;
+
+    OutboxEntry(String key, String method, String url, String body, long createdAt) {
+        this.key = key;
+        this.method = method;
+        this.url = url;
+        this.body = body;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Idempotency key of the request, unique within its outbox and sent in the Idempotency-Key header
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * JSON body of the request
+     */
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * Time the request was added to the outbox, in epoch milliseconds
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    JSONObject toJson() throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("op", "add");
+        json.put("key", key);
+        json.put("method", method);
+        json.put("url", url);
+        json.put("body", body);
+        json.put("createdAt", createdAt);
+        return json;
+    }
+
+    static OutboxEntry fromJson(JSONObject json) throws JSONException {
+        return new OutboxEntry(json.getString("key"), json.getString("method"), json.getString("url"),
+                json.getString("body"), json.optLong("createdAt"));
+    }
+}
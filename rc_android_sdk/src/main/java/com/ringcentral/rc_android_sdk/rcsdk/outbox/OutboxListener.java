@@ -0,0 +1,33 @@
+package com.ringcentral.rc_android_sdk.rcsdk.outbox;
+
+import com.ringcentral.rc_android_sdk.rcsdk.http.ApiException;
+import com.ringcentral.rc_android_sdk.rcsdk.http.Transaction;
+
+import java.io.IOException;
+
+/**
+ * Receives the outcomes of an Outbox's requests.
+ *
+ * Methods are called from OkHttp threads, possibly concurrently. Override only the methods you need.
+ */
+public abstract class OutboxListener {
+
+    /**
+     * Called when a request succeeded and was removed from the outbox. The response body is unread.
+     */
+    public void onSent(OutboxEntry entry, Transaction transaction) {
+    }
+
+    /**
+     * Called when the server rejected a request with a 4xx status; it is removed from the outbox and not retried
+     */
+    public void onRejected(OutboxEntry entry, ApiException e) {
+    }
+
+    /**
+     * Called when a request could not be sent for now and flushing stopped. It stays in the outbox and is sent
+     * on the next flush.
+     */
+    public void onDeferred(OutboxEntry entry, IOException e) {
+    }
+}
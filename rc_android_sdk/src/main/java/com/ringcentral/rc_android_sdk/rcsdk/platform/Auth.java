@@ -1,123 +1,174 @@
 package com.ringcentral.rc_android_sdk.rcsdk.platform;
 
+import com.ringcentral.rc_android_sdk.rcsdk.model.TokenResponse;
+
 import java.io.Serializable;
-import java.util.Calendar;
-import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.Map;
 
 /**
  * Created by andrew.pang on 6/25/15.
+ *
+ * Tokens are replaced from OkHttp threads when a refresh completes while other threads read them, so they
+ * are kept in an immutable snapshot published through a volatile field. Reads are lock-free and always see
+ * the token type, access token and expiries of the same token response; writes are serialized.
  */
 public class Auth implements Serializable{
 
-    String token_type;
-
-    String access_token;
-    String expires_in;
-    Date expire_time;
-
-    String refresh_token;
-    String refresh_token_expires_in;
-    Date refresh_token_expire_time;
-
-    String scope;
-    String owner_id;
+    private volatile Tokens tokens = new Tokens();
+
+    /**
+     * One consistent set of token values; a change copies it
+     */
+    private static final class Tokens implements Serializable {
+        String token_type = "";
+
+        String access_token = "";
+        String expires_in = "";
+        //Milliseconds since the epoch, 0 when unknown
+        long expire_time;
+
+        String refresh_token = "";
+        String refresh_token_expires_in = "";
+        long refresh_token_expire_time;
+
+        String scope = "";
+        String owner_id = "";
+
+        Tokens copy() {
+            Tokens copy = new Tokens();
+            copy.token_type = token_type;
+            copy.access_token = access_token;
+            copy.expires_in = expires_in;
+            copy.expire_time = expire_time;
+            copy.refresh_token = refresh_token;
+            copy.refresh_token_expires_in = refresh_token_expires_in;
+            copy.refresh_token_expire_time = refresh_token_expire_time;
+            copy.scope = scope;
+            copy.owner_id = owner_id;
+            return copy;
+        }
+    }
 
     public Auth(){
-        token_type = "";
-        access_token = "";
-        expires_in = "";
-        expire_time = null;
-        refresh_token = "";
-        refresh_token_expires_in = "";
-        refresh_token_expire_time = null;
-        scope = "";
-        owner_id = "";
     }
 
-    public void setData(Map<String, String> authData) {
+    public synchronized void setData(Map<String, String> authData) {
+        Tokens next = tokens.copy();
         // Misc
         if (authData.containsKey("token_type")) {
-            this.token_type = authData.get("token_type");
+            next.token_type = authData.get("token_type");
         }
         if (authData.containsKey("scope")) {
-            this.scope = authData.get("scope");
+            next.scope = authData.get("scope");
         }
         if (authData.containsKey("owner_id")) {
-            this.owner_id = authData.get("owner_id");
+            next.owner_id = authData.get("owner_id");
         }
         // Access Token
         if (authData.containsKey("access_token")) {
-            this.access_token = authData.get("access_token");
+            next.access_token = authData.get("access_token");
         }
         if (authData.containsKey("expires_in")) {
-            this.expires_in = authData.get("expires_in");
+            next.expires_in = authData.get("expires_in");
         }
         if (!authData.containsKey("expire_time") && authData.containsKey("expires_in")) {
             int expiresIn = Integer.parseInt(authData.get("expires_in"));
-            Calendar calendar = new GregorianCalendar();
-            calendar.add(Calendar.SECOND, expiresIn);
-            this.expire_time = calendar.getTime();
+            next.expire_time = System.currentTimeMillis() + expiresIn * 1000L;
         }
         // Refresh Token
         if (authData.containsKey("refresh_token")) {
-            this.refresh_token = authData.get("refresh_token");
+            next.refresh_token = authData.get("refresh_token");
         }
         if (authData.containsKey("refresh_token_expires_in")) {
-            this.refresh_token_expires_in = authData.get("refresh_token_expires_in");
+            next.refresh_token_expires_in = authData.get("refresh_token_expires_in");
         }
         if (!authData.containsKey("refresh_token_expire_time") && authData.containsKey("refresh_token_expires_in")) {
             int expiresIn = Integer.parseInt(authData.get("refresh_token_expires_in"));
-            Calendar calendar = new GregorianCalendar();
-            calendar.add(Calendar.SECOND, expiresIn);
-            this.refresh_token_expire_time = calendar.getTime();
+            next.refresh_token_expire_time = System.currentTimeMillis() + expiresIn * 1000L;
         }
+        tokens = next;
+    }
+
+    /**
+     * Sets the auth data from a parsed token response, whose expiries are already numbers
+     */
+    public synchronized void setData(TokenResponse token) {
+        Tokens next = tokens.copy();
+        if (token.tokenType != null) {
+            next.token_type = token.tokenType;
+        }
+        if (token.scope != null) {
+            next.scope = token.scope;
+        }
+        if (token.ownerId != null) {
+            next.owner_id = token.ownerId;
+        }
+        if (token.accessToken != null) {
+            next.access_token = token.accessToken;
+            next.expires_in = String.valueOf(token.expiresIn);
+            next.expire_time = System.currentTimeMillis() + token.expiresIn * 1000L;
+        }
+        if (token.refreshToken != null) {
+            next.refresh_token = token.refreshToken;
+            next.refresh_token_expires_in = String.valueOf(token.refreshTokenExpiresIn);
+            next.refresh_token_expire_time = System.currentTimeMillis() + token.refreshTokenExpiresIn * 1000L;
+        }
+        tokens = next;
     }
 
     public Auth getData(){
         return this;
     }
 
-    public void reset(){
-        this.token_type = "";
-        this.access_token = "";
-        this.expires_in = "";
-        this.expire_time = null;
-        this.refresh_token = "";
-        this.refresh_token_expires_in = "";
-        this.refresh_token_expire_time = null;
-        this.scope = "";
-        this.owner_id = "";
+    public synchronized void reset(){
+        tokens = new Tokens();
     }
 
     public String getAccessToken(){
-        return this.access_token;
+        return tokens.access_token;
     }
 
     public String getRefreshToken(){
-        return this.refresh_token;
+        return tokens.refresh_token;
     }
 
     public String getTokenType(){
-        return this.token_type;
+        return tokens.token_type;
+    }
+
+    /**
+     * Returns the id of the extension the tokens were issued to, "" when unknown
+     */
+    public String getOwnerId(){
+        return tokens.owner_id;
     }
 
+    /**
+     * Returns the Authorization header value, built from a single snapshot so the token type and access token
+     * always belong together
+     */
+    public String getAuthHeader(){
+        Tokens current = tokens;
+        return current.token_type + " " + current.access_token;
+    }
+
+    /**
+     * Returns false if the access token expired or was never set
+     */
     public boolean isAccessTokenValid(){
-        GregorianCalendar cal = new GregorianCalendar();
-        cal.setTime(this.expire_time);
-        return isTokenDateValid(cal);
+        return isTokenTimeValid(tokens.expire_time);
     }
 
     public boolean isRefreshTokenValid(){
-        GregorianCalendar cal = new GregorianCalendar();
-        cal.setTime(this.refresh_token_expire_time);
-        return isTokenDateValid(cal);
+        return isTokenTimeValid(tokens.refresh_token_expire_time);
     }
 
     public boolean isTokenDateValid(GregorianCalendar token_date){
         return (token_date.compareTo(new GregorianCalendar()) > 0);
     }
 
-
+    private static boolean isTokenTimeValid(long expireTime) {
+        return expireTime != 0 && expireTime > System.currentTimeMillis();
+    }
 }
@@ -1,9 +1,23 @@
 package com.ringcentral.rc_android_sdk.rcsdk.platform;
 
+import com.ringcentral.rc_android_sdk.rcsdk.http.ApiFuture;
+import com.ringcentral.rc_android_sdk.rcsdk.http.ResponseFuture;
+import com.ringcentral.rc_android_sdk.rcsdk.http.Transaction;
+import com.ringcentral.rc_android_sdk.rcsdk.sms.BulkSmsJob;
+import com.ringcentral.rc_android_sdk.rcsdk.sms.BulkSmsListener;
+import com.ringcentral.rc_android_sdk.rcsdk.sms.SmsMessage;
 import com.squareup.okhttp.Callback;
 
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 
 /**
  * Created by andrew.pang on 8/10/15.
@@ -18,6 +32,14 @@ public class Helpers extends Platform {
         super(appKey, appSecret, server);
     }
 
+    /**
+     * Creates Helpers for an existing session, sharing its tokens, HTTP client and subscription with the
+     * session's Platform
+     */
+    public Helpers(Session session) {
+        super(session);
+    }
+
     /**
      * GET Account Info API call
      *
@@ -31,6 +53,7 @@ public class Helpers extends Platform {
             this.get(url, headers, c);
         } catch (Exception e) {
             e.printStackTrace();
+            c.onFailure(null, new IOException(e.getMessage(), e));
         }
     }
 
@@ -47,6 +70,7 @@ public class Helpers extends Platform {
             this.get(url, callLogHeaders, c);
         } catch (Exception e) {
             e.printStackTrace();
+            c.onFailure(null, new IOException(e.getMessage(), e));
         }
     }
 
@@ -64,6 +88,7 @@ public class Helpers extends Platform {
             this.get(url, messageStoreHeaders, c);
         } catch (Exception e) {
             e.printStackTrace();
+            c.onFailure(null, new IOException(e.getMessage(), e));
         }
     }
 
@@ -98,13 +123,108 @@ public class Helpers extends Platform {
      */
     public void sendSMS(String to, String from, String message, Callback c) {
         LinkedHashMap<String, String> body = new LinkedHashMap<>();
-        body.put("\"to\"", "[{\"phoneNumber\": \"" + to + "\"}]");
-        body.put("\"from\"", "{\"phoneNumber\": \"" + from + "\"}");
-        body.put("\"text\"", "\"" + message + "\"");
+        body.put("\"to\"", "[{\"phoneNumber\": " + JSONObject.quote(to) + "}]");
+        body.put("\"from\"", "{\"phoneNumber\": " + JSONObject.quote(from) + "}");
+        body.put("\"text\"", JSONObject.quote(message));
         HashMap<String, String> headers = new HashMap<>();
         String url = "/restapi/v1.0/account/~/extension/~/sms";
         headers.put("Content-Type", "application/json");
         this.post(url, body, headers, c);
     }
 
+    /**
+     * Fax API call using a multipart POST request. Attachments are streamed from disk while the request is
+     * written, so large documents are never held in memory.
+     *
+     * @param to            Fax number sending to
+     * @param coverPageText Text for the cover page, or null for none
+     * @param attachments   Documents to fax
+     * @param c
+     */
+    public void sendFax(String to, String coverPageText, List<File> attachments, Callback c) {
+        String json;
+        try {
+            JSONObject body = new JSONObject();
+            body.put("to", new JSONArray().put(new JSONObject().put("phoneNumber", to)));
+            if (coverPageText != null) {
+                body.put("coverPageText", coverPageText);
+            }
+            json = body.toString();
+        } catch (JSONException e) {
+            c.onFailure(null, new IOException(e.getMessage(), e));
+            return;
+        }
+        HashMap<String, String> headers = new HashMap<>();
+        String url = "/restapi/v1.0/account/~/extension/~/fax";
+        this.sendRequest("POST", url, this.multipartBody(json, attachments), headers, c);
+    }
+
+    /**
+     * GET Account Info API call, returning a future of the response
+     */
+    public ApiFuture<Transaction> accountInfo() {
+        ResponseFuture future = new ResponseFuture();
+        accountInfo(future);
+        return future;
+    }
+
+    /**
+     * GET Call Log API call, returning a future of the response
+     */
+    public ApiFuture<Transaction> callLog() {
+        ResponseFuture future = new ResponseFuture();
+        callLog(future);
+        return future;
+    }
+
+    /**
+     * GET Message Store API call, returning a future of the response
+     */
+    public ApiFuture<Transaction> messageStore() {
+        ResponseFuture future = new ResponseFuture();
+        messageStore(future);
+        return future;
+    }
+
+    /**
+     * RingOut API call, returning a future of the response
+     */
+    public ApiFuture<Transaction> ringOut(String to, String from, String callerId, String hasPrompt) {
+        ResponseFuture future = new ResponseFuture();
+        ringOut(to, from, callerId, hasPrompt, future);
+        return future;
+    }
+
+    /**
+     * SMS API call, returning a future of the response
+     */
+    public ApiFuture<Transaction> sendSMS(String to, String from, String message) {
+        ResponseFuture future = new ResponseFuture();
+        sendSMS(to, from, message, future);
+        return future;
+    }
+
+    /**
+     * Fax API call, returning a future of the response
+     */
+    public ApiFuture<Transaction> sendFax(String to, String coverPageText, List<File> attachments) {
+        ResponseFuture future = new ResponseFuture();
+        sendFax(to, coverPageText, attachments, future);
+        return future;
+    }
+
+    /**
+     * Sends a stream of SMS messages with the default concurrency and rate limit, reporting each outcome to the
+     * listener. To change the limits or resume an earlier job, create and start a BulkSmsJob directly.
+     *
+     * @param messages Messages to send, read lazily
+     * @param listener Receives the result of each message
+     * @return The started job
+     */
+    public BulkSmsJob sendBulkSMS(Iterator<SmsMessage> messages, BulkSmsListener listener) {
+        BulkSmsJob job = new BulkSmsJob(this, messages, listener);
+        job.start();
+        return job;
+    }
+
 }
\ No newline at end of file
@@ -3,10 +3,28 @@ package com.ringcentral.rc_android_sdk.rcsdk.platform;
 import android.util.Base64;
 
 import com.pubnub.api.PubnubError;
+import com.ringcentral.rc_android_sdk.rcsdk.directory.DirectoryCache;
+import com.ringcentral.rc_android_sdk.rcsdk.http.ApiFuture;
+import com.ringcentral.rc_android_sdk.rcsdk.http.DownloadCallback;
+import com.ringcentral.rc_android_sdk.rcsdk.http.RequestContext;
+import com.ringcentral.rc_android_sdk.rcsdk.http.RequestGroup;
+import com.ringcentral.rc_android_sdk.rcsdk.http.RequestOptions;
+import com.ringcentral.rc_android_sdk.rcsdk.http.ResponseFuture;
+import com.ringcentral.rc_android_sdk.rcsdk.http.StreamingDownload;
+import com.ringcentral.rc_android_sdk.rcsdk.http.TracingCallback;
 import com.ringcentral.rc_android_sdk.rcsdk.http.Transaction;
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.FlightRecorder;
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.MetricsRegistry;
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.StartupTimings;
+import com.ringcentral.rc_android_sdk.rcsdk.model.TokenResponse;
+import com.ringcentral.rc_android_sdk.rcsdk.presence.PresenceCache;
 import com.ringcentral.rc_android_sdk.rcsdk.subscription.Subscription;
+import com.ringcentral.rc_android_sdk.rcsdk.subscription.SubscriptionManager;
+import com.squareup.okhttp.Call;
 import com.squareup.okhttp.Callback;
+import com.squareup.okhttp.Headers;
 import com.squareup.okhttp.MediaType;
+import com.squareup.okhttp.MultipartBuilder;
 import com.squareup.okhttp.OkHttpClient;
 import com.squareup.okhttp.Request;
 import com.squareup.okhttp.RequestBody;
@@ -15,29 +33,33 @@ import com.squareup.okhttp.Response;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.URL;
+import java.net.URLConnection;
 import java.net.URLEncoder;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+import okio.Sink;
+
 /**
  * Created by andrew.pang on 8/13/15.
  */
 public class Platform implements Serializable {
-    String appKey;
-    String appSecret;
-    String server;
-    String account = "~";
+    final Session session;
     public Auth auth;
-    Subscription subscription;
 
     public static final MediaType MEDIA_TYPE_MARKDOWN
             = MediaType.parse("application/x-www-form-urlencoded; charset=utf-8");
     public static final MediaType JSON_TYPE_MARKDOWN
             = MediaType.parse("application/json; charset=utf-8");
+    //Used for string bodies passed to apiCall, use multipartBody for files which generates a unique boundary
     public static final MediaType MULTI_TYPE_MARKDOWN
             = MediaType.parse("multipart/mixed; boundary=Boundary_1_14413901_1361871080888");
 
@@ -46,22 +68,125 @@ public class Platform implements Serializable {
      * @param server Pass in either "SANDBOX" or "PRODUCTION"
      */
     public Platform(String appKey, String appSecret, String server){
-        this.appKey = appKey;
-        this.appSecret = appSecret;
-        this.auth = new Auth();
-        if(server.toUpperCase().equals("SANDBOX")){
-            this.server = "https://platform.devtest.ringcentral.com";
-        }
-        else if(server.toUpperCase().equals("PRODUCTION")){
-            this.server = "https://platform.ringcentral.com";
+        this(new Session(appKey, appSecret, server));
+    }
+
+    /**
+     * Creates a Platform for an existing session, sharing its tokens, HTTP client and subscription
+     */
+    public Platform(Session session){
+        this.session = session;
+        this.auth = session.getAuth();
+    }
+
+    public Session getSession() {
+        return session;
+    }
+
+    /**
+     * Returns the subscription of this platform's session
+     */
+    public Subscription getSubscription() {
+        return session.getSubscription();
+    }
+
+    /**
+     * Returns the manager that serves every subscriber of this platform's session from one server subscription
+     */
+    public SubscriptionManager getSubscriptionManager() {
+        synchronized (session) {
+            if (session.subscriptionManager == null) {
+                session.subscriptionManager = new SubscriptionManager(this, session.getSubscription());
+                //Renew a subscription restored with the session instead of creating another one
+                if (!session.getSubscription().id.equals("")) {
+                    session.subscriptionManager.resume();
+                }
+            }
+            return session.subscriptionManager;
         }
-        else{
-            this.server = server;
+    }
+
+    /**
+     * Returns the directory cache of this platform's session, kept current by notifications for its event
+     * filters, which are added to the subscription manager's server subscription. Call it after authorizing,
+     * then call fill() on the cache once.
+     */
+    public DirectoryCache getDirectoryCache() {
+        synchronized (session) {
+            if (session.directoryCache == null) {
+                session.directoryCache = new DirectoryCache(this);
+                getSubscriptionManager().register(session.directoryCache, DirectoryCache.EVENT_FILTERS);
+            }
+            return session.directoryCache;
         }
     }
 
-    public Subscription getSubscription() {
-        return subscription;
+    /**
+     * Returns the presence cache of this platform's session, fed by the notifications of getSubscription()
+     */
+    public PresenceCache getPresenceCache() {
+        return session.getPresenceCache();
+    }
+
+    /**
+     * Returns the request metrics recorded for this platform's API calls
+     */
+    public MetricsRegistry getMetrics() {
+        return session.getMetrics();
+    }
+
+    /**
+     * Returns the durations of start-up phases such as client creation, prewarming and the first request
+     */
+    public StartupTimings getStartupTimings() {
+        return session.getStartupTimings();
+    }
+
+    /**
+     * Returns the recorder holding phase timings of slow and sampled requests
+     */
+    public FlightRecorder getFlightRecorder() {
+        return session.getFlightRecorder();
+    }
+
+    /**
+     * Returns the OkHttpClient shared by all of this session's requests, so they reuse one connection pool
+     */
+    public OkHttpClient getClient() {
+        return session.getClient();
+    }
+
+    /**
+     * Resolves the server's host and opens a connection to it on a background thread, so the DNS lookup and the
+     * TCP and TLS handshakes are done before the first authorize call. The connection is kept in the shared
+     * connection pool for the first request to reuse.
+     */
+    public void prewarm() {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                StartupTimings timings = getStartupTimings();
+                String server = session.getServer();
+                //Use a copy of the client without interceptors, it shares the connection pool
+                OkHttpClient warmClient = getClient().clone();
+                warmClient.interceptors().clear();
+                warmClient.networkInterceptors().clear();
+                try {
+                    long start = System.nanoTime();
+                    InetAddress.getAllByName(new URL(server).getHost());
+                    timings.record(StartupTimings.DNS, System.nanoTime() - start);
+                    start = System.nanoTime();
+                    Request request = new Request.Builder().url(server).head().build();
+                    Response response = warmClient.newCall(request).execute();
+                    response.body().close();
+                    timings.record(StartupTimings.PREWARM, System.nanoTime() - start);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }, "rc-prewarm");
+        thread.setDaemon(true);
+        thread.start();
     }
 
     /**
@@ -73,24 +198,54 @@ public class Platform implements Serializable {
         this.auth.setData(authData);
     }
 
+    /**
+     * Sets authentication data for platform's auth from a typed token response
+     *
+     * @param token The parsed authentication response, see Transaction.getTokenResponse()
+     */
+    public void setAuthData(TokenResponse token){
+        this.auth.setData(token);
+    }
+
     public Auth getAuthData(){
         return auth.getData();
     }
 
     public void setServer(String server) {
-        this.server = server;
+        session.setServer(server);
     }
 
     public String getServer() {
-        return server;
+        return session.getServer();
+    }
+
+    /**
+     * Sets servers to fail over to, in order of preference, while the primary server is down
+     */
+    public void setAlternateServers(String... servers) {
+        session.setAlternateServers(servers);
+    }
+
+    /**
+     * Gzips request bodies of at least minBytes, e.g. bulk POST and PUT payloads. Off by default; 0 turns it
+     * off again. The server must accept gzipped bodies.
+     */
+    public void setRequestCompression(long minBytes) {
+        session.setRequestCompression(minBytes);
+    }
+
+    /**
+     * Offers the server to gzip responses, which are decoded before they reach the callback. On by default.
+     */
+    public void setResponseCompression(boolean enabled) {
+        session.setResponseCompression(enabled);
     }
 
     /**
      * Sets the app credentials which are the appKey and appSecret
      */
     public void setAppCredentials(String appKey, String appSecret){
-        this.appKey = appKey;
-        this.appSecret = appSecret;
+        session.setAppCredentials(appKey, appSecret);
     }
 
     /**
@@ -99,8 +254,8 @@ public class Platform implements Serializable {
      */
     public HashMap<String, String> getAppCredentials(){
         HashMap<String, String> appCredentials = new HashMap<>();
-        appCredentials.put("appKey", this.appKey);
-        appCredentials.put("appSecret", this.appSecret);
+        appCredentials.put("appKey", session.getAppKey());
+        appCredentials.put("appSecret", session.getAppSecret());
         return appCredentials;
     }
 
@@ -119,7 +274,7 @@ public class Platform implements Serializable {
      * @return
      */
     public String getApiKey(){
-        String keySec = appKey + ":" + appSecret;
+        String keySec = session.getAppKey() + ":" + session.getAppSecret();
         byte[] message = new byte[0];
         try {
             message = keySec.getBytes("UTF-8");
@@ -137,7 +292,7 @@ public class Platform implements Serializable {
      * @return
      */
     public String getAuthHeader(){
-        return this.auth.getTokenType() + " " + this.getAccessToken();
+        return this.auth.getAuthHeader();
     }
 
     /**
@@ -149,14 +304,14 @@ public class Platform implements Serializable {
         String builtUrl = "";
         boolean has_http = url.contains("http://") || url.contains("https://");
         if(options.containsKey("addServer") && !has_http){
-            builtUrl += this.server;
+            builtUrl += session.getServer();
         }
         if(!(url.contains("/restapi")) && !has_http){
             builtUrl += "/restapi" + "/" + "v1.0";
         }
 
         if(url.contains("/account/")){
-            builtUrl = builtUrl.replace("/account/" + "~", "/account/" + this.account);
+            builtUrl = builtUrl.replace("/account/" + "~", "/account/" + session.getAccount());
         }
 
         builtUrl += url;
@@ -246,61 +401,167 @@ public class Platform implements Serializable {
     /**
      * Method used for API calls, with the request type, body, headers, and callback as parameters.
      *
+     * @return The enqueued call, or null if the request could not be made, in which case the callback's
+     * onFailure has already been called
      */
-    public void apiCall(String method, String url, LinkedHashMap<String, String> body, HashMap<String, String> headerMap, Callback callback) {
+    public Call apiCall(String method, String url, LinkedHashMap<String, String> body, HashMap<String, String> headerMap, Callback callback) {
+        return this.apiCall(method, url, body, headerMap, null, callback);
+    }
+
+    /**
+     * Method used for API calls, with a deadline, group or tag given by the options
+     *
+     * @return The enqueued call, or null if the request could not be made, in which case the callback's
+     * onFailure has already been called
+     */
+    public Call apiCall(String method, String url, LinkedHashMap<String, String> body, HashMap<String, String> headerMap,
+                        RequestOptions options, Callback callback) {
+        RequestBody requestBody = null;
+        if (method.toUpperCase().equals("POST") || method.toUpperCase().equals("PUT")) {
+            //For POST and PUT requests, find and set what MediaType the body is
+            MediaType mediaType;
+            if (headerMap.containsValue("application/json")) {
+                mediaType = JSON_TYPE_MARKDOWN;
+            } else if (headerMap.containsValue("multipart/mixed")) {
+                mediaType = MULTI_TYPE_MARKDOWN;
+            } else {
+                mediaType = MEDIA_TYPE_MARKDOWN;
+            }
+            requestBody = RequestBody.create(mediaType, getBodyString(body, mediaType));
+        }
+        return this.sendRequest(method, url, requestBody, headerMap, options, callback);
+    }
+
+    /**
+     * Makes an authorized API call with a prepared RequestBody, such as a streamed file or a multipart body.
+     * Pass a null body for GET and DELETE requests.
+     *
+     * @return The enqueued call, or null if the request could not be made, in which case the callback's
+     * onFailure has already been called
+     */
+    public Call sendRequest(String method, String url, RequestBody requestBody, HashMap<String, String> headerMap, Callback callback) {
+        return this.sendRequest(method, url, requestBody, headerMap, null, callback);
+    }
+
+    /**
+     * Makes an authorized API call with a prepared RequestBody, and a deadline, group or tag given by the
+     * options. A request whose deadline passes fails with a DeadlineExceededException; one that is cancelled
+     * fails with IOException("Canceled").
+     *
+     * @return The enqueued call, or null if the request could not be made, in which case the callback's
+     * onFailure has already been called
+     */
+    public Call sendRequest(String method, String url, RequestBody requestBody, HashMap<String, String> headerMap,
+                            RequestOptions options, Callback callback) {
         try {
-            OkHttpClient client = new OkHttpClient();
+            OkHttpClient client = getClient();
             //Check if the Platform is authorized, and add the authorization header
             this.isAuthorized();
             headerMap.put("Authorization", this.getAuthHeader());
             //Generate the proper url to be passed into the request
-            HashMap<String, String> options = new HashMap<>();
-            options.put("addServer", "true");
-            String apiUrl = apiURL(url, options);
+            HashMap<String, String> urlOptions = new HashMap<>();
+            urlOptions.put("addServer", "true");
+            String apiUrl = apiURL(url, urlOptions);
+            RequestContext context = new RequestContext(method.toUpperCase(), apiUrl, options);
 
-            Request.Builder requestBuilder = new Request.Builder();
+            Request.Builder requestBuilder = new Request.Builder().tag(context);
             //Add all the headers to the Request.Builder from the headerMap
             for (Map.Entry<String, String> entry : headerMap.entrySet()) {
                 requestBuilder.addHeader(entry.getKey(), entry.getValue());
             }
-            Request request = null;
-            if (method.toUpperCase().equals("GET")) {
-                request = requestBuilder
-                        .url(apiUrl)
-                        .build();
-            } else if (method.toUpperCase().equals("DELETE")) {
-                request = requestBuilder
-                        .url(apiUrl)
-                        .delete()
-                        .build();
-            } else {
-                //For POST and PUT requests, find and set what MediaType the body is
-                MediaType mediaType;
-                if (headerMap.containsValue("application/json")) {
-                    mediaType = JSON_TYPE_MARKDOWN;
-                } else if (headerMap.containsValue("multipart/mixed")) {
-                    mediaType = MULTI_TYPE_MARKDOWN;
-                } else {
-                    mediaType = MEDIA_TYPE_MARKDOWN;
-                }
-                String bodyString = getBodyString(body, mediaType);
-                if (method.toUpperCase().equals("POST")) {
-                    request = requestBuilder
-                            .url(apiUrl)
-                            .post(RequestBody.create(mediaType, bodyString))
-                            .build();
-                } else if (method.toUpperCase().equals("PUT")) {
-                    request = requestBuilder
-                            .url(apiUrl)
-                            .put(RequestBody.create(mediaType, bodyString))
-                            .build();
-                }
-            }
+            Request request = requestBuilder
+                    .url(apiUrl)
+                    .method(method.toUpperCase(), requestBody)
+                    .build();
             //Make OKHttp request call, that returns response to the callback
-            client.newCall(request).enqueue(callback);
+            Call call = client.newCall(request);
+            context.setCall(call);
+            RequestGroup group = options == null ? null : options.getGroup();
+            if ((group != null && !context.join(group)) || !context.join(session.getRequests())) {
+                context.finish();
+                throw new IOException("Canceled");
+            }
+            if (callback instanceof ResponseFuture) {
+                ((ResponseFuture) callback).setCall(call);
+            }
+            call.enqueue(new TracingCallback(callback, context, getFlightRecorder()));
+            return call;
         } catch (Exception e) {
             e.printStackTrace();
+            //Report the failure so callers waiting on the callback are not left hanging
+            callback.onFailure(null, e instanceof IOException ? (IOException) e : new IOException(e.getMessage(), e));
+            return null;
+        }
+    }
+
+    /**
+     * Cancels every request in flight made with the tag in its RequestOptions
+     *
+     * @return The number of requests cancelled
+     */
+    public int cancel(Object tag) {
+        return session.getRequests().cancel(tag);
+    }
+
+    /**
+     * Returns the number of requests of this session that have been sent and not finished yet
+     */
+    public int getRequestsInFlight() {
+        return session.getRequests().size();
+    }
+
+    /**
+     * Streams binary content, such as a message attachment, into a file. If the file already holds part of the
+     * content from an earlier attempt, only the remaining bytes are requested with a Range header.
+     *
+     * @param url  Attachment uri from the message store, or an API path
+     * @param file Destination file, created if it does not exist
+     */
+    public Call download(String url, File file, DownloadCallback callback) {
+        long offset = file.exists() ? file.length() : 0;
+        HashMap<String, String> headers = new HashMap<>();
+        if (offset > 0) {
+            headers.put("Range", StreamingDownload.rangeHeader(offset));
+            //OkHttp offers gzip even with a Range header, and the range must apply to the content as stored
+            headers.put("Accept-Encoding", "identity");
         }
+        StreamingDownload download = new StreamingDownload(file, offset, callback);
+        return this.sendRequest("GET", url, null, headers, download);
+    }
+
+    /**
+     * Streams binary content into a sink, resuming after the first offset bytes
+     *
+     * @param offset Number of bytes the sink already holds, or 0 to download everything
+     */
+    public Call download(String url, long offset, Sink sink, DownloadCallback callback) {
+        HashMap<String, String> headers = new HashMap<>();
+        if (offset > 0) {
+            headers.put("Range", StreamingDownload.rangeHeader(offset));
+            headers.put("Accept-Encoding", "identity");
+        }
+        StreamingDownload download = new StreamingDownload(sink, offset, callback);
+        return this.sendRequest("GET", url, null, headers, download);
+    }
+
+    /**
+     * Builds a multipart/form-data body with a JSON part followed by one part per file. Files are streamed from
+     * disk as the request is written, and each body gets its own random boundary.
+     *
+     * @param json        Request JSON, sent as the first part
+     * @param attachments Files to attach, their content type is guessed from the file name
+     */
+    public RequestBody multipartBody(String json, List<File> attachments) {
+        MultipartBuilder builder = new MultipartBuilder().type(MultipartBuilder.FORM);
+        builder.addPart(
+                Headers.of("Content-Disposition", "form-data; name=\"json\"; filename=\"request.json\""),
+                RequestBody.create(JSON_TYPE_MARKDOWN, json));
+        for (File attachment : attachments) {
+            String contentType = URLConnection.guessContentTypeFromName(attachment.getName());
+            MediaType mediaType = MediaType.parse(contentType != null ? contentType : "application/octet-stream");
+            builder.addFormDataPart("attachment", attachment.getName(), RequestBody.create(mediaType, attachment));
+        }
+        return builder.build();
     }
 
     /**
@@ -322,27 +583,53 @@ public class Platform implements Serializable {
         this.authCall(url,body, headerMap, callback);
     }
 
+    /**
+     * Authorizes with the password flow and stores the token, returning a future of the token response so
+     * that API calls can be composed after it
+     */
+    public ApiFuture<TokenResponse> authorize(String username, String extension, String password) {
+        ResponseFuture future = new ResponseFuture();
+        this.authorize(username, extension, password, future);
+        return future.thenApply(new ApiFuture.Function<Transaction, TokenResponse>() {
+            @Override
+            public TokenResponse apply(Transaction transaction) throws Exception {
+                TokenResponse token = transaction.getTokenResponse();
+                if (token == null) {
+                    throw new IOException("Unreadable token response");
+                }
+                setAuthData(token);
+                return token;
+            }
+        });
+    }
+
     /**
      * POST request set up for making authorization calls
      */
 
     public void authCall(String url, LinkedHashMap<String, String> body, HashMap<String, String> headerMap, Callback callback){
-        OkHttpClient client = new OkHttpClient();
-        Request.Builder requestBuilder = new Request.Builder();
+        OkHttpClient client = getClient();
+        HashMap<String, String> options = new HashMap<>();
+        options.put("addServer", "true");
+        String apiUrl = apiURL(url, options);
+        RequestContext context = new RequestContext("POST", apiUrl);
+        Request.Builder requestBuilder = new Request.Builder().tag(context);
         for(Map.Entry<String, String> entry: headerMap.entrySet()) {
             requestBuilder.addHeader(entry.getKey(), entry.getValue());
         }
         Request request = null;
         MediaType mediaType = MEDIA_TYPE_MARKDOWN;
         String bodyString = getBodyString(body, mediaType);
-        HashMap<String, String> options = new HashMap<>();
-        options.put("addServer", "true");
-        String apiUrl = apiURL(url, options);
         request = requestBuilder
                         .url(apiUrl)
                         .post(RequestBody.create(mediaType, bodyString))
                         .build();
-        client.newCall(request).enqueue(callback);
+        Call call = client.newCall(request);
+        context.setCall(call);
+        if (callback instanceof ResponseFuture) {
+            ((ResponseFuture) callback).setCall(call);
+        }
+        call.enqueue(new TracingCallback(callback, context, getFlightRecorder()));
     }
 
 
@@ -354,7 +641,7 @@ public class Platform implements Serializable {
     public void refresh() throws Exception{
         if(!this.auth.isRefreshTokenValid()){
             throw new Exception("Refresh token is expired");
-        } else {
+        } else if (session.beginRefresh()) {
             LinkedHashMap<String, String> body = new LinkedHashMap<>();
             String url = "/restapi/oauth/token";
             //Body
@@ -368,16 +655,33 @@ public class Platform implements Serializable {
                     new Callback() {
                         @Override
                         public void onFailure(Request request, IOException e) {
-                            e.printStackTrace();
+                            try {
+                                getMetrics().recordTokenRefresh(false);
+                                e.printStackTrace();
+                            } finally {
+                                session.endRefresh();
+                            }
                         }
                         @Override
                         public void onResponse(Response response) throws IOException {
-                            if (!response.isSuccessful())
-                                throw new IOException("Unexpected code " + response);
-                            Transaction transaction = new Transaction(response);
-                            HashMap<String, String> responseMap = transaction.getAuthJson();
-                            setAuthData(responseMap);
-                            System.out.println("refresh");
+                            try {
+                                if (!response.isSuccessful()) {
+                                    getMetrics().recordTokenRefresh(false);
+                                    response.body().close();
+                                    throw new IOException("Unexpected code " + response);
+                                }
+                                Transaction transaction = new Transaction(response);
+                                TokenResponse token = transaction.getTokenResponse();
+                                if (token == null || token.accessToken == null) {
+                                    getMetrics().recordTokenRefresh(false);
+                                    throw new IOException("Unreadable token response");
+                                }
+                                setAuthData(token);
+                                getMetrics().recordTokenRefresh(true);
+                            } finally {
+                                //Also reached when the response is malformed, so later requests can refresh again
+                                session.endRefresh();
+                            }
                         }
                     });
         }
@@ -399,9 +703,38 @@ public class Platform implements Serializable {
     }
 
     /**
-     * Makes a call to the POST Subscription api, and with the response, creates a Pubnub subscription
+     * Makes a call to the POST Subscription api, and with the response, creates a Pubnub subscription.
+     * If the session holds a subscription that has not expired, e.g. after it was restored, that one is renewed
+     * instead; the callback receives the same response either way.
      */
-    public void subscribe(Callback callback){
+    public void subscribe(final Callback callback){
+        final Subscription subscription = getSubscription();
+        if (!subscription.isActive()) {
+            createSubscription(callback);
+            return;
+        }
+        String url = "/restapi/v1.0/subscription/" + subscription.id + "/renew";
+        this.sendRequest("POST", url, RequestBody.create(JSON_TYPE_MARKDOWN, ""), new HashMap<String, String>(), new Callback() {
+            @Override
+            public void onFailure(Request request, IOException e) {
+                callback.onFailure(request, e);
+            }
+
+            @Override
+            public void onResponse(Response response) throws IOException {
+                if (response.code() == 404) {
+                    //The subscription is gone, create a new one
+                    response.body().close();
+                    subscription.reset();
+                    createSubscription(callback);
+                    return;
+                }
+                callback.onResponse(response);
+            }
+        });
+    }
+
+    private void createSubscription(Callback callback) {
         LinkedHashMap<String, String> body = new LinkedHashMap<>();
 
         //Pass in customized body hashmap
@@ -424,7 +757,8 @@ public class Platform implements Serializable {
     public void removeSubscription() {
         LinkedHashMap<String, String> body = new LinkedHashMap<>();
         HashMap<String, String> headers = new HashMap<>();
-        String url =  "/restapi/v1.0/subscription" + subscription.id;
+        final Subscription subscription = getSubscription();
+        String url =  "/restapi/v1.0/subscription/" + subscription.id;
         this.delete(url, headers, new Callback() {
             @Override
             public void onFailure(Request request, IOException e) {
@@ -435,8 +769,8 @@ public class Platform implements Serializable {
             public void onResponse(Response response) throws IOException {
                 if (!response.isSuccessful())
                     throw new IOException("Unexpected code " + response);
-                Transaction transaction = new Transaction(response);
-                subscription.unsubscribe();
+                response.body().close();
+                subscription.reset();
             }
         });
     }
@@ -474,4 +808,40 @@ public class Platform implements Serializable {
         this.apiCall("DELETE", url, body, headerMap, callback);
     }
 
+    /**
+     * Makes a GET request and returns a future of its response, for composing with other calls
+     */
+    public ApiFuture<Transaction> get(String url, HashMap<String, String> headerMap) {
+        ResponseFuture future = new ResponseFuture();
+        this.get(url, headerMap, future);
+        return future;
+    }
+
+    /**
+     * Makes a POST request and returns a future of its response, for composing with other calls
+     */
+    public ApiFuture<Transaction> post(String url, LinkedHashMap<String, String> body, HashMap<String, String> headerMap) {
+        ResponseFuture future = new ResponseFuture();
+        this.post(url, body, headerMap, future);
+        return future;
+    }
+
+    /**
+     * Makes a PUT request and returns a future of its response, for composing with other calls
+     */
+    public ApiFuture<Transaction> put(String url, LinkedHashMap<String, String> body, HashMap<String, String> headerMap) {
+        ResponseFuture future = new ResponseFuture();
+        this.put(url, body, headerMap, future);
+        return future;
+    }
+
+    /**
+     * Makes a DELETE request and returns a future of its response, for composing with other calls
+     */
+    public ApiFuture<Transaction> delete(String url, HashMap<String, String> headerMap) {
+        ResponseFuture future = new ResponseFuture();
+        this.delete(url, headerMap, future);
+        return future;
+    }
+
 }
@@ -0,0 +1,279 @@
+package com.ringcentral.rc_android_sdk.rcsdk.platform;
+
+import com.ringcentral.rc_android_sdk.rcsdk.directory.DirectoryCache;
+import com.ringcentral.rc_android_sdk.rcsdk.http.CompressionInterceptor;
+import com.ringcentral.rc_android_sdk.rcsdk.http.DeadlineInterceptor;
+import com.ringcentral.rc_android_sdk.rcsdk.http.FailoverInterceptor;
+import com.ringcentral.rc_android_sdk.rcsdk.http.MetricsInterceptor;
+import com.ringcentral.rc_android_sdk.rcsdk.http.RequestGroup;
+import com.ringcentral.rc_android_sdk.rcsdk.http.TraceInterceptor;
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.FlightRecorder;
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.MetricsRegistry;
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.StartupTimings;
+import com.ringcentral.rc_android_sdk.rcsdk.presence.PresenceCache;
+import com.ringcentral.rc_android_sdk.rcsdk.subscription.Subscription;
+import com.ringcentral.rc_android_sdk.rcsdk.subscription.SubscriptionManager;
+import com.squareup.okhttp.OkHttpClient;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * State of one signed-in account: app credentials, server, tokens, the HTTP client and the subscription
+ * manager.
+ *
+ * A Platform and a Helpers created from the same Session are views of one account. They authorize and
+ * refresh once, and share one connection pool, one set of metrics and one subscription.
+ */
+public class Session implements Serializable {
+
+    //Consecutive failures that take a server out of rotation, and how long before it is probed again
+    private static final int FAILURE_THRESHOLD = 5;
+    private static final long FAILOVER_COOLDOWN_MILLIS = 30000;
+
+    String appKey;
+    String appSecret;
+    String server;
+    ArrayList<String> alternateServers = new ArrayList<>();
+    String account = "~";
+    //Request bodies of at least this many bytes are gzipped, 0 for none
+    long requestCompressionThreshold;
+    boolean responseCompressionDisabled;
+    final Auth auth = new Auth();
+    Subscription subscription;
+    transient OkHttpClient client;
+    transient MetricsRegistry metrics;
+    transient FlightRecorder flightRecorder;
+    transient StartupTimings startupTimings;
+    transient PresenceCache presenceCache;
+    transient SubscriptionManager subscriptionManager;
+    transient DirectoryCache directoryCache;
+    transient FailoverInterceptor failover;
+    transient CompressionInterceptor compression;
+    //Every request in flight, so they can be cancelled by tag
+    transient RequestGroup requests;
+    //Set while a token refresh is in flight, so concurrent callers do not each send one
+    private transient boolean refreshing;
+
+    /**
+     * @param server Pass in either "SANDBOX" or "PRODUCTION", or a server URL
+     */
+    public Session(String appKey, String appSecret, String server) {
+        this.appKey = appKey;
+        this.appSecret = appSecret;
+        setServer(server);
+    }
+
+    public Auth getAuth() {
+        return auth;
+    }
+
+    public synchronized void setServer(String server) {
+        this.server = resolve(server);
+        updateFailover();
+    }
+
+    public synchronized String getServer() {
+        return server;
+    }
+
+    /**
+     * Sets servers that take API traffic, in order of preference, while the primary server is failing.
+     * Requests are still built against getServer() and routed by the client.
+     */
+    public synchronized void setAlternateServers(String... servers) {
+        alternateServers = new ArrayList<>();
+        for (String server : servers) {
+            alternateServers.add(resolve(server));
+        }
+        updateFailover();
+    }
+
+    /**
+     * Returns the primary server followed by the alternates
+     */
+    public synchronized List<String> getServers() {
+        List<String> servers = new ArrayList<>();
+        servers.add(server);
+        if (alternateServers != null) {
+            servers.addAll(alternateServers);
+        }
+        return servers;
+    }
+
+    /**
+     * Returns the interceptor routing requests between the servers, with a circuit breaker per server
+     */
+    public synchronized FailoverInterceptor getFailover() {
+        if (failover == null) {
+            failover = new FailoverInterceptor(FAILURE_THRESHOLD, FAILOVER_COOLDOWN_MILLIS);
+            failover.setServers(getServers());
+            failover.setMetrics(getMetrics());
+        }
+        return failover;
+    }
+
+    /**
+     * Gzips request bodies of at least minBytes, e.g. bulk POST and PUT payloads. Off by default; 0 turns it
+     * off again.
+     */
+    public synchronized void setRequestCompression(long minBytes) {
+        requestCompressionThreshold = Math.max(0, minBytes);
+        getCompression().setRequestThreshold(requestCompressionThreshold);
+    }
+
+    /**
+     * Offers the server to gzip responses, which are decoded transparently. On by default.
+     */
+    public synchronized void setResponseCompression(boolean enabled) {
+        responseCompressionDisabled = !enabled;
+        getCompression().setResponseCompression(enabled);
+    }
+
+    /**
+     * Returns the interceptor compressing request bodies and negotiating response compression
+     */
+    public synchronized CompressionInterceptor getCompression() {
+        if (compression == null) {
+            compression = new CompressionInterceptor();
+            compression.setRequestThreshold(requestCompressionThreshold);
+            compression.setResponseCompression(!responseCompressionDisabled);
+        }
+        return compression;
+    }
+
+    /**
+     * Returns the group of all requests in flight, which Platform.cancel(tag) searches
+     */
+    synchronized RequestGroup getRequests() {
+        if (requests == null) {
+            requests = new RequestGroup();
+        }
+        return requests;
+    }
+
+    private void updateFailover() {
+        if (failover != null) {
+            failover.setServers(getServers());
+            failover.setMetrics(getMetrics());
+        }
+    }
+
+    private static String resolve(String server) {
+        if (server.toUpperCase().equals("SANDBOX")) {
+            return "https://platform.devtest.ringcentral.com";
+        } else if (server.toUpperCase().equals("PRODUCTION")) {
+            return "https://platform.ringcentral.com";
+        }
+        return server;
+    }
+
+    public synchronized void setAppCredentials(String appKey, String appSecret) {
+        this.appKey = appKey;
+        this.appSecret = appSecret;
+    }
+
+    public synchronized String getAppKey() {
+        return appKey;
+    }
+
+    public synchronized String getAppSecret() {
+        return appSecret;
+    }
+
+    public synchronized String getAccount() {
+        return account;
+    }
+
+    /**
+     * Returns the subscription of this session, creating it on first use
+     */
+    public synchronized Subscription getSubscription() {
+        if (subscription == null) {
+            subscription = new Subscription();
+        }
+        //Also reached by a subscription restored with the session
+        subscription.setMetrics(getMetrics());
+        return subscription;
+    }
+
+    /**
+     * Returns the presence cache of this session, fed by the notifications of getSubscription()
+     */
+    public synchronized PresenceCache getPresenceCache() {
+        if (presenceCache == null) {
+            presenceCache = new PresenceCache();
+            getSubscription().addNotificationListener(presenceCache);
+        }
+        return presenceCache;
+    }
+
+    /**
+     * Returns the request metrics recorded for this session's API calls
+     */
+    public synchronized MetricsRegistry getMetrics() {
+        if (metrics == null) {
+            metrics = new MetricsRegistry();
+            metrics.addListener(getStartupTimings());
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns the durations of start-up phases such as client creation, prewarming and the first request
+     */
+    public synchronized StartupTimings getStartupTimings() {
+        if (startupTimings == null) {
+            startupTimings = new StartupTimings();
+        }
+        return startupTimings;
+    }
+
+    /**
+     * Returns the recorder holding phase timings of slow and sampled requests
+     */
+    public synchronized FlightRecorder getFlightRecorder() {
+        if (flightRecorder == null) {
+            flightRecorder = new FlightRecorder();
+        }
+        return flightRecorder;
+    }
+
+    /**
+     * Returns the OkHttpClient shared by all of this session's requests, so they reuse one connection pool
+     */
+    public synchronized OkHttpClient getClient() {
+        if (client == null) {
+            long start = System.nanoTime();
+            client = new OkHttpClient();
+            client.interceptors().add(new TraceInterceptor(false));
+            client.interceptors().add(new DeadlineInterceptor(false));
+            client.interceptors().add(new MetricsInterceptor(getMetrics()));
+            client.interceptors().add(getCompression());
+            client.interceptors().add(getFailover());
+            client.networkInterceptors().add(new TraceInterceptor(true));
+            client.networkInterceptors().add(new DeadlineInterceptor(true));
+            client.networkInterceptors().add(new MetricsInterceptor(getMetrics(), true));
+            getStartupTimings().record(StartupTimings.CLIENT_INIT, System.nanoTime() - start);
+        }
+        return client;
+    }
+
+    /**
+     * Claims the token refresh
+     *
+     * @return false if another refresh is already in flight
+     */
+    synchronized boolean beginRefresh() {
+        if (refreshing) {
+            return false;
+        }
+        refreshing = true;
+        return true;
+    }
+
+    synchronized void endRefresh() {
+        refreshing = false;
+    }
+}
@@ -0,0 +1,206 @@
+package com.ringcentral.rc_android_sdk.rcsdk.presence;
+
+import com.ringcentral.rc_android_sdk.rcsdk.http.JsonMapper;
+import com.ringcentral.rc_android_sdk.rcsdk.http.Transaction;
+import com.ringcentral.rc_android_sdk.rcsdk.model.Presence;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.ringcentral.rc_android_sdk.rcsdk.subscription.NotificationListener;
+import com.squareup.okhttp.Callback;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Holds the latest presence of each extension, kept current by presence notifications of a Subscription.
+ *
+ * Each extension is fetched from the presence endpoint once, when it is first seeded; after that only
+ * notifications update it. Notifications are queued per extension and applied on a single executor, so a
+ * burst of updates for one extension collapses into its latest value. Lookups read a ConcurrentHashMap and
+ * never block.
+ */
+public class PresenceCache extends NotificationListener {
+
+    private static final Pattern PRESENCE_EVENT = Pattern.compile("/extension/([^/]+)/presence");
+
+    private final ConcurrentHashMap<String, Presence> presences = new ConcurrentHashMap<>();
+    //Latest not-yet-applied update of each extension
+    private final ConcurrentHashMap<String, Presence> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Boolean> seeded = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<PresenceListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private Executor executor;
+
+    private final Runnable drain = new Runnable() {
+        @Override
+        public void run() {
+            drainScheduled.set(false);
+            for (String extensionId : pending.keySet()) {
+                Presence presence = pending.remove(extensionId);
+                if (presence != null) {
+                    apply(extensionId, presence, false);
+                }
+            }
+        }
+    };
+
+    /**
+     * Returns the cached presence of the extension, or null if it has not been seeded or notified yet
+     */
+    public Presence get(String extensionId) {
+        return presences.get(extensionId);
+    }
+
+    /**
+     * Returns a snapshot of every cached presence, keyed by extension id
+     */
+    public Map<String, Presence> getAll() {
+        return new HashMap<>(presences);
+    }
+
+    public void addListener(PresenceListener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    public void removeListener(PresenceListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Sets the executor that applies updates and calls listeners, e.g. one posting to the main thread.
+     * Updates must be applied one at a time, so the executor must run tasks serially.
+     */
+    public synchronized void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    private synchronized Executor getExecutor() {
+        if (executor == null) {
+            ExecutorService service = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "rc-presence");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            executor = service;
+        }
+        return executor;
+    }
+
+    /**
+     * Fetches the presence of each extension that has not been seeded yet. Call once for the extensions
+     * shown to the user; the subscription must include their presence event filters to keep them current.
+     *
+     * @param extensionIds Extension ids, or "~" for the current extension
+     */
+    public void seed(Platform platform, String... extensionIds) {
+        for (String extensionId : extensionIds) {
+            if (seeded.putIfAbsent(extensionId, Boolean.TRUE) == null) {
+                fetch(platform, extensionId);
+            }
+        }
+    }
+
+    private void fetch(Platform platform, final String extensionId) {
+        String url = "/restapi/v1.0/account/~/extension/" + extensionId + "/presence";
+        platform.get(url, new HashMap<String, String>(), new Callback() {
+            @Override
+            public void onFailure(Request request, IOException e) {
+                //Allow a later seed to try again
+                seeded.remove(extensionId);
+                e.printStackTrace();
+            }
+
+            @Override
+            public void onResponse(Response response) throws IOException {
+                Transaction transaction = new Transaction(response);
+                if (!transaction.isOK()) {
+                    response.body().close();
+                    seeded.remove(extensionId);
+                    return;
+                }
+                final Presence presence = transaction.getAs(Presence.class);
+                if (presence == null) {
+                    seeded.remove(extensionId);
+                    return;
+                }
+                final String id = presence.extensionId != null ? presence.extensionId : extensionId;
+                getExecutor().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        apply(id, presence, true);
+                    }
+                });
+            }
+        });
+    }
+
+    @Override
+    public void onNotification(String event, JSONObject body) {
+        Matcher matcher = PRESENCE_EVENT.matcher(event);
+        if (!matcher.find()) {
+            return;
+        }
+        Presence presence = JsonMapper.fromJson(body.toString(), Presence.class);
+        if (presence == null) {
+            return;
+        }
+        String extensionId = presence.extensionId != null ? presence.extensionId : matcher.group(1);
+        update(extensionId, presence);
+    }
+
+    /**
+     * Queues a presence update; only the latest queued update of each extension is applied
+     */
+    public void update(String extensionId, Presence presence) {
+        while (true) {
+            Presence queued = pending.putIfAbsent(extensionId, presence);
+            if (queued == null || isOlder(presence, queued) || pending.replace(extensionId, queued, presence)) {
+                break;
+            }
+        }
+        if (drainScheduled.compareAndSet(false, true)) {
+            getExecutor().execute(drain);
+        }
+    }
+
+    private void apply(String extensionId, Presence presence, boolean fromSeed) {
+        Presence previous = presences.get(extensionId);
+        if (previous != null) {
+            //A notification may already be newer than the seed request that was in flight with it
+            if (fromSeed || isOlder(presence, previous)) {
+                return;
+            }
+        }
+        presences.put(extensionId, presence);
+        for (PresenceListener listener : listeners) {
+            try {
+                listener.onPresenceChanged(extensionId, previous, presence);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Presence carries a sequence number; without one, the later arrival wins
+     */
+    private static boolean isOlder(Presence presence, Presence than) {
+        return presence.sequence != 0 && than.sequence != 0 && presence.sequence < than.sequence;
+    }
+}
@@ -0,0 +1,17 @@
+package com.ringcentral.rc_android_sdk.rcsdk.presence;
+
+import com.ringcentral.rc_android_sdk.rcsdk.model.Presence;
+
+/**
+ * Receives presence changes from a PresenceCache.
+ *
+ * Methods are called on the cache's executor, one update at a time.
+ */
+public abstract class PresenceListener {
+
+    /**
+     * @param previous Presence replaced by this change, or null when the extension was not cached yet
+     * @param current  Presence now held by the cache
+     */
+    public abstract void onPresenceChanged(String extensionId, Presence previous, Presence current);
+}
@@ -0,0 +1,26 @@
+package com.ringcentral.rc_android_sdk.rcsdk.ringout;
+
+import com.ringcentral.rc_android_sdk.rcsdk.model.RingOutStatus;
+
+import java.io.IOException;
+
+/**
+ * Receives the progress of a tracked RingOut. Callbacks run on the OkHttp threads.
+ */
+public abstract class RingOutListener {
+
+    /**
+     * Called when the call status or the status of either party changes
+     *
+     * @param previous Previous status, or null for the first status
+     */
+    public abstract void onStatusChanged(RingOutSession session, RingOutStatus.Status previous, RingOutStatus.Status current);
+
+    /**
+     * Called once when tracking ends: the call failed, ended, was cancelled or could not be polled
+     *
+     * @param error The error that stopped tracking, or null
+     */
+    public void onFinished(RingOutSession session, IOException error) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.ringcentral.rc_android_sdk.rcsdk.ringout;
+
+import com.ringcentral.rc_android_sdk.rcsdk.model.RingOutStatus;
+
+/**
+ * A RingOut followed by a RingOutTracker
+ */
+public class RingOutSession {
+
+    private final RingOutTracker tracker;
+    private final String id;
+    final RingOutListener listener;
+
+    //Polling state, guarded by the tracker
+    RingOutStatus.Status status;
+    long nextPollAt;
+    long intervalMillis;
+    int failures;
+    boolean polling;
+    boolean finished;
+
+    RingOutSession(RingOutTracker tracker, String id, RingOutListener listener) {
+        this.tracker = tracker;
+        this.id = id;
+        this.listener = listener;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the last polled status, or null before the first poll
+     */
+    public RingOutStatus.Status getStatus() {
+        synchronized (tracker) {
+            return status;
+        }
+    }
+
+    public boolean isFinished() {
+        synchronized (tracker) {
+            return finished;
+        }
+    }
+
+    /**
+     * Hangs up the RingOut and stops tracking it
+     */
+    public void cancel() {
+        tracker.cancel(this);
+    }
+
+    @Override
+    public String toString() {
+        return "RingOut " + id + " " + getStatus();
+    }
+}
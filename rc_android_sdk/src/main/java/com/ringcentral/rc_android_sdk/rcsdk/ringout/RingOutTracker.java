@@ -0,0 +1,342 @@
+package com.ringcentral.rc_android_sdk.rcsdk.ringout;
+
+import com.ringcentral.rc_android_sdk.rcsdk.http.ApiException;
+import com.ringcentral.rc_android_sdk.rcsdk.http.ApiFuture;
+import com.ringcentral.rc_android_sdk.rcsdk.http.Transaction;
+import com.ringcentral.rc_android_sdk.rcsdk.model.RingOutStatus;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.squareup.okhttp.Callback;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.RequestBody;
+import com.squareup.okhttp.Response;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts RingOuts and follows their status by polling, for any number of calls at once.
+ *
+ * Each session is polled every second while the parties are being called. Once they are connected the
+ * interval starts at 5 seconds and doubles up to 30 seconds. Tracking ends when the call fails, or when the
+ * RingOut is gone (404), which happens once the call is over. A single scheduler tick collects every session
+ * that is due and polls them together, with a cap on the polls in flight, instead of one loop per call.
+ */
+public class RingOutTracker {
+
+    private static final String RINGOUT_ENDPOINT = "/restapi/v1.0/account/~/extension/~/ringout";
+    private static final long TICK_MILLIS = 250;
+
+    private static final Comparator<RingOutSession> BY_DUE_TIME = new Comparator<RingOutSession>() {
+        @Override
+        public int compare(RingOutSession a, RingOutSession b) {
+            return a.nextPollAt < b.nextPollAt ? -1 : a.nextPollAt == b.nextPollAt ? 0 : 1;
+        }
+    };
+
+    private final Platform platform;
+    private final List<RingOutSession> sessions = new ArrayList<>();
+    private long ringingIntervalMillis = 1000;
+    private long connectedIntervalMillis = 5000;
+    private long maxIntervalMillis = 30000;
+    private int maxPollsInFlight = 10;
+    private int maxFailures = 5;
+    private int pollsInFlight;
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> ticker;
+
+    public RingOutTracker(Platform platform) {
+        this.platform = platform;
+    }
+
+    /**
+     * Poll interval while the parties are being called, 1 second by default
+     */
+    public synchronized void setRingingInterval(long millis) {
+        this.ringingIntervalMillis = millis;
+    }
+
+    /**
+     * First poll interval once connected, 5 seconds by default; it doubles after every unchanged poll
+     */
+    public synchronized void setConnectedInterval(long millis) {
+        this.connectedIntervalMillis = millis;
+    }
+
+    /**
+     * Longest poll interval, 30 seconds by default
+     */
+    public synchronized void setMaxInterval(long millis) {
+        this.maxIntervalMillis = millis;
+    }
+
+    /**
+     * Maximum number of status requests in flight over all sessions, 10 by default
+     */
+    public synchronized void setMaxPollsInFlight(int maxPollsInFlight) {
+        this.maxPollsInFlight = Math.max(1, maxPollsInFlight);
+    }
+
+    /**
+     * Returns the sessions being tracked
+     */
+    public synchronized List<RingOutSession> getSessions() {
+        return new ArrayList<>(sessions);
+    }
+
+    /**
+     * Starts a RingOut and tracks it
+     *
+     * @return Future of the session, failing if the RingOut could not be started
+     */
+    public ApiFuture<RingOutSession> start(String to, String from, String callerId, boolean playPrompt,
+                                           final RingOutListener listener) {
+        final ApiFuture<RingOutSession> future = new ApiFuture<>();
+        String json;
+        try {
+            JSONObject body = new JSONObject();
+            body.put("to", new JSONObject().put("phoneNumber", to));
+            body.put("from", new JSONObject().put("phoneNumber", from));
+            body.put("callerId", new JSONObject().put("phoneNumber", callerId));
+            body.put("playPrompt", playPrompt);
+            json = body.toString();
+        } catch (JSONException e) {
+            future.fail(e);
+            return future;
+        }
+        RequestBody requestBody = RequestBody.create(Platform.JSON_TYPE_MARKDOWN, json);
+        platform.sendRequest("POST", RINGOUT_ENDPOINT, requestBody, new HashMap<String, String>(), new Callback() {
+            @Override
+            public void onFailure(Request request, IOException e) {
+                future.fail(e);
+            }
+
+            @Override
+            public void onResponse(Response response) throws IOException {
+                if (!response.isSuccessful()) {
+                    future.fail(new ApiException(response.code(), response.message(), response.body().string()));
+                    return;
+                }
+                RingOutStatus ringOut = new Transaction(response).getAs(RingOutStatus.class);
+                if (ringOut == null || ringOut.id == null) {
+                    future.fail(new IOException("Unreadable RingOut response"));
+                    return;
+                }
+                RingOutSession session = new RingOutSession(RingOutTracker.this, ringOut.id, listener);
+                add(session);
+                if (ringOut.status != null) {
+                    apply(session, ringOut.status);
+                }
+                future.complete(session);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Tracks a RingOut started elsewhere, e.g. by Helpers.ringOut
+     */
+    public RingOutSession track(String ringOutId, RingOutListener listener) {
+        RingOutSession session = new RingOutSession(this, ringOutId, listener);
+        add(session);
+        return session;
+    }
+
+    /**
+     * Stops tracking every session and the scheduler; the calls themselves go on
+     */
+    public synchronized void shutdown() {
+        sessions.clear();
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+            ticker = null;
+        }
+    }
+
+    void cancel(RingOutSession session) {
+        synchronized (this) {
+            if (session.finished) {
+                return;
+            }
+        }
+        platform.sendRequest("DELETE", RINGOUT_ENDPOINT + "/" + session.getId(), null, new HashMap<String, String>(), new Callback() {
+            @Override
+            public void onFailure(Request request, IOException e) {
+                e.printStackTrace();
+            }
+
+            @Override
+            public void onResponse(Response response) throws IOException {
+                response.body().close();
+            }
+        });
+        finish(session, null);
+    }
+
+    private synchronized void add(RingOutSession session) {
+        session.intervalMillis = ringingIntervalMillis;
+        session.nextPollAt = System.currentTimeMillis() + ringingIntervalMillis;
+        sessions.add(session);
+        if (ticker == null) {
+            if (scheduler == null) {
+                scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "rc-ringout");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            }
+            ticker = scheduler.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    tick();
+                }
+            }, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Polls every session that is due, oldest due first, within the in-flight cap
+     */
+    private void tick() {
+        List<RingOutSession> due = new ArrayList<>();
+        synchronized (this) {
+            if (sessions.isEmpty()) {
+                if (ticker != null) {
+                    ticker.cancel(false);
+                    ticker = null;
+                }
+                return;
+            }
+            long now = System.currentTimeMillis();
+            for (RingOutSession session : sessions) {
+                if (!session.polling && session.nextPollAt <= now) {
+                    due.add(session);
+                }
+            }
+            Collections.sort(due, BY_DUE_TIME);
+            int room = Math.max(0, maxPollsInFlight - pollsInFlight);
+            if (due.size() > room) {
+                due = new ArrayList<>(due.subList(0, room));
+            }
+            for (RingOutSession session : due) {
+                session.polling = true;
+                pollsInFlight++;
+            }
+        }
+        for (RingOutSession session : due) {
+            poll(session);
+        }
+    }
+
+    private void poll(final RingOutSession session) {
+        platform.get(RINGOUT_ENDPOINT + "/" + session.getId(), new HashMap<String, String>(), new Callback() {
+            @Override
+            public void onFailure(Request request, IOException e) {
+                pollDone(session);
+                failed(session, e);
+            }
+
+            @Override
+            public void onResponse(Response response) throws IOException {
+                pollDone(session);
+                if (response.code() == 404) {
+                    //The call is over
+                    response.body().close();
+                    finish(session, null);
+                    return;
+                }
+                if (!response.isSuccessful()) {
+                    failed(session, new ApiException(response.code(), response.message(), response.body().string()));
+                    return;
+                }
+                RingOutStatus ringOut = new Transaction(response).getAs(RingOutStatus.class);
+                if (ringOut == null || ringOut.status == null) {
+                    failed(session, new IOException("Unreadable RingOut status"));
+                    return;
+                }
+                apply(session, ringOut.status);
+            }
+        });
+    }
+
+    private synchronized void pollDone(RingOutSession session) {
+        session.polling = false;
+        pollsInFlight--;
+    }
+
+    private void apply(RingOutSession session, RingOutStatus.Status current) {
+        RingOutStatus.Status previous;
+        boolean changed;
+        synchronized (this) {
+            if (session.finished) {
+                return;
+            }
+            previous = session.status;
+            changed = !current.sameAs(previous);
+            session.status = current;
+            session.failures = 0;
+            if (current.isConnected()) {
+                boolean wasConnected = previous != null && previous.isConnected();
+                session.intervalMillis = wasConnected && !changed
+                        ? Math.min(session.intervalMillis * 2, maxIntervalMillis) : connectedIntervalMillis;
+            } else {
+                session.intervalMillis = ringingIntervalMillis;
+            }
+            session.nextPollAt = System.currentTimeMillis() + session.intervalMillis;
+        }
+        if (changed) {
+            try {
+                session.listener.onStatusChanged(session, previous, current);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        if (current.isFailed()) {
+            finish(session, null);
+        }
+    }
+
+    private void failed(RingOutSession session, IOException e) {
+        synchronized (this) {
+            if (session.finished) {
+                return;
+            }
+            if (++session.failures < maxFailures) {
+                session.intervalMillis = Math.min(session.intervalMillis * 2, maxIntervalMillis);
+                session.nextPollAt = System.currentTimeMillis() + session.intervalMillis;
+                return;
+            }
+        }
+        finish(session, e);
+    }
+
+    private void finish(RingOutSession session, IOException error) {
+        synchronized (this) {
+            if (session.finished) {
+                return;
+            }
+            session.finished = true;
+            sessions.remove(session);
+        }
+        try {
+            session.listener.onFinished(session, error);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.ringcentral.rc_android_sdk.rcsdk.sms;
+
+import com.ringcentral.rc_android_sdk.rcsdk.http.RateLimiter;
+import com.ringcentral.rc_android_sdk.rcsdk.http.Transaction;
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.MetricsRegistry;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Helpers;
+import com.squareup.okhttp.Callback;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends a stream of SMS messages through Helpers.sendSMS, keeping up to a fixed number of requests in flight
+ * on the shared client while respecting a rate limit.
+ *
+ * Messages are read lazily from the iterator on a single feeder thread, so the input can be larger than memory.
+ * Responses with status 429 pause the whole job for the Retry-After time and are retried up to the retry limit,
+ * as are failures that happened before the request reached the server, such as a refused connection. A 5xx
+ * response or a network failure after the request was sent is not retried, since the message may have gone
+ * out; it is reported as UNKNOWN. Keys of sent messages are kept so that a job interrupted part way can be
+ * resumed by passing them to setCompletedKeys on a new job over the same input.
+ */
+public class BulkSmsJob {
+
+    private static final String SMS_ENDPOINT = "/restapi/v1.0/account/~/extension/~/sms";
+    private static final long POLL_MILLIS = 100;
+
+    private final Helpers helpers;
+    private final Iterator<SmsMessage> messages;
+    private final BulkSmsListener listener;
+
+    private int concurrency = 4;
+    private double permitsPerSecond = 40.0 / 60;
+    private int maxRetries = 3;
+
+    private final Set<String> completedKeys = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final LinkedBlockingQueue<Attempt> retries = new LinkedBlockingQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger sent = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger unknown = new AtomicInteger();
+    private final CountDownLatch done = new CountDownLatch(1);
+    private Semaphore permits;
+    private RateLimiter rateLimiter;
+    private volatile boolean cancelled;
+    private volatile boolean started;
+
+    public BulkSmsJob(Helpers helpers, Iterator<SmsMessage> messages, BulkSmsListener listener) {
+        this.helpers = helpers;
+        this.messages = messages;
+        this.listener = listener;
+    }
+
+    /**
+     * Maximum number of sends in flight at once, 4 by default. Sends beyond the client's per-host limit wait in
+     * its dispatcher.
+     */
+    public void setConcurrency(int concurrency) {
+        checkNotStarted();
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Maximum sustained send rate, 40 per minute by default to match the SMS rate limit group
+     */
+    public void setRateLimit(double permitsPerSecond) {
+        checkNotStarted();
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        checkNotStarted();
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * Marks messages as already sent by an earlier run of this job, so they are reported as SKIPPED
+     */
+    public void setCompletedKeys(Collection<String> keys) {
+        checkNotStarted();
+        completedKeys.addAll(keys);
+    }
+
+    /**
+     * Returns the keys of every message sent so far, including those passed to setCompletedKeys
+     */
+    public Set<String> getCompletedKeys() {
+        return new HashSet<>(completedKeys);
+    }
+
+    public int getSentCount() {
+        return sent.get();
+    }
+
+    public int getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Returns the number of messages that may or may not have been sent
+     */
+    public int getUnknownCount() {
+        return unknown.get();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    /**
+     * Starts sending on a background thread and returns immediately
+     */
+    public synchronized void start() {
+        checkNotStarted();
+        started = true;
+        permits = new Semaphore(concurrency);
+        rateLimiter = new RateLimiter(permitsPerSecond);
+        Thread feeder = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                feed();
+            }
+        }, "rc-bulk-sms");
+        feeder.setDaemon(true);
+        feeder.start();
+    }
+
+    /**
+     * Stops taking new messages from the input. Sends already in flight still complete and are reported.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Blocks until every message has been reported or the timeout elapses
+     *
+     * @return true if the job completed
+     */
+    public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        return done.await(timeout, unit);
+    }
+
+    private void checkNotStarted() {
+        if (started) {
+            throw new IllegalStateException("Job already started");
+        }
+    }
+
+    private void feed() {
+        try {
+            while (true) {
+                Attempt retry = retries.poll();
+                if (retry != null) {
+                    send(retry);
+                } else if (!cancelled && messages.hasNext()) {
+                    if (!permits.tryAcquire(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        continue;
+                    }
+                    SmsMessage message = messages.next();
+                    if (completedKeys.contains(message.getKey())) {
+                        permits.release();
+                        listener.onResult(new SmsResult(message, SmsResult.Status.SKIPPED, 0, null, null, 0));
+                        continue;
+                    }
+                    inFlight.incrementAndGet();
+                    send(new Attempt(message));
+                } else if (inFlight.get() == 0 && retries.isEmpty()) {
+                    break;
+                } else {
+                    retry = retries.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (retry != null) {
+                        send(retry);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            cancelled = true;
+            Thread.currentThread().interrupt();
+        } finally {
+            done.countDown();
+            listener.onComplete(this);
+        }
+    }
+
+    private void send(final Attempt attempt) throws InterruptedException {
+        rateLimiter.acquire();
+        attempt.count++;
+        final SmsMessage message = attempt.message;
+        helpers.sendSMS(message.getTo(), message.getFrom(), message.getText(), new Callback() {
+            @Override
+            public void onFailure(Request request, IOException e) {
+                if (!isBeforeSend(request, e)) {
+                    finish(attempt, SmsResult.Status.UNKNOWN, 0, null, e.getMessage());
+                } else if (attempt.count <= maxRetries) {
+                    rateLimiter.pauseFor(1000L * attempt.count);
+                    retry(attempt);
+                } else {
+                    finish(attempt, SmsResult.Status.FAILED, 0, null, e.getMessage());
+                }
+            }
+
+            @Override
+            public void onResponse(Response response) throws IOException {
+                Transaction transaction = new Transaction(response);
+                int status = response.code();
+                if (transaction.isOK()) {
+                    JSONObject json = transaction.getJsonObject();
+                    String messageId = json != null ? json.optString("id", null) : null;
+                    finish(attempt, SmsResult.Status.SENT, status, messageId, null);
+                    return;
+                }
+                String error = transaction.getError();
+                response.body().close();
+                if (status == 429 && attempt.count <= maxRetries) {
+                    rateLimiter.pauseFor(retryAfterMillis(response, attempt.count));
+                    retry(attempt);
+                } else if (status >= 500) {
+                    finish(attempt, SmsResult.Status.UNKNOWN, status, null, error);
+                } else {
+                    finish(attempt, SmsResult.Status.FAILED, status, null, error);
+                }
+            }
+        });
+    }
+
+    private void retry(Attempt attempt) {
+        MetricsRegistry metrics = helpers.getMetrics();
+        metrics.recordRetry(metrics.getEndpoint("POST", SMS_ENDPOINT));
+        retries.add(attempt);
+    }
+
+    private void finish(Attempt attempt, SmsResult.Status status, int httpStatus, String messageId, String error) {
+        if (status == SmsResult.Status.SENT) {
+            completedKeys.add(attempt.message.getKey());
+            sent.incrementAndGet();
+        } else if (status == SmsResult.Status.UNKNOWN) {
+            unknown.incrementAndGet();
+        } else {
+            failed.incrementAndGet();
+        }
+        try {
+            listener.onResult(new SmsResult(attempt.message, status, httpStatus, messageId, error, attempt.count));
+        } finally {
+            inFlight.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    /**
+     * Returns true if the request failed before any of it was written, so the server cannot have acted on it
+     */
+    private static boolean isBeforeSend(Request request, IOException e) {
+        //The platform reports requests it refused to make, such as without a valid token, with no request
+        return request == null || e instanceof ConnectException || e instanceof UnknownHostException
+                || e instanceof NoRouteToHostException;
+    }
+
+    private static long retryAfterMillis(Response response, int attempt) {
+        String retryAfter = response.header("Retry-After");
+        if (retryAfter != null) {
+            try {
+                return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+            } catch (NumberFormatException e) {
+                // Fall through to the default backoff
+            }
+        }
+        return 1000L * attempt;
+    }
+
+    private static class Attempt {
+        final SmsMessage message;
+        int count;
+
+        Attempt(SmsMessage message) {
+            this.message = message;
+        }
+    }
+}
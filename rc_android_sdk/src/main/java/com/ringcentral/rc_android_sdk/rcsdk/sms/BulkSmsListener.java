@@ -0,0 +1,17 @@
+package com.ringcentral.rc_android_sdk.rcsdk.sms;
+
+/**
+ * Receives per-recipient outcomes of a BulkSmsJob as they complete.
+ *
+ * onResult is called from OkHttp threads, possibly concurrently.
+ */
+public abstract class BulkSmsListener {
+
+    public abstract void onResult(SmsResult result);
+
+    /**
+     * Called once after the last result, when every message has been sent or the job was cancelled
+     */
+    public void onComplete(BulkSmsJob job) {
+    }
+}
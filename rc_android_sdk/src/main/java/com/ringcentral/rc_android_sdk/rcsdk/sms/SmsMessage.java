@@ -0,0 +1,48 @@
+package com.ringcentral.rc_android_sdk.rcsdk.sms;
+
+/**
+ * A single message of a bulk SMS job
+ */
+public class SmsMessage {
+
+    final String key;
+    final String to;
+    final String from;
+    final String text;
+
+    /**
+     * @param key  Identifies the message when resuming a job, must be unique within the job
+     * @param to   Phone number sending SMS to
+     * @param from Phone number sending SMS from
+     * @param text SMS text message body
+     */
+    public SmsMessage(String key, String to, String from, String text) {
+        this.key = key;
+        this.to = to;
+        this.from = from;
+        this.text = text;
+    }
+
+    /**
+     * Creates a message keyed by its recipient, for jobs that send at most one message per number
+     */
+    public SmsMessage(String to, String from, String text) {
+        this(to, to, from, text);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
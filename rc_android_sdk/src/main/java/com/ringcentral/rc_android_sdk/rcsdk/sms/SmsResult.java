@@ -0,0 +1,65 @@
+package com.ringcentral.rc_android_sdk.rcsdk.sms;
+
+/**
+ * Outcome of sending one message of a bulk SMS job
+ */
+public class SmsResult {
+
+    public enum Status {
+        SENT,
+        FAILED,
+        //The request may have reached the server, so the message may or may not have been sent
+        UNKNOWN,
+        SKIPPED
+    }
+
+    final SmsMessage message;
+    final Status status;
+    final int httpStatus;
+    final String messageId;
+    final String error;
+    final int attempts;
+
+    SmsResult(SmsMessage message, Status status, int httpStatus, String messageId, String error, int attempts) {
+        this.message = message;
+        this.status = status;
+        this.httpStatus = httpStatus;
+        this.messageId = messageId;
+        this.error = error;
+        this.attempts = attempts;
+    }
+
+    public SmsMessage getMessage() {
+        return message;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isSent() {
+        return status == Status.SENT;
+    }
+
+    /**
+     * HTTP status of the last attempt, or 0 if no response was received
+     */
+    public int getHttpStatus() {
+        return httpStatus;
+    }
+
+    /**
+     * Id of the created message in the message store, when sent
+     */
+    public String getMessageId() {
+        return messageId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+}
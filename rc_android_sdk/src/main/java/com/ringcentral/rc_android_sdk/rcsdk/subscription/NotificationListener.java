@@ -0,0 +1,17 @@
+package com.ringcentral.rc_android_sdk.rcsdk.subscription;
+
+import org.json.JSONObject;
+
+/**
+ * Receives decoded notifications of a Subscription, after the Pubnub callback passed to subscribe() has seen them.
+ *
+ * Methods are called on the Pubnub thread, so implementations should hand off any slow work.
+ */
+public abstract class NotificationListener {
+
+    /**
+     * @param event Event filter the notification was sent for, e.g. "/restapi/v1.0/account/~/extension/400/presence"
+     * @param body  Body of the notification
+     */
+    public abstract void onNotification(String event, JSONObject body);
+}
@@ -4,102 +4,358 @@ import android.util.Base64;
 
 import com.pubnub.api.Callback;
 import com.pubnub.api.Pubnub;
+import com.pubnub.api.PubnubError;
+import com.pubnub.api.PubnubException;
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.MetricsRegistry;
+import com.ringcentral.rc_android_sdk.rcsdk.model.Iso8601;
+import com.ringcentral.rc_android_sdk.rcsdk.model.SubscriptionInfo;
 import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.crypto.Cipher;
 import javax.crypto.spec.SecretKeySpec;
 
 /**
  * Created by andrew.pang on 7/15/15.
+ *
+ * The subscription state (id, filters, delivery address, keys and expiry) is serialized with the session, so a
+ * restored session can renew its subscription instead of creating a new one. The Pubnub connection and the
+ * listeners are not serialized.
+ *
+ * The state is updated from OkHttp threads while notifications are dispatched on Pubnub or WebHook threads, so
+ * it is guarded by the subscription itself. Pubnub calls and listeners run outside the lock.
  */
-public class Subscription{
+public class Subscription implements Serializable {
 
-    public Pubnub pubnub;
+    public transient Pubnub pubnub;
     ArrayList<String> eventFilters = new ArrayList<>();
     String expirationTime = "";
     int expiresIn = 0;
     public IDeliveryMode deliveryMode = new IDeliveryMode();
-    public String id = "";
+    public volatile String id = "";
     String creationTime = "";
     String status = "";
     String uri = "";
+    //Created on the first encrypted notification and reused while the encryption key stays the same
+    private transient Cipher cipher;
+    private transient String cipherKey;
+    private transient String pubnubSubscriberKey;
+    private transient CopyOnWriteArrayList<NotificationListener> listeners = new CopyOnWriteArrayList<>();
+    private transient volatile MetricsRegistry metrics;
 
-    public class IDeliveryMode {
-        public String transportType = "Pubnub";
-        public boolean encryption = false;
-        public String address = "";
-        public String subscriberKey = "";
-        public String secretKey = "";
-        public String encryptionKey = "";
+    public class IDeliveryMode implements Serializable {
+        public volatile String transportType = "Pubnub";
+        public volatile boolean encryption = false;
+        public volatile String address = "";
+        public volatile String subscriberKey = "";
+        public volatile String secretKey = "";
+        public volatile String encryptionKey = "";
+        public volatile String verificationToken = "";
     }
 
     public Subscription(){
     }
 
-    public void updateSubscription(JSONObject responseJson) throws JSONException{
+    public synchronized void updateSubscription(JSONObject responseJson) throws JSONException{
         id = responseJson.getString("id");
         JSONObject deliveryMode = responseJson.getJSONObject("deliveryMode");
         this.deliveryMode.encryptionKey = deliveryMode.getString("encryptionKey");
         this.deliveryMode.address = deliveryMode.getString("address");
         this.deliveryMode.subscriberKey = deliveryMode.getString("subscriberKey");
         this.deliveryMode.secretKey = deliveryMode.getString("secretKey");
+        expirationTime = responseJson.optString("expirationTime", expirationTime);
+        expiresIn = responseJson.optInt("expiresIn", expiresIn);
     }
 
-    public void setEncryptionKey(String encryptionKey) {
+    /**
+     * Updates the subscription from a typed subscription response
+     */
+    public synchronized void updateSubscription(SubscriptionInfo info) {
+        id = info.id;
+        if (info.expirationTime != null) {
+            expirationTime = info.expirationTime;
+        }
+        expiresIn = info.expiresIn;
+        if (info.status != null) {
+            status = info.status;
+        }
+        if (info.eventFilters != null) {
+            eventFilters = new ArrayList<>(info.eventFilters);
+        }
+        if (info.deliveryMode != null) {
+            if (info.deliveryMode.transportType != null) {
+                this.deliveryMode.transportType = info.deliveryMode.transportType;
+            }
+            this.deliveryMode.encryption = info.deliveryMode.encryption;
+            this.deliveryMode.encryptionKey = orEmpty(info.deliveryMode.encryptionKey);
+            this.deliveryMode.address = orEmpty(info.deliveryMode.address);
+            this.deliveryMode.subscriberKey = orEmpty(info.deliveryMode.subscriberKey);
+            this.deliveryMode.secretKey = orEmpty(info.deliveryMode.secretKey);
+            if (info.deliveryMode.verificationToken != null) {
+                this.deliveryMode.verificationToken = info.deliveryMode.verificationToken;
+            }
+        }
+    }
+
+    private static String orEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    /**
+     * Returns the expiration time in milliseconds since the epoch, or 0 if it is unknown
+     */
+    public synchronized long getExpirationMillis() {
+        return Iso8601.parse(expirationTime);
+    }
+
+    /**
+     * Returns true if the server subscription exists and has not expired yet
+     */
+    public synchronized boolean isActive() {
+        return id != null && !id.equals("") && getExpirationMillis() > System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the seconds the subscription lives after each renewal, as reported by the server
+     */
+    public synchronized int getExpiresIn() {
+        return expiresIn;
+    }
+
+    /**
+     * Returns the event filters on the server subscription
+     */
+    public synchronized ArrayList<String> getEventFilters() {
+        return new ArrayList<>(eventFilters);
+    }
+
+    /**
+     * Clears the server subscription state, e.g. after it was deleted or expired
+     */
+    public void reset() {
+        Pubnub subscribed;
+        String address;
+        synchronized (this) {
+            subscribed = isSubscribed() ? pubnub : null;
+            address = deliveryMode.address;
+            id = "";
+            expirationTime = "";
+            expiresIn = 0;
+            eventFilters = new ArrayList<>();
+        }
+        if (subscribed != null) {
+            subscribed.unsubscribe(address);
+        }
+    }
+
+    public synchronized void setEncryptionKey(String encryptionKey) {
         this.deliveryMode.encryptionKey = encryptionKey;
     }
 
-    public Pubnub getPubnub() {
+    public synchronized Pubnub getPubnub() {
         return pubnub;
     }
 
     public void subscribe(JSONObject subscriptionResponse, Callback c) {
         try {
             updateSubscription(subscriptionResponse);
-            pubnub = new Pubnub("", deliveryMode.subscriberKey, deliveryMode.secretKey);
-            pubnub.subscribe(this.deliveryMode.address, c);
+            connect(c);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Subscribes to Pubnub with a typed subscription response, see Transaction.getAs(SubscriptionInfo.class)
+     */
+    public void subscribe(SubscriptionInfo subscriptionResponse, Callback c) {
+        try {
+            updateSubscription(subscriptionResponse);
+            connect(c);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Adds a listener that receives every decoded notification of this subscription
+     */
+    public void addNotificationListener(NotificationListener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    public void removeNotificationListener(NotificationListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Sets the registry recording the delivery lag of each notification, see MetricsRegistry.getNotifications()
+     */
+    public void setMetrics(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Decodes a notification received just now and hands it to the notification listeners
+     */
+    void dispatch(Object message) {
+        dispatch(message, System.currentTimeMillis());
+    }
+
+    /**
+     * Decodes a Pubnub message and hands it to the notification listeners. The lag from the event's timestamp
+     * to receipt and the time spent decoding and in the listeners are recorded for every notification, also
+     * when there are no listeners or one throws.
+     */
+    private void dispatch(Object message, long receivedMillis) {
+        long start = System.nanoTime();
+        JSONObject notification;
+        try {
+            String encryptionKey;
+            if (message instanceof JSONObject) {
+                notification = (JSONObject) message;
+            } else if (!(encryptionKey = deliveryMode.encryptionKey).equals("")) {
+                notification = new JSONObject(notify(message.toString(), encryptionKey));
+            } else {
+                notification = new JSONObject(message.toString());
+            }
         } catch (Exception e) {
             e.printStackTrace();
+            return;
+        }
+        String event = notification.optString("event");
+        long timestamp = Iso8601.parse(notification.optString("timestamp", null));
+        long lag = timestamp == 0 ? -1 : Math.max(0, receivedMillis - timestamp);
+        try {
+            JSONObject body = notification.optJSONObject("body");
+            if (body != null) {
+                for (NotificationListener listener : listeners) {
+                    listener.onNotification(event, body);
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            MetricsRegistry registry = metrics;
+            if (registry != null) {
+                registry.recordNotification(registry.getNotification(event), lag, System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Passes Pubnub events on to the caller's callback, then dispatches messages to the notification listeners
+     */
+    class DispatchingCallback extends Callback {
+
+        private final Callback delegate;
+
+        DispatchingCallback(Callback delegate) {
+            this.delegate = delegate;
         }
+
+        @Override
+        public void successCallback(String channel, Object message, String timetoken) {
+            long receivedMillis = System.currentTimeMillis();
+            delegate.successCallback(channel, message, timetoken);
+            dispatch(message, receivedMillis);
+        }
+
+        @Override
+        public void errorCallback(String channel, PubnubError error) {
+            delegate.errorCallback(channel, error);
+        }
+
+        @Override
+        public void connectCallback(String channel, Object message) {
+            delegate.connectCallback(channel, message);
+        }
+
+        @Override
+        public void reconnectCallback(String channel, Object message) {
+            delegate.reconnectCallback(channel, message);
+        }
+
+        @Override
+        public void disconnectCallback(String channel, Object message) {
+            delegate.disconnectCallback(channel, message);
+        }
+    }
+
+    /**
+     * Subscribes to the delivery address, reusing the Pubnub client while the subscriber key stays the same so
+     * that one connection serves every subscribe
+     */
+    private synchronized void connect(Callback c) throws PubnubException {
+        if (pubnub == null || !deliveryMode.subscriberKey.equals(pubnubSubscriberKey)) {
+            if (pubnub != null) {
+                pubnub.shutdown();
+            }
+            pubnub = new Pubnub("", deliveryMode.subscriberKey, deliveryMode.secretKey);
+            pubnubSubscriberKey = deliveryMode.subscriberKey;
+        }
+        pubnub.subscribe(this.deliveryMode.address, new DispatchingCallback(c));
     }
 
-    public void addEvents(String[] events) {
+    public synchronized void addEvents(String[] events) {
+        //Replaced rather than changed in place, so the list is never modified while another thread reads it
+        ArrayList<String> filters = new ArrayList<>(this.eventFilters);
         for(String event:events){
-            this.eventFilters.add(event);
+            filters.add(event);
         }
+        this.eventFilters = filters;
     }
 
-    public void setEvents(String[] events){
+    public synchronized void setEvents(String[] events){
         this.eventFilters = new ArrayList<String>(Arrays.asList(events));
     }
 
-    private ArrayList getFullEventFilters(){
+    private synchronized ArrayList<String> getFullEventFilters(){
         return this.eventFilters;
     }
 
-    boolean isSubscribed(){
+    synchronized boolean isSubscribed(){
         return !(this.deliveryMode.subscriberKey.equals("") && this.deliveryMode.address.equals(""));
     }
 
     public void unsubscribe() {
-        if((this.pubnub != null) && this.isSubscribed())
-            this.pubnub.unsubscribe(deliveryMode.address);
+        Pubnub subscribed;
+        String address;
+        synchronized (this) {
+            subscribed = this.pubnub;
+            address = deliveryMode.address;
+            if (subscribed == null || !this.isSubscribed()) {
+                return;
+            }
+        }
+        subscribed.unsubscribe(address);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        listeners = new CopyOnWriteArrayList<>();
     }
 
-    public String notify(String message, String encryptionKey){
-        byte[] key = Base64.decode(encryptionKey, Base64.NO_WRAP);
-        SecretKeySpec skeySpec = new SecretKeySpec(key, "AES");
+    public synchronized String notify(String message, String encryptionKey){
         byte[] data = Base64.decode(message, Base64.NO_WRAP);
         String decryptedString = "";
         try {
-            Cipher cipher = Cipher.getInstance("AES/ECB/PKCS7Padding", "BC");
-            cipher.init(Cipher.DECRYPT_MODE, skeySpec);
+            if (cipher == null || !encryptionKey.equals(cipherKey)) {
+                byte[] key = Base64.decode(encryptionKey, Base64.NO_WRAP);
+                SecretKeySpec skeySpec = new SecretKeySpec(key, "AES");
+                cipher = Cipher.getInstance("AES/ECB/PKCS7Padding", "BC");
+                cipher.init(Cipher.DECRYPT_MODE, skeySpec);
+                cipherKey = encryptionKey;
+            }
             byte[] decrypted = cipher.doFinal(data);
             decryptedString = new String(decrypted);
         } catch(Exception e){
@@ -0,0 +1,554 @@
+package com.ringcentral.rc_android_sdk.rcsdk.subscription;
+
+import com.pubnub.api.Callback;
+import com.pubnub.api.PubnubError;
+import com.ringcentral.rc_android_sdk.rcsdk.http.Transaction;
+import com.ringcentral.rc_android_sdk.rcsdk.model.SubscriptionInfo;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.RequestBody;
+import com.squareup.okhttp.Response;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves many logical subscribers from one server subscription and one Pubnub connection.
+ *
+ * The server subscription carries the union of all registered event filters. When the union changes, the
+ * subscription is updated in place with a PUT, created when the first filter is added and deleted when the
+ * last one is removed. Only one request is in flight at a time; changes made meanwhile are sent together
+ * once it completes. Each notification is handed to the listeners whose filters match its event. A "~" in a
+ * filter stands for the authorized extension (the token's owner) or account, as it does on the server; while
+ * that id is unknown it matches any segment.
+ *
+ * Notifications are delivered over Pubnub unless setWebhook is called, in which case the server subscription
+ * uses WebHook delivery to a WebhookReceiver.
+ *
+ * A create or update that fails is retried with exponential backoff until it succeeds or the filters are
+ * gone. The server subscription is renewed shortly before it expires. A subscription restored with its
+ * session is renewed by resume() and its transport reattached, instead of creating a new one.
+ */
+public class SubscriptionManager extends NotificationListener {
+
+    private static final String SUBSCRIPTION_ENDPOINT = "/restapi/v1.0/subscription";
+    //Delay before retrying a renewal that failed on the network or a server error
+    private static final long RENEW_RETRY_MILLIS = 30000;
+    //First and longest delay before retrying a create or update that failed, doubling in between
+    private static final long SYNC_RETRY_MILLIS = 1000;
+    private static final long SYNC_RETRY_MAX_MILLIS = 300000;
+
+    private final Platform platform;
+    private final Subscription subscription;
+    private final LinkedHashMap<NotificationListener, List<String>> listeners = new LinkedHashMap<>();
+    //Filters currently on the server subscription
+    private TreeSet<String> serverFilters = new TreeSet<>();
+    private boolean updating;
+    //False until the first register, so a resumed subscription is not removed before its listeners are back
+    private boolean registered;
+    private WebhookReceiver webhookReceiver;
+    private String webhookAddress;
+    private String verificationToken;
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> renewal;
+    private ScheduledFuture<?> syncRetry;
+    private int syncFailures;
+    private volatile String accountId = "";
+    private volatile Callback transportCallback;
+
+    public SubscriptionManager(Platform platform, Subscription subscription) {
+        this.platform = platform;
+        this.subscription = subscription;
+        subscription.addNotificationListener(this);
+    }
+
+    /**
+     * Adds a subscriber for the given event filters, e.g. "/restapi/v1.0/account/~/extension/~/presence".
+     * Registering a listener again replaces its filters.
+     */
+    public void register(NotificationListener listener, String... eventFilters) {
+        List<String> filters = new ArrayList<>();
+        for (String filter : eventFilters) {
+            filters.add(normalize(filter));
+        }
+        synchronized (this) {
+            listeners.put(listener, filters);
+            registered = true;
+        }
+        sync();
+    }
+
+    public void unregister(NotificationListener listener) {
+        synchronized (this) {
+            if (listeners.remove(listener) == null) {
+                return;
+            }
+        }
+        sync();
+    }
+
+    /**
+     * Delivers notifications by WebHook instead of Pubnub. Must be called before the first register.
+     *
+     * @param receiver Started receiver that gets the notifications
+     * @param address  Public https URL at which RingCentral reaches the receiver
+     */
+    public void setWebhook(WebhookReceiver receiver, String address) {
+        String token = subscription.deliveryMode.verificationToken;
+        //A restored WebHook subscription keeps its token, so its notifications are still accepted
+        if (!"WebHook".equals(subscription.deliveryMode.transportType) || token == null || token.equals("")) {
+            token = UUID.randomUUID().toString().replace("-", "");
+            subscription.deliveryMode.verificationToken = token;
+        }
+        synchronized (this) {
+            if (webhookReceiver != null) {
+                webhookReceiver.unregister(verificationToken);
+            }
+            webhookReceiver = receiver;
+            webhookAddress = address;
+            verificationToken = token;
+        }
+        receiver.register(token, subscription);
+    }
+
+    /**
+     * Sets the id of the authorized account, which "~" stands for in the account segment of a filter
+     */
+    public void setAccountId(String accountId) {
+        this.accountId = accountId == null ? "" : accountId;
+    }
+
+    /**
+     * Sets the callback that receives the errors of the shared Pubnub connection
+     */
+    public void setTransportCallback(Callback callback) {
+        this.transportCallback = callback;
+    }
+
+    /**
+     * Returns the event filters currently on the server subscription
+     */
+    public synchronized List<String> getServerFilters() {
+        return new ArrayList<>(serverFilters);
+    }
+
+    @Override
+    public void onNotification(String event, JSONObject body) {
+        String path = stripQuery(event);
+        String extensionId = platform.getAuthData().getOwnerId();
+        String account = accountId;
+        List<NotificationListener> matched = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<NotificationListener, List<String>> entry : listeners.entrySet()) {
+                for (String filter : entry.getValue()) {
+                    if (matches(filter, path, account, extensionId)) {
+                        matched.add(entry.getKey());
+                        break;
+                    }
+                }
+            }
+        }
+        for (NotificationListener listener : matched) {
+            try {
+                listener.onNotification(event, body);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Brings the server subscription in line with the registered filters, unless a request is in flight
+     */
+    private void sync() {
+        TreeSet<String> wanted;
+        synchronized (this) {
+            if (updating) {
+                return;
+            }
+            wanted = wantedFilters();
+            if (wanted.isEmpty()) {
+                cancelSyncRetry();
+            }
+            if (wanted.equals(serverFilters)) {
+                return;
+            }
+            updating = true;
+        }
+        String id = subscription.id;
+        if (wanted.isEmpty()) {
+            remove(id);
+        } else if (id == null || id.equals("")) {
+            send("POST", SUBSCRIPTION_ENDPOINT, wanted);
+        } else {
+            send("PUT", SUBSCRIPTION_ENDPOINT + "/" + id, wanted);
+        }
+    }
+
+    private TreeSet<String> wantedFilters() {
+        TreeSet<String> wanted = new TreeSet<>();
+        for (List<String> filters : listeners.values()) {
+            wanted.addAll(filters);
+        }
+        return wanted;
+    }
+
+    private void send(final String method, String url, final TreeSet<String> filters) {
+        String json;
+        try {
+            JSONObject body = new JSONObject();
+            body.put("eventFilters", new JSONArray(filters));
+            if (method.equals("POST")) {
+                body.put("deliveryMode", deliveryMode());
+            }
+            json = body.toString();
+        } catch (JSONException e) {
+            finish(null, e);
+            return;
+        }
+        RequestBody requestBody = RequestBody.create(Platform.JSON_TYPE_MARKDOWN, json);
+        platform.sendRequest(method, url, requestBody, new HashMap<String, String>(), new com.squareup.okhttp.Callback() {
+            @Override
+            public void onFailure(Request request, IOException e) {
+                finish(null, e);
+                scheduleSync();
+            }
+
+            @Override
+            public void onResponse(Response response) throws IOException {
+                Transaction transaction = new Transaction(response);
+                if (method.equals("PUT") && response.code() == 404) {
+                    //The subscription expired or was deleted, create a new one
+                    response.body().close();
+                    subscription.reset();
+                    synchronized (SubscriptionManager.this) {
+                        serverFilters = new TreeSet<>();
+                    }
+                    finish(null, null);
+                    return;
+                }
+                if (!transaction.isOK()) {
+                    response.body().close();
+                    finish(null, new IOException("Unexpected code " + response));
+                    scheduleSync();
+                    return;
+                }
+                SubscriptionInfo info = transaction.getAs(SubscriptionInfo.class);
+                if (info == null) {
+                    finish(null, new IOException("Unreadable subscription response"));
+                    scheduleSync();
+                    return;
+                }
+                attach(info);
+                finish(filters, null);
+                scheduleRenewal();
+            }
+        });
+    }
+
+    /**
+     * Renews the subscription restored with the session and reattaches its transport. If it expired or no
+     * longer exists, a new one is created for the registered filters.
+     */
+    public void resume() {
+        boolean active;
+        synchronized (this) {
+            if (updating) {
+                return;
+            }
+            active = subscription.isActive();
+            if (active) {
+                updating = true;
+            } else {
+                if (!subscription.id.equals("")) {
+                    subscription.reset();
+                }
+                serverFilters = new TreeSet<>();
+            }
+        }
+        if (active) {
+            renew();
+        } else {
+            sync();
+        }
+    }
+
+    /**
+     * Extends the server subscription; expects updating to be set
+     */
+    private void renew() {
+        String url = SUBSCRIPTION_ENDPOINT + "/" + subscription.id + "/renew";
+        RequestBody body = RequestBody.create(Platform.JSON_TYPE_MARKDOWN, "");
+        platform.sendRequest("POST", url, body, new HashMap<String, String>(), new com.squareup.okhttp.Callback() {
+            @Override
+            public void onFailure(Request request, IOException e) {
+                finish(null, e);
+                scheduleRenewal(RENEW_RETRY_MILLIS);
+            }
+
+            @Override
+            public void onResponse(Response response) throws IOException {
+                Transaction transaction = new Transaction(response);
+                if (response.code() >= 400 && response.code() < 500 && response.code() != 429) {
+                    //Gone or expired, the registered filters go to a new subscription
+                    response.body().close();
+                    subscription.reset();
+                    synchronized (SubscriptionManager.this) {
+                        serverFilters = new TreeSet<>();
+                    }
+                    finish(null, null);
+                    return;
+                }
+                if (!transaction.isOK()) {
+                    response.body().close();
+                    finish(null, new IOException("Unexpected code " + response));
+                    scheduleRenewal(RENEW_RETRY_MILLIS);
+                    return;
+                }
+                SubscriptionInfo info = transaction.getAs(SubscriptionInfo.class);
+                if (info == null) {
+                    finish(null, new IOException("Unreadable subscription response"));
+                    scheduleRenewal(RENEW_RETRY_MILLIS);
+                    return;
+                }
+                attach(info);
+                finish(info.eventFilters == null ? null : new TreeSet<>(info.eventFilters), null);
+                scheduleRenewal();
+            }
+        });
+    }
+
+    /**
+     * Stores a subscription response and connects its transport if needed
+     */
+    private void attach(SubscriptionInfo info) {
+        boolean webhook = info.deliveryMode != null && "WebHook".equalsIgnoreCase(info.deliveryMode.transportType);
+        String address = subscription.deliveryMode.address;
+        if (webhook || isWebhook()) {
+            subscription.updateSubscription(info);
+        } else if (subscription.getPubnub() == null || info.deliveryMode == null || !address.equals(info.deliveryMode.address)) {
+            subscription.unsubscribe();
+            subscription.subscribe(info, new TransportCallback());
+        } else {
+            subscription.updateSubscription(info);
+        }
+    }
+
+    private void scheduleRenewal() {
+        long expiresAt = subscription.getExpirationMillis();
+        if (expiresAt == 0) {
+            return;
+        }
+        //Renew ahead of expiry by a tenth of the lifetime, at least a minute
+        long margin = Math.max(60000, subscription.getExpiresIn() * 100L);
+        scheduleRenewal(Math.max(0, expiresAt - System.currentTimeMillis() - margin));
+    }
+
+    private synchronized void scheduleRenewal(long delayMillis) {
+        if (renewal != null) {
+            renewal.cancel(false);
+        }
+        renewal = scheduler().schedule(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (SubscriptionManager.this) {
+                    if (updating) {
+                        //A request is in flight, try again once it is done
+                        scheduleRenewal(1000);
+                        return;
+                    }
+                    if (subscription.id.equals("")) {
+                        return;
+                    }
+                    updating = true;
+                }
+                renew();
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Retries a failed create or update, waiting twice as long after each failure in a row
+     */
+    private synchronized void scheduleSync() {
+        if (syncRetry != null) {
+            syncRetry.cancel(false);
+        }
+        long delay = Math.min(SYNC_RETRY_MAX_MILLIS, SYNC_RETRY_MILLIS << Math.min(syncFailures, 20));
+        syncFailures++;
+        syncRetry = scheduler().schedule(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (SubscriptionManager.this) {
+                    syncRetry = null;
+                }
+                sync();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void cancelSyncRetry() {
+        if (syncRetry != null) {
+            syncRetry.cancel(false);
+            syncRetry = null;
+        }
+        syncFailures = 0;
+    }
+
+    private synchronized ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "rc-subscription");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return scheduler;
+    }
+
+    private synchronized void cancelRenewal() {
+        if (renewal != null) {
+            renewal.cancel(false);
+            renewal = null;
+        }
+    }
+
+    private synchronized boolean isWebhook() {
+        return webhookReceiver != null;
+    }
+
+    private synchronized JSONObject deliveryMode() throws JSONException {
+        if (webhookReceiver != null) {
+            return new JSONObject().put("transportType", "WebHook").put("address", webhookAddress)
+                    .put("verificationToken", verificationToken);
+        }
+        return new JSONObject().put("transportType", "PubNub").put("encryption", false);
+    }
+
+    private void remove(String id) {
+        if (id == null || id.equals("")) {
+            finish(new TreeSet<String>(), null);
+            return;
+        }
+        cancelRenewal();
+        subscription.unsubscribe();
+        platform.sendRequest("DELETE", SUBSCRIPTION_ENDPOINT + "/" + id, null, new HashMap<String, String>(), new com.squareup.okhttp.Callback() {
+            @Override
+            public void onFailure(Request request, IOException e) {
+                //The server subscription expires on its own
+                e.printStackTrace();
+                subscription.reset();
+                finish(new TreeSet<String>(), null);
+            }
+
+            @Override
+            public void onResponse(Response response) throws IOException {
+                response.body().close();
+                subscription.reset();
+                finish(new TreeSet<String>(), null);
+            }
+        });
+    }
+
+    /**
+     * Ends the request in flight and starts the next one if the filters changed meanwhile
+     *
+     * @param applied Filters now on the server, or null if they did not change
+     */
+    private void finish(TreeSet<String> applied, Exception error) {
+        boolean again;
+        synchronized (this) {
+            updating = false;
+            if (applied != null) {
+                serverFilters = applied;
+            }
+            if (error == null) {
+                syncFailures = 0;
+            }
+            //After a failure, a scheduled retry or the next change starts the next request, never a loop
+            again = error == null && registered && !wantedFilters().equals(serverFilters);
+        }
+        if (error != null) {
+            error.printStackTrace();
+        }
+        if (again) {
+            sync();
+        }
+    }
+
+    /**
+     * Adds the API prefix to filters given without it
+     */
+    static String normalize(String filter) {
+        return filter.startsWith("/restapi/") ? filter : "/restapi/v1.0" + (filter.startsWith("/") ? "" : "/") + filter;
+    }
+
+    /**
+     * Matches a notification's event path against a filter, where "~" in the filter stands for the given account
+     * or extension id, depending on the segment before it, and matches any segment if that id is empty.
+     * Query parameters of the filter are ignored.
+     */
+    static boolean matches(String filter, String eventPath, String accountId, String extensionId) {
+        String[] filterSegments = stripQuery(filter).split("/");
+        String[] eventSegments = eventPath.split("/");
+        if (filterSegments.length != eventSegments.length) {
+            return false;
+        }
+        for (int i = 0; i < filterSegments.length; i++) {
+            String segment = filterSegments[i];
+            if (segment.equals("~") && i > 0) {
+                String owner = filterSegments[i - 1].equals("account") ? accountId
+                        : filterSegments[i - 1].equals("extension") ? extensionId : "";
+                segment = owner == null || owner.equals("") ? eventSegments[i] : owner;
+            }
+            if (!segment.equals(eventSegments[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String stripQuery(String path) {
+        int query = path.indexOf('?');
+        return query < 0 ? path : path.substring(0, query);
+    }
+
+    /**
+     * Pubnub callback of the shared connection; notifications reach subscribers through onNotification and
+     * errors the transport callback
+     */
+    private class TransportCallback extends Callback {
+
+        @Override
+        public void successCallback(String channel, Object message) {
+        }
+
+        @Override
+        public void errorCallback(String channel, PubnubError error) {
+            Callback callback = transportCallback;
+            if (callback != null) {
+                callback.errorCallback(channel, error);
+            } else {
+                new IOException("Pubnub error on " + channel + ": " + error).printStackTrace();
+            }
+        }
+    }
+}
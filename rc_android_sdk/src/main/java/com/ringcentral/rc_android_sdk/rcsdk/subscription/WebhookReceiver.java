@@ -0,0 +1,334 @@
+package com.ringcentral.rc_android_sdk.rcsdk.subscription;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.Okio;
+
+/**
+ * Minimal HTTP server receiving WebHook notifications for any number of subscriptions, e.g. of many accounts.
+ *
+ * Every WebHook subscription is created with its own verification token, which RingCentral sends back in the
+ * Verification-Token header of each notification. The receiver looks the token up and hands the notification
+ * to that subscription's listeners, the same dispatch Pubnub notifications go through. Requests with an
+ * unknown token are refused with 403. The Validation-Token request sent while a subscription is created is
+ * answered by echoing the token; a token that is not visible ASCII is refused with 400, so a caller cannot
+ * inject header lines into the response.
+ *
+ * The receiver speaks plain HTTP with keep-alive; put it behind a TLS-terminating proxy, since RingCentral
+ * only delivers to https addresses.
+ */
+public class WebhookReceiver {
+
+    private static final int MAX_BODY_BYTES = 1024 * 1024;
+    private static final int READ_TIMEOUT_MILLIS = 60000;
+    private static final int MAX_TOKEN_LENGTH = 256;
+
+    private final int port;
+    private final InetAddress bindAddress;
+    private final ConcurrentHashMap<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private int threads = 8;
+    private ServerSocket serverSocket;
+    private ExecutorService executor;
+
+    /**
+     * @param port Port to listen on, or 0 for any free port
+     */
+    public WebhookReceiver(int port) {
+        this(null, port);
+    }
+
+    /**
+     * @param bindAddress Local address to listen on, or null for all addresses
+     * @param port        Port to listen on, or 0 for any free port
+     */
+    public WebhookReceiver(InetAddress bindAddress, int port) {
+        this.bindAddress = bindAddress;
+        this.port = port;
+    }
+
+    /**
+     * Maximum number of connections served at once, 8 by default. Must be set before start.
+     */
+    public synchronized void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    public synchronized void start() throws IOException {
+        if (serverSocket != null) {
+            return;
+        }
+        serverSocket = new ServerSocket(port, 50, bindAddress);
+        executor = Executors.newFixedThreadPool(threads + 1, new ThreadFactory() {
+            private int count;
+
+            @Override
+            public synchronized Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "rc-webhook-" + count++);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        final ServerSocket socket = serverSocket;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                accept(socket);
+            }
+        });
+    }
+
+    /**
+     * Closes the listening socket; connections being served are finished
+     */
+    public synchronized void stop() {
+        if (serverSocket == null) {
+            return;
+        }
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        executor.shutdown();
+        serverSocket = null;
+        executor = null;
+    }
+
+    /**
+     * Returns the port the receiver listens on, or -1 if it is not started
+     */
+    public synchronized int getPort() {
+        return serverSocket == null ? -1 : serverSocket.getLocalPort();
+    }
+
+    /**
+     * Routes notifications carrying the verification token to the subscription
+     */
+    public void register(String verificationToken, Subscription subscription) {
+        subscriptions.put(verificationToken, subscription);
+    }
+
+    public void unregister(String verificationToken) {
+        subscriptions.remove(verificationToken);
+    }
+
+    private void accept(ServerSocket server) {
+        while (true) {
+            final Socket socket;
+            try {
+                socket = server.accept();
+            } catch (SocketException e) {
+                //Closed by stop()
+                return;
+            } catch (IOException e) {
+                e.printStackTrace();
+                continue;
+            }
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        serve(socket);
+                    }
+                });
+            } catch (Exception e) {
+                //Stopped while accepting
+                closeQuietly(socket);
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try {
+            socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+            BufferedSource in = Okio.buffer(Okio.source(socket));
+            BufferedSink out = Okio.buffer(Okio.sink(socket));
+            while (serveRequest(in, out)) {
+                out.flush();
+            }
+            out.flush();
+        } catch (IOException e) {
+            //The sender closed or timed out an idle connection
+        } finally {
+            closeQuietly(socket);
+        }
+    }
+
+    /**
+     * Reads one request and writes its response
+     *
+     * @return false if the connection must be closed
+     */
+    private boolean serveRequest(BufferedSource in, BufferedSink out) throws IOException {
+        String requestLine = in.readUtf8Line();
+        if (requestLine == null) {
+            return false;
+        }
+        if (requestLine.length() == 0) {
+            //Stray line break between requests
+            return true;
+        }
+        String[] parts = requestLine.split(" ");
+        HashMap<String, String> headers = new HashMap<>();
+        String line;
+        while ((line = in.readUtf8LineStrict()).length() != 0) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim().toLowerCase(Locale.US), line.substring(colon + 1).trim());
+            }
+        }
+        boolean keepAlive = parts.length < 3 || !parts[2].equals("HTTP/1.0")
+                ? !"close".equalsIgnoreCase(headers.get("connection"))
+                : "keep-alive".equalsIgnoreCase(headers.get("connection"));
+
+        Buffer body = new Buffer();
+        if ("chunked".equalsIgnoreCase(headers.get("transfer-encoding"))) {
+            if (!readChunked(in, body)) {
+                respond(out, 413, null, false);
+                return false;
+            }
+        } else if (headers.containsKey("content-length")) {
+            long length;
+            try {
+                length = Long.parseLong(headers.get("content-length"));
+            } catch (NumberFormatException e) {
+                respond(out, 400, null, false);
+                return false;
+            }
+            if (length > MAX_BODY_BYTES) {
+                respond(out, 413, null, false);
+                return false;
+            }
+            in.readFully(body, length);
+        }
+
+        if (parts.length < 2 || !parts[0].equals("POST")) {
+            respond(out, 405, null, keepAlive);
+            return keepAlive;
+        }
+        String validationToken = headers.get("validation-token");
+        if (validationToken != null) {
+            if (!isToken(validationToken)) {
+                respond(out, 400, null, keepAlive);
+                return keepAlive;
+            }
+            respond(out, 200, validationToken, keepAlive);
+            return keepAlive;
+        }
+        String verificationToken = headers.get("verification-token");
+        Subscription subscription = verificationToken == null ? null : subscriptions.get(verificationToken);
+        if (subscription == null) {
+            respond(out, 403, null, keepAlive);
+            return keepAlive;
+        }
+        JSONObject notification;
+        try {
+            notification = new JSONObject(body.readUtf8());
+        } catch (JSONException e) {
+            respond(out, 400, null, keepAlive);
+            return keepAlive;
+        }
+        //Answer before dispatching, so a slow listener does not make RingCentral retry the delivery
+        respond(out, 200, null, keepAlive);
+        out.flush();
+        subscription.dispatch(notification);
+        return keepAlive;
+    }
+
+    /**
+     * Reads a chunked body
+     *
+     * @return false if the body is too large
+     */
+    private static boolean readChunked(BufferedSource in, Buffer body) throws IOException {
+        while (true) {
+            String sizeLine = in.readUtf8LineStrict();
+            int extension = sizeLine.indexOf(';');
+            long size;
+            try {
+                size = Long.parseLong((extension < 0 ? sizeLine : sizeLine.substring(0, extension)).trim(), 16);
+            } catch (NumberFormatException e) {
+                throw new IOException("Bad chunk size: " + sizeLine);
+            }
+            if (size == 0) {
+                //Skip trailers
+                while (in.readUtf8LineStrict().length() != 0) {
+                }
+                return true;
+            }
+            if (body.size() + size > MAX_BODY_BYTES) {
+                return false;
+            }
+            in.readFully(body, size);
+            in.readUtf8LineStrict();
+        }
+    }
+
+    /**
+     * Accepts 1 to 256 visible ASCII characters, the only ones echoed into a response header
+     */
+    static boolean isToken(String value) {
+        if (value.length() == 0 || value.length() > MAX_TOKEN_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x21 || c > 0x7e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void respond(BufferedSink out, int code, String validationToken, boolean keepAlive) throws IOException {
+        out.writeUtf8("HTTP/1.1 " + code + " " + reason(code) + "\r\n");
+        if (validationToken != null) {
+            out.writeUtf8("Validation-Token: " + validationToken + "\r\n");
+        }
+        out.writeUtf8("Content-Length: 0\r\n");
+        if (!keepAlive) {
+            out.writeUtf8("Connection: close\r\n");
+        }
+        out.writeUtf8("\r\n");
+    }
+
+    private static String reason(int code) {
+        switch (code) {
+            case 200:
+                return "OK";
+            case 400:
+                return "Bad Request";
+            case 403:
+                return "Forbidden";
+            case 405:
+                return "Method Not Allowed";
+            default:
+                return "Payload Too Large";
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            //Already closed
+        }
+    }
+}
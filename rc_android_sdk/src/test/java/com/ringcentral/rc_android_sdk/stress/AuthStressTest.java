@@ -0,0 +1,164 @@
+package com.ringcentral.rc_android_sdk.stress;
+
+import com.ringcentral.rc_android_sdk.rcsdk.model.TokenResponse;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Auth;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Token reads racing token refreshes
+ */
+public class AuthStressTest {
+
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    /**
+     * Readers must always see the token type and access token of the same token response
+     */
+    @Test
+    public void authHeaderNeverMixesTwoTokens() throws Exception {
+        final Auth auth = new Auth();
+        new StressRunner(4, 20000).run(new StressRunner.Actor() {
+            @Override
+            public void act(int thread, int iteration) {
+                String n = thread + "-" + iteration;
+                if (iteration % 2 == 0) {
+                    TokenResponse token = new TokenResponse();
+                    token.tokenType = "type" + n;
+                    token.accessToken = "token" + n;
+                    token.expiresIn = 3600;
+                    auth.setData(token);
+                } else {
+                    HashMap<String, String> data = new HashMap<>();
+                    data.put("token_type", "type" + n);
+                    data.put("access_token", "token" + n);
+                    data.put("expires_in", "3600");
+                    auth.setData(data);
+                }
+                if (iteration % 100 == 0) {
+                    auth.reset();
+                }
+            }
+        }, new StressRunner.Actor() {
+            @Override
+            public void act(int thread, int iteration) {
+                String header = auth.getAuthHeader();
+                String[] parts = header.split(" ", -1);
+                assertEquals(header, 2, parts.length);
+                if (parts[0].isEmpty()) {
+                    assertEquals(header, "", parts[1]);
+                } else {
+                    assertEquals(header, parts[0].substring("type".length()), parts[1].substring("token".length()));
+                }
+                //Must not throw while another thread resets the expiry
+                auth.isAccessTokenValid();
+                auth.isRefreshTokenValid();
+            }
+        });
+    }
+
+    /**
+     * Requests fanned out with an expired token trigger one refresh at a time, and every request that is sent
+     * carries a token the server issued
+     */
+    @Test
+    public void concurrentRequestsShareOneRefresh() throws Exception {
+        final AtomicInteger refreshes = new AtomicInteger();
+        final AtomicInteger refreshesInFlight = new AtomicInteger();
+        final AtomicInteger maxRefreshesInFlight = new AtomicInteger();
+        final ConcurrentLinkedQueue<String> badHeaders = new ConcurrentLinkedQueue<>();
+        final ConcurrentHashMap<String, Boolean> issuedTokens = new ConcurrentHashMap<>();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                if (request.getPath().equals("/restapi/oauth/token")) {
+                    int inFlight = refreshesInFlight.incrementAndGet();
+                    while (true) {
+                        int max = maxRefreshesInFlight.get();
+                        if (inFlight <= max || maxRefreshesInFlight.compareAndSet(max, inFlight)) {
+                            break;
+                        }
+                    }
+                    Thread.sleep(20);
+                    String token = "token" + refreshes.incrementAndGet();
+                    issuedTokens.put(token, true);
+                    refreshesInFlight.decrementAndGet();
+                    return new MockResponse().setBody("{\"token_type\":\"bearer\",\"access_token\":\"" + token
+                            + "\",\"expires_in\":1,\"refresh_token\":\"refresh\",\"refresh_token_expires_in\":3600}");
+                }
+                String header = request.getHeader("Authorization");
+                if (header == null || !header.startsWith("bearer ") || !issuedTokens.containsKey(header.substring(7))) {
+                    badHeaders.add(String.valueOf(header));
+                }
+                return new MockResponse().setBody("{}");
+            }
+        });
+        final Platform platform = new Platform("key", "secret", server.getUrl("").toString().replaceAll("/$", ""));
+        TokenResponse expired = new TokenResponse();
+        expired.tokenType = "bearer";
+        expired.accessToken = "expired";
+        expired.expiresIn = 0;
+        expired.refreshToken = "refresh";
+        expired.refreshTokenExpiresIn = 3600;
+        platform.setAuthData(expired);
+
+        final int threads = 8;
+        final int iterations = 150;
+        final CountDownLatch done = new CountDownLatch(threads * iterations);
+        final ConcurrentLinkedQueue<String> unexpected = new ConcurrentLinkedQueue<>();
+        new StressRunner(threads, iterations).run(new StressRunner.Actor() {
+            @Override
+            public void act(int thread, int iteration) throws Exception {
+                platform.get("/restapi/v1.0/account/~", new HashMap<String, String>(), new OnceCallback(done, unexpected) {
+                    @Override
+                    boolean isExpected(IOException e) {
+                        //Requests made while the refresh is in flight are refused
+                        return "Access token is expired".equals(e.getMessage());
+                    }
+                });
+                Thread.sleep(10);
+            }
+        });
+        assertTrue("Callbacks missing", done.await(30, TimeUnit.SECONDS));
+        assertTrue(unexpected.toString(), unexpected.isEmpty());
+        assertTrue(badHeaders.toString(), badHeaders.isEmpty());
+        assertEquals(1, maxRefreshesInFlight.get());
+        assertTrue(refreshes.get() >= 1);
+        //The last refresh may still be completing
+        assertTrue(StressRunner.await(new StressRunner.Condition() {
+            @Override
+            public boolean holds() {
+                return platform.getMetrics().getTokenRefreshCount() == refreshes.get();
+            }
+        }, 10000));
+    }
+}
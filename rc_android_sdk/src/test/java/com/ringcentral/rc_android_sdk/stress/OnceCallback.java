@@ -0,0 +1,74 @@
+package com.ringcentral.rc_android_sdk.stress;
+
+import com.squareup.okhttp.Callback;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Callback of one request that counts down when it is called and records anything but a successful response
+ * or an expected failure, including a failure reading the body and a second call for the same request
+ */
+class OnceCallback implements Callback {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CountDownLatch done;
+    private final ConcurrentLinkedQueue<String> unexpected;
+
+    OnceCallback(CountDownLatch done, ConcurrentLinkedQueue<String> unexpected) {
+        this.done = done;
+        this.unexpected = unexpected;
+    }
+
+    /**
+     * Returns true for failures the scenario allows, none by default
+     */
+    boolean isExpected(IOException e) {
+        return false;
+    }
+
+    /**
+     * Checks the body of a successful response
+     */
+    void onBody(String body) {
+    }
+
+    @Override
+    public void onFailure(Request request, IOException e) {
+        if (!isExpected(e)) {
+            unexpected.add("failure: " + e);
+        }
+        called();
+    }
+
+    @Override
+    public void onResponse(Response response) throws IOException {
+        try {
+            if (response.isSuccessful()) {
+                onBody(response.body().string());
+            } else {
+                response.body().close();
+                unexpected.add("response: " + response.code());
+            }
+        } catch (IOException e) {
+            //OkHttp only logs an exception thrown here, so the read failure is judged like any other
+            if (!isExpected(e)) {
+                unexpected.add("reading body: " + e);
+            }
+        } finally {
+            called();
+        }
+    }
+
+    private void called() {
+        int count = calls.incrementAndGet();
+        if (count > 1) {
+            unexpected.add("callback called " + count + " times");
+        }
+        done.countDown();
+    }
+}
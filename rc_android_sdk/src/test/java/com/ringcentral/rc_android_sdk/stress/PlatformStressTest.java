@@ -0,0 +1,144 @@
+package com.ringcentral.rc_android_sdk.stress;
+
+import com.ringcentral.rc_android_sdk.rcsdk.http.RequestOptions;
+import com.ringcentral.rc_android_sdk.rcsdk.metrics.EndpointMetrics;
+import com.ringcentral.rc_android_sdk.rcsdk.model.TokenResponse;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * API calls fanned out from many threads over the shared client
+ */
+public class PlatformStressTest {
+
+    private MockWebServer server;
+    private Platform platform;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                //Echo the path, so a response handed to the wrong callback is caught
+                return new MockResponse().setBody("{\"path\":\"" + request.getPath() + "\"}")
+                        .setBodyDelay(1, TimeUnit.MILLISECONDS);
+            }
+        });
+        server.start();
+        platform = new Platform("key", "secret", server.getUrl("").toString().replaceAll("/$", ""));
+        TokenResponse token = new TokenResponse();
+        token.tokenType = "bearer";
+        token.accessToken = "abc";
+        token.expiresIn = 3600;
+        platform.setAuthData(token);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    /**
+     * Every call gets exactly one callback, with its own response, and is counted once in the metrics
+     */
+    @Test
+    public void fanOutCallsBackEachRequestOnce() throws Exception {
+        final int threads = 16;
+        final int iterations = 50;
+        final CountDownLatch done = new CountDownLatch(threads * iterations);
+        final ConcurrentLinkedQueue<String> unexpected = new ConcurrentLinkedQueue<>();
+        new StressRunner(threads, iterations).run(new StressRunner.Actor() {
+            @Override
+            public void act(int thread, int iteration) {
+                final String path = "/restapi/v1.0/account/~/extension/" + thread + "/message-store/" + iteration;
+                platform.apiCall("GET", path, null, new HashMap<String, String>(), new OnceCallback(done, unexpected) {
+                    @Override
+                    void onBody(String body) {
+                        if (!body.contains("\"" + path + "\"")) {
+                            unexpected.add(path + " got " + body);
+                        }
+                    }
+                });
+            }
+        });
+        assertTrue("Callbacks missing", done.await(30, TimeUnit.SECONDS));
+        assertTrue(unexpected.toString(), unexpected.isEmpty());
+        assertEquals(threads * iterations, server.getRequestCount());
+        assertTrue(StressRunner.await(new StressRunner.Condition() {
+            @Override
+            public boolean holds() {
+                return platform.getRequestsInFlight() == 0;
+            }
+        }, 10000));
+        long counted = 0;
+        for (EndpointMetrics metrics : platform.getMetrics().getEndpoints()) {
+            counted += metrics.getRequestCount();
+        }
+        assertEquals(threads * iterations, counted);
+    }
+
+    /**
+     * Tags are cancelled while their requests are being sent; each request ends once, either answered or
+     * cancelled, and none stays registered with the session
+     */
+    @Test
+    public void cancelRacesFanOut() throws Exception {
+        final int threads = 8;
+        final int iterations = 100;
+        final CountDownLatch done = new CountDownLatch(threads * iterations);
+        final ConcurrentLinkedQueue<String> unexpected = new ConcurrentLinkedQueue<>();
+        final AtomicInteger cancelled = new AtomicInteger();
+        new StressRunner(threads, iterations).run(new StressRunner.Actor() {
+            @Override
+            public void act(int thread, int iteration) {
+                RequestOptions options = new RequestOptions();
+                options.setTag("tag" + iteration % 4);
+                platform.sendRequest("GET", "/restapi/v1.0/account/~", null, new HashMap<String, String>(), options,
+                        new OnceCallback(done, unexpected) {
+                            @Override
+                            boolean isExpected(IOException e) {
+                                cancelled.incrementAndGet();
+                                //A cancel while the body is read closes the socket under the reader
+                                return "Canceled".equals(e.getMessage()) || "Socket closed".equals(e.getMessage());
+                            }
+                        });
+            }
+        }, new StressRunner.Actor() {
+            @Override
+            public void act(int thread, int iteration) throws Exception {
+                if (thread == 0) {
+                    platform.cancel("tag" + iteration % 4);
+                    Thread.sleep(1);
+                }
+            }
+        });
+        assertTrue("Callbacks missing", done.await(30, TimeUnit.SECONDS));
+        assertTrue(unexpected.toString(), unexpected.isEmpty());
+        assertTrue(StressRunner.await(new StressRunner.Condition() {
+            @Override
+            public boolean holds() {
+                return platform.getRequestsInFlight() == 0;
+            }
+        }, 10000));
+        //The server answered everything that was not cancelled before it was sent
+        assertTrue(server.getRequestCount() >= threads * iterations - cancelled.get());
+    }
+}
@@ -0,0 +1,114 @@
+package com.ringcentral.rc_android_sdk.stress;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs actors on many threads at once, in the style of jcstress: every thread waits on one start gate so the
+ * operations really overlap, then runs its actor for a number of iterations. Any exception or failed check in
+ * an actor fails the run, as does a thread that does not finish in time, e.g. because of a deadlock.
+ */
+public class StressRunner {
+
+    private static final long TIMEOUT_SECONDS = 60;
+
+    private final int threadsPerActor;
+    private final int iterations;
+
+    /**
+     * Operation run by the threads of one actor
+     */
+    public static abstract class Actor {
+
+        /**
+         * @param thread    Index of the thread among the actor's threads
+         * @param iteration Index of the iteration on that thread
+         */
+        public abstract void act(int thread, int iteration) throws Exception;
+    }
+
+    /**
+     * Condition polled by await
+     */
+    public static abstract class Condition {
+        public abstract boolean holds() throws Exception;
+    }
+
+    public StressRunner(int threadsPerActor, int iterations) {
+        this.threadsPerActor = threadsPerActor;
+        this.iterations = iterations;
+    }
+
+    /**
+     * Runs every actor on its own threads, all released together, and waits until they are done
+     */
+    public void run(Actor... actors) throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        final ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int a = 0; a < actors.length; a++) {
+            final Actor actor = actors[a];
+            for (int t = 0; t < threadsPerActor; t++) {
+                final int thread = t;
+                Thread worker = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            start.await();
+                            for (int i = 0; i < iterations; i++) {
+                                actor.act(thread, i);
+                            }
+                        } catch (Throwable e) {
+                            failures.add(e);
+                        }
+                    }
+                }, "stress-" + a + "-" + t);
+                worker.setDaemon(true);
+                worker.start();
+                threads.add(worker);
+            }
+        }
+        start.countDown();
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS);
+        for (Thread worker : threads) {
+            worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+            if (worker.isAlive()) {
+                failures.add(new AssertionError(worker.getName() + " did not finish, stuck at "
+                        + stackOf(worker)));
+                worker.interrupt();
+            }
+        }
+        if (!failures.isEmpty()) {
+            AssertionError error = new AssertionError(failures.size() + " actor failures, first: " + failures.peek());
+            error.initCause(failures.peek());
+            throw error;
+        }
+    }
+
+    /**
+     * Waits until the condition holds, e.g. until asynchronous work started by the actors has settled
+     *
+     * @return false if it still does not hold after the timeout
+     */
+    public static boolean await(Condition condition, long timeoutMillis) throws Exception {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!condition.holds()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    private static String stackOf(Thread thread) {
+        StringBuilder stack = new StringBuilder();
+        for (StackTraceElement element : thread.getStackTrace()) {
+            stack.append("\n\tat ").append(element);
+        }
+        return stack.toString();
+    }
+}
@@ -0,0 +1,250 @@
+package com.ringcentral.rc_android_sdk.stress;
+
+import com.ringcentral.rc_android_sdk.rcsdk.model.Iso8601;
+import com.ringcentral.rc_android_sdk.rcsdk.model.SubscriptionInfo;
+import com.ringcentral.rc_android_sdk.rcsdk.model.TokenResponse;
+import com.ringcentral.rc_android_sdk.rcsdk.platform.Platform;
+import com.ringcentral.rc_android_sdk.rcsdk.subscription.NotificationListener;
+import com.ringcentral.rc_android_sdk.rcsdk.subscription.Subscription;
+import com.ringcentral.rc_android_sdk.rcsdk.subscription.SubscriptionManager;
+import com.ringcentral.rc_android_sdk.rcsdk.subscription.WebhookReceiver;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Subscribe, renew and unsubscribe racing each other and the readers of the subscription state
+ */
+public class SubscriptionStressTest {
+
+    private static final String ENDPOINT = "/restapi/v1.0/subscription";
+
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    /**
+     * Readers see the id and filters of one subscription response at a time, plus any events added to it, and
+     * never a list being modified
+     */
+    @Test
+    public void subscriptionStateIsReplacedWhole() throws Exception {
+        final Subscription subscription = new Subscription();
+        new StressRunner(2, 20000).run(new StressRunner.Actor() {
+            @Override
+            public void act(int thread, int iteration) {
+                String n = thread + "-" + iteration;
+                SubscriptionInfo info = new SubscriptionInfo();
+                info.id = "sub-" + n;
+                info.expiresIn = 900;
+                info.expirationTime = Iso8601.format(System.currentTimeMillis() + 900000);
+                info.eventFilters = Arrays.asList("/a/" + n, "/b/" + n);
+                subscription.updateSubscription(info);
+            }
+        }, new StressRunner.Actor() {
+            @Override
+            public void act(int thread, int iteration) {
+                if (iteration % 10 == 0) {
+                    subscription.reset();
+                } else {
+                    subscription.addEvents(new String[]{"/extra"});
+                }
+            }
+        }, new StressRunner.Actor() {
+            @Override
+            public void act(int thread, int iteration) {
+                String id;
+                List<String> filters;
+                //The subscription is its own lock, so both are read from the same state
+                synchronized (subscription) {
+                    id = subscription.id;
+                    filters = subscription.getEventFilters();
+                }
+                for (String filter : filters) {
+                    if (!filter.equals("/extra")) {
+                        assertEquals(filters.toString(), id, "sub-" + filter.substring(3));
+                    }
+                }
+                subscription.isActive();
+                subscription.getExpirationMillis();
+            }
+        });
+    }
+
+    /**
+     * Listeners register and unregister from many threads while the subscription is renewed. At most one
+     * request is in flight at a time, and once the churn stops the single server subscription carries exactly
+     * the filters of the listeners still registered.
+     */
+    @Test
+    public void managerConvergesUnderRegisterChurn() throws Exception {
+        final MockSubscriptions subscriptions = new MockSubscriptions();
+        server.setDispatcher(subscriptions);
+        Platform platform = new Platform("key", "secret", server.getUrl("").toString().replaceAll("/$", ""));
+        TokenResponse token = new TokenResponse();
+        token.tokenType = "bearer";
+        token.accessToken = "abc";
+        token.expiresIn = 3600;
+        platform.setAuthData(token);
+        final SubscriptionManager manager = platform.getSubscriptionManager();
+        manager.setWebhook(new WebhookReceiver(0), "https://hooks.example.com/rc");
+
+        final int threads = 8;
+        final NotificationListener[][] listeners = new NotificationListener[threads][3];
+        for (int t = 0; t < threads; t++) {
+            for (int k = 0; k < 3; k++) {
+                listeners[t][k] = new NotificationListener() {
+                    @Override
+                    public void onNotification(String event, JSONObject body) {
+                    }
+                };
+            }
+        }
+        //Each listener belongs to one thread, so its last operation decides whether it is registered
+        final ConcurrentHashMap<NotificationListener, String> registered = new ConcurrentHashMap<>();
+        new StressRunner(threads, 64).run(new StressRunner.Actor() {
+            @Override
+            public void act(int thread, int iteration) {
+                int k = iteration % 3;
+                NotificationListener listener = listeners[thread][k];
+                if (iteration / 3 % 2 == 0) {
+                    String filter = "/restapi/v1.0/account/~/extension/" + (thread * 3 + k) + "/presence";
+                    manager.register(listener, filter);
+                    registered.put(listener, filter);
+                } else {
+                    manager.unregister(listener);
+                    registered.remove(listener);
+                }
+            }
+        }, new StressRunner.Actor() {
+            @Override
+            public void act(int thread, int iteration) throws Exception {
+                if (thread == 0) {
+                    manager.resume();
+                    Thread.sleep(2);
+                }
+            }
+        });
+
+        final TreeSet<String> expected = new TreeSet<>(registered.values());
+        assertEquals(threads * 2, expected.size());
+        boolean settled = StressRunner.await(new StressRunner.Condition() {
+            @Override
+            public boolean holds() {
+                return subscriptions.inFlight.get() == 0 && expected.equals(new TreeSet<>(manager.getServerFilters()))
+                        && subscriptions.liveFilters().equals(Arrays.asList(expected));
+            }
+        }, 20000);
+        assertTrue("Server has " + subscriptions.liveFilters() + ", manager " + manager.getServerFilters(), settled);
+        assertEquals(1, subscriptions.maxInFlight.get());
+        assertEquals(subscriptions.liveIds(), Arrays.asList(platform.getSubscription().id));
+    }
+
+    /**
+     * Subscription endpoints over an in-memory set of subscriptions, counting the requests in flight
+     */
+    private static class MockSubscriptions extends Dispatcher {
+
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        private final HashMap<String, TreeSet<String>> live = new HashMap<>();
+        private int created;
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            int count = inFlight.incrementAndGet();
+            while (true) {
+                int max = maxInFlight.get();
+                if (count <= max || maxInFlight.compareAndSet(max, count)) {
+                    break;
+                }
+            }
+            try {
+                //Widen the window in which other threads change the listeners
+                Thread.sleep(2);
+                return respond(request);
+            } catch (JSONException e) {
+                return new MockResponse().setResponseCode(400);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        private synchronized MockResponse respond(RecordedRequest request) throws JSONException {
+            String method = request.getMethod();
+            String path = request.getPath();
+            if (method.equals("POST") && path.equals(ENDPOINT)) {
+                String id = "sub-" + ++created;
+                live.put(id, filtersOf(request));
+                return subscription(id);
+            }
+            String id = path.substring(ENDPOINT.length() + 1).replace("/renew", "");
+            if (!live.containsKey(id)) {
+                return new MockResponse().setResponseCode(404);
+            }
+            if (method.equals("PUT")) {
+                live.put(id, filtersOf(request));
+            } else if (method.equals("DELETE")) {
+                live.remove(id);
+                return new MockResponse().setResponseCode(204);
+            }
+            return subscription(id);
+        }
+
+        synchronized List<TreeSet<String>> liveFilters() {
+            return new ArrayList<>(live.values());
+        }
+
+        synchronized List<String> liveIds() {
+            return new ArrayList<>(live.keySet());
+        }
+
+        private static TreeSet<String> filtersOf(RecordedRequest request) throws JSONException {
+            JSONArray filters = new JSONObject(request.getBody().readUtf8()).getJSONArray("eventFilters");
+            TreeSet<String> result = new TreeSet<>();
+            for (int i = 0; i < filters.length(); i++) {
+                result.add(filters.getString(i));
+            }
+            return result;
+        }
+
+        private MockResponse subscription(String id) throws JSONException {
+            JSONObject body = new JSONObject();
+            body.put("id", id);
+            body.put("expiresIn", 900);
+            body.put("expirationTime", Iso8601.format(System.currentTimeMillis() + 900000));
+            body.put("eventFilters", new JSONArray(live.get(id)));
+            body.put("deliveryMode", new JSONObject().put("transportType", "WebHook")
+                    .put("address", "https://hooks.example.com/rc"));
+            return new MockResponse().setBody(body.toString());
+        }
+    }
+}